@@ -0,0 +1,83 @@
+package furche.pg;
+
+public class BattleRoyalSummary {
+    /**
+     * Summary of kills, assists and damage in Battle Royal games, computed in single pass over games.
+     * Summaries of players can be merged into summaries of platforms, ranks or whole player base.
+     * Attributes:
+     * kills : StatSummary of number of kills
+     * assists : StatSummary of number of assists
+     * damage : StatSummary of damage dealt
+     */
+
+    private final StatSummary kills;
+    private final StatSummary assists;
+    private final StatSummary damage;
+
+    /**
+     * Constructor of empty BattleRoyalSummary
+     */
+    public BattleRoyalSummary(){
+        this.kills = new StatSummary();
+        this.assists = new StatSummary();
+        this.damage = new StatSummary();
+    }
+
+    /**
+     * Copy constructor of BattleRoyalSummary
+     * @param other - BattleRoyalSummary copied summary
+     */
+    public BattleRoyalSummary(BattleRoyalSummary other){
+        this.kills = new StatSummary(other.kills);
+        this.assists = new StatSummary(other.assists);
+        this.damage = new StatSummary(other.damage);
+    }
+
+    /**
+     * Function adding statistics of one game
+     * @param kills - int number of kills
+     * @param assists - int number of assists
+     * @param damage - int damage dealt
+     */
+    public void add(int kills, int assists, int damage){
+        this.kills.add(kills);
+        this.assists.add(assists);
+        this.damage.add(damage);
+    }
+
+    /**
+     * Function merging other summary into this one
+     * @param other - BattleRoyalSummary merged summary
+     * @return this summary
+     */
+    public BattleRoyalSummary merge(BattleRoyalSummary other){
+        this.kills.merge(other.kills);
+        this.assists.merge(other.assists);
+        this.damage.merge(other.damage);
+        return this;
+    }
+
+    /**
+     * Returns summary of kills
+     * @return StatSummary kills
+     */
+    public StatSummary getKills(){
+        return this.kills;
+    }
+
+    /**
+     * Returns summary of assists
+     * @return StatSummary assists
+     */
+    public StatSummary getAssists(){
+        return this.assists;
+    }
+
+    /**
+     * Returns summary of damage
+     * @return StatSummary damage
+     */
+    public StatSummary getDamage(){
+        return this.damage;
+    }
+}
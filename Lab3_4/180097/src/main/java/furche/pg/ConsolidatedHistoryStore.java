@@ -0,0 +1,392 @@
+package furche.pg;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ConsolidatedHistoryStore implements AutoCloseable {
+    /**
+     * Storage of game histories of all players in one append only data file with index of segments.
+     * Segment is a block of csv rows (same format as game history files) of one player, the data file is created
+     * with one segment per player in order of player_info file, more segments of a player can be appended later.
+     * Index maps player to segments (offset, length, rowCount), so single player is loaded with one positioned read
+     * per segment and whole base is loaded by sequential scan of data file. Player is identified by nick and platform
+     * (player_info file contains different players with the same nick), lookups by nick return the first of them.
+     * Index is a text file with one line per segment in format "nick,platform,rank,offset,length,rows"
+     * (rank as PlayerRank name), lines starting with '#' are comments.
+     * Store opened by constructor is read only (data file can be on read only file system), openForAppend and create
+     * open data file also for writing and keep index open for appending until the store is closed.
+     * Attributes:
+     * channel : FileChannel data file opened for reading (and appending when store is writable)
+     * indexWriter : BufferedWriter index opened for appending, null for read only store
+     * segments : Map<String, List<Segment>> segments of every player (by nick and platform) in order of adding,
+     *            players in order of index
+     * firstPlayerByNick : Map<String, String> key in segments of first player with given nick
+     * segmentCount : int number of segments
+     */
+
+    public static final String DEFAULT_DATA_PATH = "src/main/resources/game_history.data";
+    public static final String DEFAULT_INDEX_PATH = "src/main/resources/game_history.index";
+
+    private static final long MAX_SCAN_WINDOW = 1L << 30;
+
+    private final FileChannel channel;
+    private final BufferedWriter indexWriter;
+    private final Map<String, List<Segment>> segments = new LinkedHashMap<>();
+    private final Map<String, String> firstPlayerByNick = new HashMap<>();
+    private int segmentCount = 0;
+
+    /**
+     * Segment of data file with rows of one player
+     */
+    public static class Segment {
+        private final PlayerInfo playerInfo;
+        private final long offset;
+        private final int length;
+        private final int rows;
+
+        private Segment(PlayerInfo playerInfo, long offset, int length, int rows){
+            this.playerInfo = playerInfo;
+            this.offset = offset;
+            this.length = length;
+            this.rows = rows;
+        }
+
+        public PlayerInfo getPlayerInfo(){
+            return this.playerInfo;
+        }
+
+        public long getOffset(){
+            return this.offset;
+        }
+
+        public int getLength(){
+            return this.length;
+        }
+
+        public int getRows(){
+            return this.rows;
+        }
+    }
+
+    /**
+     * Constructor opening data file for reading and reading index, appending to the store is not possible
+     * @param dataPath - String path to data file
+     * @param indexPath - String path to index file
+     * @throws IOException when files can not be opened or index has wrong format
+     */
+    public ConsolidatedHistoryStore(String dataPath, String indexPath) throws IOException {
+        this(dataPath, indexPath, false);
+    }
+
+    private ConsolidatedHistoryStore(String dataPath, String indexPath, boolean writable) throws IOException {
+        this.channel = writable
+                ? FileChannel.open(Paths.get(dataPath), StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(Paths.get(dataPath), StandardOpenOption.READ);
+        BufferedWriter indexWriter = null;
+        try {
+            this.readIndex(indexPath);
+            if (writable){
+                indexWriter = new BufferedWriter(new FileWriter(indexPath, true));
+            }
+        } catch (IOException e) {
+            this.channel.close();
+            throw e;
+        }
+        this.indexWriter = indexWriter;
+    }
+
+    /**
+     * Function opening existing store for reading and appending
+     * @param dataPath - String path to data file
+     * @param indexPath - String path to index file
+     * @return ConsolidatedHistoryStore writable store
+     * @throws IOException when files can not be opened or index has wrong format
+     */
+    public static ConsolidatedHistoryStore openForAppend(String dataPath, String indexPath) throws IOException {
+        return new ConsolidatedHistoryStore(dataPath, indexPath, true);
+    }
+
+    private void readIndex(String indexPath) throws IOException {
+        try (BufferedReader br = new BufferedReader(new FileReader(indexPath))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty() || line.startsWith("#")){
+                    continue;
+                }
+                String[] values = line.split(",");
+                if (values.length != 6){
+                    throw new IOException(String.format("Wrong number of fields in line %d of index %s", lineNumber, indexPath));
+                }
+                try {
+                    this.addSegment(new Segment(new PlayerInfo(values[0], values[1], PlayerRank.valueOf(values[2])),
+                            Long.parseLong(values[3]), Integer.parseInt(values[4]), Integer.parseInt(values[5])));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(String.format("Wrong value in line %d of index %s", lineNumber, indexPath), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Function creating data file and index from player_info file and game history files in default directory
+     * (players without game history file are skipped). Existing files are overwritten.
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param dataPath - String path of created data file
+     * @param indexPath - String path of created index
+     * @return ConsolidatedHistoryStore opened store
+     * @throws IOException when files can not be read or written
+     */
+    public static ConsolidatedHistoryStore create(String pathToPlayerInfo, String dataPath, String indexPath) throws IOException {
+        return create(pathToPlayerInfo, PlayerInfo.GAME_HISTORY_DIR, dataPath, indexPath);
+    }
+
+    /**
+     * Function creating data file and index from player_info file and game history files in given directory
+     * (players without game history file are skipped). Existing files are overwritten.
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param gameHistoryDir - String directory with game history files (ending with separator)
+     * @param dataPath - String path of created data file
+     * @param indexPath - String path of created index
+     * @return ConsolidatedHistoryStore opened store
+     * @throws IOException when files can not be read or written
+     */
+    public static ConsolidatedHistoryStore create(String pathToPlayerInfo, String gameHistoryDir, String dataPath,
+                                                  String indexPath) throws IOException {
+        Files.deleteIfExists(Paths.get(dataPath));
+        Files.createFile(Paths.get(dataPath));
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(indexPath))) {
+            writer.write("# nick,platform,rank,offset,length,rows");
+            writer.newLine();
+        }
+        ConsolidatedHistoryStore store = openForAppend(dataPath, indexPath);
+        try {
+            for (PlayerInfo playerInfo : PlayerInfo.readPlayerInfo(pathToPlayerInfo, Integer.MAX_VALUE)){
+                String pathToGameHistory = playerInfo.getGameHistoryPath(gameHistoryDir);
+                if (new File(pathToGameHistory).isFile()){
+                    store.append(playerInfo, Files.readAllBytes(Paths.get(pathToGameHistory)));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Function appending rows of a player to the end of data file and adding segment to index. Rows are parsed
+     * before writing, so malformed rows never get into the store. Index is flushed after every append.
+     * @param playerInfo - PlayerInfo player rows belong to
+     * @param csvRows - byte[] rows in format of game history file
+     * @return int number of appended rows
+     * @throws IOException when data file or index can not be written
+     * @throws IllegalStateException when store was opened read only
+     */
+    public synchronized int append(PlayerInfo playerInfo, byte[] csvRows) throws IOException {
+        if (this.indexWriter == null){
+            throw new IllegalStateException("Store is opened read only, use openForAppend");
+        }
+        ByteBuffer rows = ByteBuffer.wrap(csvRows);
+        int rowCount = new GameHistoryFileReader(rows.duplicate()).parseRows(
+                (epochDay, timeInGame, heroId, kills, assists, damage, position) -> { });
+        if (csvRows.length > 0 && csvRows[csvRows.length - 1] != '\n'){
+            ByteBuffer terminated = ByteBuffer.allocate(csvRows.length + 1);
+            terminated.put(csvRows).put((byte) '\n').flip();
+            rows = terminated;
+        }
+        long offset = this.channel.size();
+        int length = rows.remaining();
+        while (rows.hasRemaining()){
+            this.channel.write(rows, offset + rows.position());
+        }
+        Segment segment = new Segment(playerInfo, offset, length, rowCount);
+        this.indexWriter.write(String.format("%s,%s,%s,%d,%d,%d", playerInfo.getNick(), playerInfo.getPlatform(),
+                playerInfo.getRank().name(), offset, length, rowCount));
+        this.indexWriter.newLine();
+        this.indexWriter.flush();
+        this.addSegment(segment);
+        return rowCount;
+    }
+
+    private void addSegment(Segment segment){
+        String key = playerKey(segment.playerInfo);
+        this.segments.computeIfAbsent(key, k -> new ArrayList<>()).add(segment);
+        this.firstPlayerByNick.putIfAbsent(segment.playerInfo.getNick(), key);
+        this.segmentCount++;
+    }
+
+    private static String playerKey(PlayerInfo playerInfo){
+        return playerKey(playerInfo.getNick(), playerInfo.getPlatform());
+    }
+
+    private static String playerKey(String nick, String platform){
+        return nick + ',' + platform;
+    }
+
+    /**
+     * Function loading first player with given nick with one positioned read per segment of player
+     * @param nick - String nick of player
+     * @return Player with all games stored for the nick or null if there is no such player
+     * @throws IOException when data file can not be read
+     */
+    public synchronized Player readPlayer(String nick) throws IOException {
+        String key = this.firstPlayerByNick.get(nick);
+        return key == null ? null : this.readPlayer(this.segments.get(key));
+    }
+
+    /**
+     * Function loading player with given nick and platform with one positioned read per segment of player
+     * @param nick - String nick of player
+     * @param platform - String name of platform
+     * @return Player with all games stored for the player or null if there is no such player
+     * @throws IOException when data file can not be read
+     */
+    public synchronized Player readPlayer(String nick, String platform) throws IOException {
+        List<Segment> playerSegments = this.segments.get(playerKey(nick, platform));
+        return playerSegments == null ? null : this.readPlayer(playerSegments);
+    }
+
+    private Player readPlayer(List<Segment> playerSegments) throws IOException {
+        PlayerInfo playerInfo = playerSegments.get(0).playerInfo;
+        Player player = new Player(playerInfo.getNick(), playerInfo.getPlatform(), playerInfo.getRank());
+        player.getGameHistory().getBattleRoyalColumns().ensureCapacity(countRows(playerSegments));
+        for (Segment segment : playerSegments){
+            ByteBuffer buffer = ByteBuffer.allocate(segment.length);
+            while (buffer.hasRemaining()){
+                if (this.channel.read(buffer, segment.offset + buffer.position()) < 0){
+                    throw new IOException("Data file is shorter than segment of " + playerInfo.getNick());
+                }
+            }
+            buffer.flip();
+            this.parseSegment(segment, buffer, player);
+        }
+        return player;
+    }
+
+    /**
+     * Function loading all players by sequential scan of data file. Data file is mapped in windows of at most 1 GB
+     * ending on segment boundaries, players are returned in order of index.
+     * @return list of all players in store
+     * @throws IOException when data file can not be read
+     */
+    public synchronized List<Player> readAllPlayers() throws IOException {
+        Map<String, Player> players = new LinkedHashMap<>();
+        List<Segment> ordered = new ArrayList<>(this.segmentCount);
+        for (Map.Entry<String, List<Segment>> entry : this.segments.entrySet()){
+            PlayerInfo playerInfo = entry.getValue().get(0).playerInfo;
+            Player player = new Player(playerInfo.getNick(), playerInfo.getPlatform(), playerInfo.getRank());
+            player.getGameHistory().getBattleRoyalColumns().ensureCapacity(countRows(entry.getValue()));
+            players.put(entry.getKey(), player);
+            ordered.addAll(entry.getValue());
+        }
+        ordered.sort((first, second) -> Long.compare(first.offset, second.offset));
+        int i = 0;
+        while (i < ordered.size()){
+            long windowStart = ordered.get(i).offset;
+            int end = i + 1;
+            while (end < ordered.size() && ordered.get(end).offset + ordered.get(end).length - windowStart <= MAX_SCAN_WINDOW){
+                end++;
+            }
+            Segment last = ordered.get(end - 1);
+            MappedByteBuffer window = this.channel.map(FileChannel.MapMode.READ_ONLY, windowStart, last.offset + last.length - windowStart);
+            for (; i < end; i++){
+                Segment segment = ordered.get(i);
+                ByteBuffer slice = window.duplicate();
+                slice.position((int) (segment.offset - windowStart));
+                slice.limit((int) (segment.offset - windowStart) + segment.length);
+                this.parseSegment(segment, slice, players.get(playerKey(segment.playerInfo)));
+            }
+        }
+        return new ArrayList<>(players.values());
+    }
+
+    private void parseSegment(Segment segment, ByteBuffer buffer, Player player) throws IOException {
+        int rows = new GameHistoryFileReader(buffer).parseRows(player::addGameToHistory);
+        if (rows != segment.rows){
+            throw new IOException(String.format("Segment of %s at offset %d has %d rows, index expects %d",
+                    segment.playerInfo.getNick(), segment.offset, rows, segment.rows));
+        }
+    }
+
+    private static int countRows(List<Segment> playerSegments){
+        int rows = 0;
+        for (Segment segment : playerSegments){
+            rows += segment.rows;
+        }
+        return rows;
+    }
+
+    /**
+     * Returns segments of first player with given nick
+     * @param nick - String nick of player
+     * @return read only list of segments in order of appending (empty if there is no such player)
+     */
+    public synchronized List<Segment> getSegments(String nick){
+        String key = this.firstPlayerByNick.get(nick);
+        return key == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(this.segments.get(key)));
+    }
+
+    /**
+     * Returns nicks of all players in store in order of index (nick shared by more players is listed more times)
+     * @return list of nicks
+     */
+    public synchronized List<String> getNicks(){
+        List<String> nicks = new ArrayList<>(this.segments.size());
+        for (List<Segment> playerSegments : this.segments.values()){
+            nicks.add(playerSegments.get(0).playerInfo.getNick());
+        }
+        return nicks;
+    }
+
+    /**
+     * Function closing data file and index
+     * @throws IOException when files can not be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (this.indexWriter != null){
+                this.indexWriter.close();
+            }
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Main function creating store from default data set and comparing single player and full loads.
+     */
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime();
+        try (ConsolidatedHistoryStore store = create(PlayerInfo.PLAYER_INFO_PATH, DEFAULT_DATA_PATH, DEFAULT_INDEX_PATH)) {
+            System.out.printf("Store of %d players created in %f s%n", store.getNicks().size(), (System.nanoTime() - start) / 1e9);
+        }
+        try (ConsolidatedHistoryStore store = new ConsolidatedHistoryStore(DEFAULT_DATA_PATH, DEFAULT_INDEX_PATH)) {
+            String nick = store.getNicks().get(store.getNicks().size() / 2);
+            start = System.nanoTime();
+            Player player = store.readPlayer(nick);
+            System.out.printf("Player %s with %d games read in %f ms, KD Ratio: %f%n", nick,
+                    player.getGameHistory().getNumberOfGames(), (System.nanoTime() - start) / 1e6, player.getKDRatio());
+        }
+        PlayerBase.loadConsolidated(DEFAULT_DATA_PATH, DEFAULT_INDEX_PATH);
+        new PlayerBase();
+    }
+}
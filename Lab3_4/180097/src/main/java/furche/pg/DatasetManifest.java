@@ -0,0 +1,234 @@
+package furche.pg;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+public class DatasetManifest {
+    /**
+     * Manifest of data set generated from player_info file and game history files.
+     * For every player with game history file it stores platform, rank, length of file in bytes, number of rows
+     * and CRC32 checksum of file, so loader can pre-size storage of games, open files without checking they exist
+     * and fail fast when a file was changed after manifest was generated.
+     * Manifest is a text file with one line per player in format "nick,platform,rank,length,rows,crc32"
+     * (rank as PlayerRank name, crc32 in hex), lines starting with '#' are comments. Game history files are looked up
+     * by nick in directory given when manifest is generated or read, so the same manifest can describe data set
+     * stored anywhere.
+     * Attributes:
+     * entries : List<Entry> entries in order of player_info file
+     * totalRows : long summed number of rows of all files
+     */
+
+    public static final String DEFAULT_MANIFEST_PATH = "src/main/resources/dataset.manifest";
+
+    private final List<Entry> entries;
+    private final long totalRows;
+
+    private DatasetManifest(List<Entry> entries){
+        this.entries = entries;
+        long rows = 0;
+        for (Entry entry : entries){
+            rows += entry.rows;
+        }
+        this.totalRows = rows;
+    }
+
+    /**
+     * Manifest entry of one player
+     */
+    public static class Entry {
+        private final PlayerInfo playerInfo;
+        private final String gameHistoryPath;
+        private final long length;
+        private final int rows;
+        private final long crc32;
+
+        private Entry(PlayerInfo playerInfo, String gameHistoryPath, long length, int rows, long crc32){
+            this.playerInfo = playerInfo;
+            this.gameHistoryPath = gameHistoryPath;
+            this.length = length;
+            this.rows = rows;
+            this.crc32 = crc32;
+        }
+
+        public PlayerInfo getPlayerInfo(){
+            return this.playerInfo;
+        }
+
+        public String getGameHistoryPath(){
+            return this.gameHistoryPath;
+        }
+
+        public long getLength(){
+            return this.length;
+        }
+
+        public int getRows(){
+            return this.rows;
+        }
+
+        public long getCrc32(){
+            return this.crc32;
+        }
+    }
+
+    /**
+     * Function generating manifest of players from player_info file which have game history file in default directory
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param manifestPath - String path of created manifest
+     * @return DatasetManifest generated manifest
+     * @throws IOException when game history files can not be read or manifest can not be written
+     */
+    public static DatasetManifest generate(String pathToPlayerInfo, String manifestPath) throws IOException {
+        return generate(pathToPlayerInfo, PlayerInfo.GAME_HISTORY_DIR, manifestPath);
+    }
+
+    /**
+     * Function generating manifest of players from player_info file which have game history file in given directory
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param gameHistoryDir - String directory with game history files (ending with separator)
+     * @param manifestPath - String path of created manifest
+     * @return DatasetManifest generated manifest
+     * @throws IOException when game history files can not be read or manifest can not be written
+     */
+    public static DatasetManifest generate(String pathToPlayerInfo, String gameHistoryDir, String manifestPath) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (PlayerInfo playerInfo : PlayerInfo.readPlayerInfo(pathToPlayerInfo, Integer.MAX_VALUE)){
+            String pathToGameHistory = playerInfo.getGameHistoryPath(gameHistoryDir);
+            if (new File(pathToGameHistory).isFile()){
+                try (FileChannel channel = FileChannel.open(Paths.get(pathToGameHistory), StandardOpenOption.READ)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    int rows = new GameHistoryFileReader(buffer.duplicate()).parseRows(
+                            (epochDay, timeInGame, heroId, kills, assists, damage, position) -> { });
+                    entries.add(new Entry(playerInfo, pathToGameHistory, channel.size(), rows, checksum(buffer)));
+                }
+            }
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(manifestPath))) {
+            writer.write("# nick,platform,rank,length,rows,crc32");
+            writer.newLine();
+            for (Entry entry : entries){
+                PlayerInfo playerInfo = entry.playerInfo;
+                writer.write(String.format("%s,%s,%s,%d,%d,%08x", playerInfo.getNick(), playerInfo.getPlatform(),
+                        playerInfo.getRank().name(), entry.length, entry.rows, entry.crc32));
+                writer.newLine();
+            }
+        }
+        return new DatasetManifest(entries);
+    }
+
+    /**
+     * Function reading manifest file of game history files in default directory
+     * @param manifestPath - String path to manifest
+     * @return DatasetManifest read manifest
+     * @throws IOException when manifest can not be read or has wrong format
+     */
+    public static DatasetManifest read(String manifestPath) throws IOException {
+        return read(manifestPath, PlayerInfo.GAME_HISTORY_DIR);
+    }
+
+    /**
+     * Function reading manifest file of game history files in given directory
+     * @param manifestPath - String path to manifest
+     * @param gameHistoryDir - String directory with game history files (ending with separator)
+     * @return DatasetManifest read manifest
+     * @throws IOException when manifest can not be read or has wrong format
+     */
+    public static DatasetManifest read(String manifestPath, String gameHistoryDir) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(manifestPath))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty() || line.startsWith("#")){
+                    continue;
+                }
+                String[] values = line.split(",");
+                if (values.length != 6){
+                    throw new IOException(String.format("Wrong number of fields in line %d of manifest %s", lineNumber, manifestPath));
+                }
+                try {
+                    PlayerInfo playerInfo = new PlayerInfo(values[0], values[1], PlayerRank.valueOf(values[2]));
+                    entries.add(new Entry(playerInfo, playerInfo.getGameHistoryPath(gameHistoryDir),
+                            Long.parseLong(values[3]), Integer.parseInt(values[4]), Long.parseLong(values[5], 16)));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(String.format("Wrong value in line %d of manifest %s", lineNumber, manifestPath), e);
+                }
+            }
+        }
+        return new DatasetManifest(entries);
+    }
+
+    /**
+     * Function reading game history file described by entry and passing its rows to consumer. File is opened without
+     * checking it exists, length is checked before parsing and number of rows after it.
+     * @param entry - Entry manifest entry of player
+     * @param consumer - GameRowConsumer receiving rows
+     * @param verifyChecksum - boolean true if CRC32 of file should be checked before parsing
+     * @throws IOException when file is missing or doesn't match manifest
+     */
+    public static void readGameHistory(Entry entry, GameRowConsumer consumer, boolean verifyChecksum) throws IOException {
+        String path = entry.gameHistoryPath;
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length != entry.length){
+                throw new IOException(String.format("Length of %s is %d, manifest expects %d", path, length, entry.length));
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (verifyChecksum && checksum(buffer) != entry.crc32){
+                throw new IOException(String.format("Checksum of %s doesn't match manifest", path));
+            }
+            int rows = new GameHistoryFileReader(buffer).parseRows(consumer);
+            if (rows != entry.rows){
+                throw new IOException(String.format("%s has %d rows, manifest expects %d", path, rows, entry.rows));
+            }
+        }
+    }
+
+    private static long checksum(MappedByteBuffer buffer){
+        CRC32 crc32 = new CRC32();
+        crc32.update(buffer.duplicate());
+        return crc32.getValue();
+    }
+
+    /**
+     * Returns entries of manifest
+     * @return read only list of entries in order of player_info file
+     */
+    public List<Entry> getEntries(){
+        return Collections.unmodifiableList(this.entries);
+    }
+
+    /**
+     * Returns summed number of rows of all game history files
+     * @return long number of games in data set
+     */
+    public long getTotalRows(){
+        return this.totalRows;
+    }
+
+    /**
+     * Main function generating manifest of default data set and comparing loading with and without it.
+     */
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime();
+        DatasetManifest manifest = generate(PlayerInfo.PLAYER_INFO_PATH, DEFAULT_MANIFEST_PATH);
+        System.out.printf("Manifest of %d players, %d games written to %s in %f s%n", manifest.getEntries().size(),
+                manifest.getTotalRows(), DEFAULT_MANIFEST_PATH, (System.nanoTime() - start) / 1e9);
+        new PlayerBase();
+        PlayerBase.loadManifest(DEFAULT_MANIFEST_PATH, false);
+        PlayerBase.loadManifest(DEFAULT_MANIFEST_PATH, true);
+    }
+}
@@ -0,0 +1,61 @@
+package furche.pg;
+
+import java.util.Arrays;
+
+public class DoubleArrayList {
+    /**
+     * Growable list of primitive doubles (replacement of List<Double> without boxing of every element).
+     * Attributes:
+     * elements : double[] array storing elements, only first size elements are used
+     * size : int number of elements
+     */
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private double[] elements;
+    private int size;
+
+    /**
+     * Constructor of empty DoubleArrayList with initial capacity
+     * @param capacity - int number of elements which can be added before array has to grow
+     */
+    public DoubleArrayList(int capacity){
+        this.elements = new double[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Function appending element to the end of list
+     * @param value - double element
+     */
+    public void add(double value){
+        if (this.size == this.elements.length){
+            this.grow(Math.max(this.size * 2, DEFAULT_CAPACITY));
+        }
+        this.elements[this.size++] = value;
+    }
+
+    /**
+     * Returns number of elements
+     * @return int size
+     */
+    public int size(){
+        return this.size;
+    }
+
+    /**
+     * Returns sum of elements
+     * @return double sum
+     */
+    public double sum(){
+        double sum = 0;
+        for (int i = 0; i < this.size; i++){
+            sum += this.elements[i];
+        }
+        return sum;
+    }
+
+    private void grow(int capacity){
+        this.elements = Arrays.copyOf(this.elements, capacity);
+    }
+}
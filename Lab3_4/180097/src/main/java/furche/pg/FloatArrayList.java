@@ -0,0 +1,112 @@
+package furche.pg;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+public class FloatArrayList {
+    /**
+     * Growable list of primitive floats (replacement of List<Float> without boxing of every element).
+     * Attributes:
+     * elements : float[] array storing elements, only first size elements are used
+     * size : int number of elements
+     */
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private float[] elements;
+    private int size;
+
+    /**
+     * Constructor of empty FloatArrayList with initial capacity
+     * @param capacity - int number of elements which can be added before array has to grow
+     */
+    public FloatArrayList(int capacity){
+        this.elements = new float[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Function appending element to the end of list
+     * @param value - float element
+     */
+    public void add(float value){
+        if (this.size == this.elements.length){
+            this.grow(Math.max(this.size * 2, DEFAULT_CAPACITY));
+        }
+        this.elements[this.size++] = value;
+    }
+
+    /**
+     * Returns element with given index
+     * @param index - int index
+     * @return float element
+     */
+    public float get(int index){
+        this.checkIndex(index);
+        return this.elements[index];
+    }
+
+    /**
+     * Returns number of elements
+     * @return int size
+     */
+    public int size(){
+        return this.size;
+    }
+
+    /**
+     * Returns true if list has no elements
+     * @return boolean true if list is empty
+     */
+    public boolean isEmpty(){
+        return this.size == 0;
+    }
+
+    /**
+     * Returns minimal element
+     * @return float min
+     * @throws NoSuchElementException when list is empty
+     */
+    public float min(){
+        this.checkNotEmpty();
+        float min = this.elements[0];
+        for (int i = 1; i < this.size; i++){
+            if (this.elements[i] < min){
+                min = this.elements[i];
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Returns maximal element
+     * @return float max
+     * @throws NoSuchElementException when list is empty
+     */
+    public float max(){
+        this.checkNotEmpty();
+        float max = this.elements[0];
+        for (int i = 1; i < this.size; i++){
+            if (this.elements[i] > max){
+                max = this.elements[i];
+            }
+        }
+        return max;
+    }
+
+    private void checkIndex(int index){
+        if (index < 0 || index >= this.size){
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+    }
+
+    private void checkNotEmpty(){
+        if (this.size == 0){
+            throw new NoSuchElementException("List is empty");
+        }
+    }
+
+    private void grow(int capacity){
+        this.elements = Arrays.copyOf(this.elements, capacity);
+    }
+}
@@ -1,8 +1,10 @@
 package furche.pg;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -12,21 +14,30 @@ abstract class Game implements Comparable<Game>{
     /**
      * Abstract class representing game in Apex Legends.
      * Attributes :
-     * gameStats : hash map storing all relevant game statistics :
-     *              - String date
-     *              - int time spent in game
-     *              - String hero used in game
-     *              - int number of kills
-     *              - int number of assists
-     *              - int number of damage dealt
+     * epochDay : int date of game as number of days since 1-1-1970
+     * timeInGame : float time spent in game
+     * heroId : byte id of hero used in game in HeroDictionary (name is available through getHero())
+     * kills : int number of kills
+     * assists : int number of assists
+     * damage : int number of damage dealt
      *
+     * Map view of those statistics (as used in previous versions) is available through getGameStats(), it is built
+     * on first call and cached until any statistic is changed by a setter.
+     * cachedGameStats : Map<String, String> read only map view returned by getGameStats(), null until it is built
      */
 
-    protected LinkedHashMap<String, String> gameStats; // hashmap storing all relevant game statistics
+    protected int epochDay;
+    protected float timeInGame;
+    protected byte heroId;
+    protected int kills;
+    protected int assists;
+    protected int damage;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient Map<String, String> cachedGameStats;
 
     /**
      * Constructor of abstract class Game
-     * @param mode - String game mode ( battle royal of arena )
      * @param date - String date of game
      * @param timeInGame - float time spent in game
      * @param hero - String name of hero used in game
@@ -34,21 +45,161 @@ abstract class Game implements Comparable<Game>{
      * @param assists - int number of scored assists
      * @param damage - int number of scored damage
      */
-    public Game(String mode, String date, float timeInGame, String hero, int kills, int assists, int damage){
-        this.gameStats = new LinkedHashMap<>();
-        this.gameStats.put("mode", mode);
-        this.gameStats.put("date", date);
-        this.gameStats.put("timeInGame", Float.toString(timeInGame));
-        this.gameStats.put("hero", hero);
-        this.gameStats.put("kills", Integer.toString(kills));
-        this.gameStats.put("assists", Integer.toString(assists));
-        this.gameStats.put("damage", Integer.toString(damage));
+    public Game(String date, float timeInGame, String hero, int kills, int assists, int damage){
+        this(GameDate.parseEpochDay(date), timeInGame, hero, kills, assists, damage);
     }
 
-    public Game(LinkedHashMap<String, String> gameStats){
-        this.gameStats = gameStats;
+    /**
+     * Constructor of abstract class Game
+     * @param epochDay - int date of game as number of days since 1-1-1970
+     * @param timeInGame - float time spent in game
+     * @param hero - String name of hero used in game
+     * @param kills - int number of scored kills
+     * @param assists - int number of scored assists
+     * @param damage - int number of scored damage
+     */
+    public Game(int epochDay, float timeInGame, String hero, int kills, int assists, int damage){
+        this.epochDay = epochDay;
+        this.timeInGame = timeInGame;
+        this.heroId = (byte) HeroDictionary.getHeroId(hero);
+        this.kills = kills;
+        this.assists = assists;
+        this.damage = damage;
+    }
+
+    /**
+     * Constructor of abstract class Game from map of game stats (in format returned by getGameStats())
+     * @param gameStats - map with game stats
+     */
+    public Game(Map<String, String> gameStats){
+        this(gameStats.get("date"), Float.parseFloat(gameStats.get("timeInGame")), gameStats.get("hero"),
+                Integer.parseInt(gameStats.get("kills")), Integer.parseInt(gameStats.get("assists")),
+                Integer.parseInt(gameStats.get("damage")));
+    }
+
+    /**
+     * Returns mode of the game
+     * @return GameMode mode
+     */
+    public abstract GameMode getGameMode();
+
+    /**
+     * Returns name of hero used in game
+     * @return String (interned) name of hero
+     */
+    public String getHero(){
+        return HeroDictionary.getHeroName(this.heroId);
+    }
+
+    /**
+     * Function setting hero used in game
+     * @param hero - String name of hero
+     */
+    public void setHero(String hero){
+        this.heroId = (byte) HeroDictionary.getHeroId(hero);
+        this.invalidateGameStats();
+    }
+
+    /**
+     * Function setting id of hero used in game in HeroDictionary
+     * @param heroId - byte id of hero
+     */
+    public void setHeroId(byte heroId){
+        this.heroId = heroId;
+        this.invalidateGameStats();
+    }
+
+    /**
+     * Function setting date of game
+     * @param epochDay - int date of game as number of days since 1-1-1970
+     */
+    public void setEpochDay(int epochDay){
+        this.epochDay = epochDay;
+        this.invalidateGameStats();
+    }
+
+    /**
+     * Function setting time spent in game
+     * @param timeInGame - float time spent in game
+     */
+    public void setTimeInGame(float timeInGame){
+        this.timeInGame = timeInGame;
+        this.invalidateGameStats();
+    }
+
+    /**
+     * Function setting number of kills
+     * @param kills - int number of kills
+     */
+    public void setKills(int kills){
+        this.kills = kills;
+        this.invalidateGameStats();
+    }
+
+    /**
+     * Function setting number of assists
+     * @param assists - int number of assists
+     */
+    public void setAssists(int assists){
+        this.assists = assists;
+        this.invalidateGameStats();
     }
 
+    /**
+     * Function setting number of damage dealt
+     * @param damage - int number of damage dealt
+     */
+    public void setDamage(int damage){
+        this.damage = damage;
+        this.invalidateGameStats();
+    }
+
+    /**
+     * Returns date of game in format "d-m-yyyy"
+     * @return String date
+     */
+    public String getDate(){
+        return GameDate.toDateString(this.epochDay);
+    }
+
+    /**
+     * Returns game statistics as map of Strings (keys: mode, date, timeInGame, hero, kills, assists, damage
+     * and mode specific keys). Map is built from typed fields on first call and the same instance is returned until
+     * a statistic is changed by a setter. Map is read only, statistics have to be changed through setters.
+     *
+     * @return read only map with game statistics
+     * @throws UnsupportedOperationException when returned map is modified
+     */
+    public Map<String, String> getGameStats(){
+        Map<String, String> gameStats = this.cachedGameStats;
+        if (gameStats == null){
+            LinkedHashMap<String, String> builtGameStats = new LinkedHashMap<>();
+            builtGameStats.put("mode", this.getMode());
+            builtGameStats.put("date", this.getDate());
+            builtGameStats.put("timeInGame", Float.toString(this.timeInGame));
+            builtGameStats.put("hero", this.getHero());
+            builtGameStats.put("kills", Integer.toString(this.kills));
+            builtGameStats.put("assists", Integer.toString(this.assists));
+            builtGameStats.put("damage", Integer.toString(this.damage));
+            this.putModeStats(builtGameStats);
+            gameStats = Collections.unmodifiableMap(builtGameStats);
+            this.cachedGameStats = gameStats;
+        }
+        return gameStats;
+    }
+
+    /**
+     * Function dropping cached map view of statistics, called by every setter
+     */
+    protected void invalidateGameStats(){
+        this.cachedGameStats = null;
+    }
+
+    /**
+     * Function adding statistics specific for game mode to map returned by getGameStats()
+     * @param gameStats - map with game statistics
+     */
+    protected abstract void putModeStats(LinkedHashMap<String, String> gameStats);
 
     /**
      * Returns a string containg all entries from gameStats in form "Key: value ".
@@ -59,7 +210,7 @@ abstract class Game implements Comparable<Game>{
     public String gameStatsToString(){
         StringBuilder gameStatsStringBuilder = new StringBuilder(); // builder for creating output string
         String keyCapitalized; // value for storing capitalized keys (with 1 letter captital)
-        for (Map.Entry<String, String> entry : this.gameStats.entrySet()){ // for each key append out string with "Key: val"
+        for (Map.Entry<String, String> entry : this.getGameStats().entrySet()){ // for each key append out string with "Key: val"
             keyCapitalized = entry.getKey().substring(0,1).toUpperCase() + entry.getKey().substring(1).toLowerCase();
             gameStatsStringBuilder.append(String.format("%s: %s ", keyCapitalized, entry.getValue()));
         }
@@ -69,11 +220,11 @@ abstract class Game implements Comparable<Game>{
     }
 
     /**
-     * Returns game mode from gameStats (used in furche.pg.GameHistory for mode identification)
+     * Returns game mode name (used in furche.pg.GameHistory for mode identification)
      * @return String game mode
      */
     public String getMode(){
-        return this.gameStats.get("mode");
+        return this.getGameMode().getName();
     }
 
     /**
@@ -81,7 +232,7 @@ abstract class Game implements Comparable<Game>{
      */
     @Override
     public int compareTo(Game game){
-        return Integer.compare( Integer.parseInt(game.getGameStats().get("kills")), Integer.parseInt(this.gameStats.get("kills")));
+        return Integer.compare(game.kills, this.kills);
     }
 
     /**
@@ -89,9 +240,21 @@ abstract class Game implements Comparable<Game>{
      * @return float game score
      */
     public float countGameGrade(){
-        return Float.parseFloat(this.gameStats.get("timeInGame"))* 0.2f +
-                ((Float.parseFloat(this.gameStats.get("kills")) + Float.parseFloat(this.gameStats.get("assists")))/6)*0.2f +
-                (Float.parseFloat(this.gameStats.get("damage"))/1000f)*0.2f;
+        return countGameGrade(this.timeInGame, this.kills, this.assists, this.damage);
+    }
+
+    /**
+     * Function that calculates normalized game score from game statistics (used also for games stored in GameColumns).
+     * @param timeInGame - float time spent in game
+     * @param kills - int number of kills
+     * @param assists - int number of assists
+     * @param damage - int number of damage dealt
+     * @return float game score
+     */
+    public static float countGameGrade(float timeInGame, int kills, int assists, int damage){
+        return timeInGame * 0.2f +
+                (((float) kills + (float) assists)/6)*0.2f +
+                ((float) damage/1000f)*0.2f;
     }
     /**
      * Function that should return game results in string format in a way relevant to specific game mode
@@ -112,11 +275,13 @@ abstract class Game implements Comparable<Game>{
 class BattleRoyal extends Game implements Cloneable{ // first example of inheritance
     /**
      * Class describing game of Battle Royal, inheriting from Game class.
-     * Additional attribute in gameStats:
+     * Additional attribute:
      * position -> int [1;20] describing position in the game
      *
      */
 
+    protected int position;
+
     /**
      * Constructor of class BattleRoyal
      *
@@ -129,16 +294,52 @@ class BattleRoyal extends Game implements Cloneable{ // first example of inherit
      * @param position - int position player finished game on
      */
     public BattleRoyal(String date, float timeInGame, String hero, int kills, int assists, int damage, int position){
-        super("battleRoyal", date, timeInGame, hero, kills, assists, damage);
-        this.gameStats.put("position", Integer.toString(position));
+        super(date, timeInGame, hero, kills, assists, damage);
+        this.position = position;
+    }
+
+    /**
+     * Constructor of class BattleRoyal with date given as epoch day
+     *
+     * @param epochDay - int date of game as number of days since 1-1-1970
+     * @param timeInGame - float time spent in game
+     * @param hero - String name of hero used in game
+     * @param kills - int number of scored kills
+     * @param assists - int number of scored assists
+     * @param damage - int number of scored damage
+     * @param position - int position player finished game on
+     */
+    public BattleRoyal(int epochDay, float timeInGame, String hero, int kills, int assists, int damage, int position){
+        super(epochDay, timeInGame, hero, kills, assists, damage);
+        this.position = position;
     }
 
     /**
-     * Constructor of class BattleRoyal used for deep cloning
-     * @param gameStats - deep copy of game stats from orignal object
+     * Constructor of class BattleRoyal from map of game stats
+     * @param gameStats - map with game stats (in format returned by getGameStats())
      */
-    public BattleRoyal(LinkedHashMap<String, String> gameStats){
+    public BattleRoyal(Map<String, String> gameStats){
        super(gameStats);
+       this.position = Integer.parseInt(gameStats.get("position"));
+    }
+
+    @Override
+    public GameMode getGameMode(){
+        return GameMode.BATTLE_ROYAL;
+    }
+
+    /**
+     * Function setting position player finished game on
+     * @param position - int position player finished game on
+     */
+    public void setPosition(int position){
+        this.position = position;
+        this.invalidateGameStats();
+    }
+
+    @Override
+    protected void putModeStats(LinkedHashMap<String, String> gameStats){
+        gameStats.put("position", Integer.toString(this.position));
     }
 
     /**
@@ -149,17 +350,16 @@ class BattleRoyal extends Game implements Cloneable{ // first example of inherit
      * @return String with game results
      */
     public String getGameResult(){  // polymorphism
-        int position = Integer.parseInt(this.gameStats.get("position"));
-        if(position == 1){
+        if(this.position == 1){
             return "win";
         }
-        else if(position > 1 && position <= 3) {
+        else if(this.position > 1 && this.position <= 3) {
             return "top3";
         }
-        else if(position > 3 && position <= 5) {
+        else if(this.position > 3 && this.position <= 5) {
             return "top5";
         }
-        else if (position > 5 && position <= 10){
+        else if (this.position > 5 && this.position <= 10){
             return "6-10";
         }
         else {
@@ -168,22 +368,18 @@ class BattleRoyal extends Game implements Cloneable{ // first example of inherit
     }
 
     /**
-     * Deep cloning of Battle Royal Game object
+     * Cloning of Battle Royal Game object (all fields are primitives or immutable, so shallow copy is a deep copy)
      *
-     * @return deep clone of Battle Royal object
+     * @return clone of Battle Royal object
      */
 
     @Override
     public Object clone() {
-        BattleRoyal clonedBattleRoyal;
-        LinkedHashMap<String, String> gameStatsCopy = new LinkedHashMap<>(this.gameStats);
         try{
-            clonedBattleRoyal = (BattleRoyal) super.clone();
-            clonedBattleRoyal.setGameStats(gameStatsCopy);
+            return super.clone();
         }catch(CloneNotSupportedException e){
-            clonedBattleRoyal = new BattleRoyal(gameStatsCopy);
+            return new BattleRoyal(this.epochDay, this.timeInGame, this.getHero(), this.kills, this.assists, this.damage, this.position);
         }
-        return clonedBattleRoyal;
     }
 }
 
@@ -191,7 +387,8 @@ class RankedBattleRoyal extends BattleRoyal {
 
     /**
      * Class describing ranked Battle Royal inheriting from Battle Royal class.
-     * Additional field:
+     * Additional fields:
+     * rank : rank of the player at the time of the game
      * rankNegativePoints : amount of negative ranking points assigned to the rank of the player
      *                      ( the higher the rank the more negative points ).
      *                      0 for bronze (lowest rank)
@@ -200,7 +397,8 @@ class RankedBattleRoyal extends BattleRoyal {
      *
      */
 
-    private int rankNegativePoints;
+    private final PlayerRank rank;
+    private final int rankNegativePoints;
 
     /**
      * constructor of class Ranked Battle Royal
@@ -215,23 +413,53 @@ class RankedBattleRoyal extends BattleRoyal {
      */
 
     public RankedBattleRoyal(String date, float timeInGame, String hero, int kills, int assists, int damage, int position, PlayerRank rank){
-        super(date, timeInGame, hero, kills, assists, damage, position);
+        this(GameDate.parseEpochDay(date), timeInGame, hero, kills, assists, damage, position, rank);
+    }
+
+    /**
+     * constructor of class Ranked Battle Royal with date given as epoch day
+     * @param epochDay - int date of game as number of days since 1-1-1970
+     * @param timeInGame - float time spent in game
+     * @param hero - String name of hero used in game
+     * @param kills - int number of scored kills
+     * @param assists - int number of scored assists
+     * @param damage - int number of scored damage
+     * @param position - int position player finished game on
+     * @param rank - PlayerRank rank of player
+     */
+
+    public RankedBattleRoyal(int epochDay, float timeInGame, String hero, int kills, int assists, int damage, int position, PlayerRank rank){
+        super(epochDay, timeInGame, hero, kills, assists, damage, position);
+        this.rank = rank;
+        this.rankNegativePoints = getRankNegativePoints(rank);
+    }
+
+    /**
+     * Returns amount of negative ranking points for given rank
+     * @param rank - PlayerRank rank of player
+     * @return int negative points
+     */
+    static int getRankNegativePoints(PlayerRank rank){
         switch (rank){
-            case BRONZE:
-                this.rankNegativePoints = 0;
-                break;
             case SILVER:
-                this.rankNegativePoints = 12;
-                break;
+                return 12;
             case GOLD:
-                this.rankNegativePoints = 24;
-                break;
+                return 24;
             case PLATINUM:
-                this.rankNegativePoints = 36;
-                break;
+                return 36;
+            default:
+                return 0;
         }
     }
 
+    /**
+     * Returns rank of the player at the time of the game
+     * @return PlayerRank rank
+     */
+    public PlayerRank getRank(){
+        return this.rank;
+    }
+
     /**
      * Function calculating ranking score for the game
      * Points are acquired in two ways:
@@ -243,9 +471,7 @@ class RankedBattleRoyal extends BattleRoyal {
      * @return int with ranking points
      */
     private int calculateGameRankScore(){
-        int position = Integer.parseInt(this.gameStats.get("position"));
-
-        int sumKA = Integer.parseInt(this.gameStats.get("kills")) + Integer.parseInt(this.gameStats.get("assists")); // sum of kills and assists
+        int sumKA = this.kills + this.assists; // sum of kills and assists
 
         int pointsKA; // points acquired through kills and assists
 
@@ -259,25 +485,25 @@ class RankedBattleRoyal extends BattleRoyal {
 
         int pointsPosition = -1; // points acquired by finishing game on certain position
 
-        if(position > 10){
+        if(this.position > 10){
             pointsPosition = 0;
         }
-        else if(position == 10 || position == 9){
+        else if(this.position == 10 || this.position == 9){
             pointsPosition = 10;
         }
-        else if(position == 8 || position == 7){
+        else if(this.position == 8 || this.position == 7){
             pointsPosition = 20;
         }
-        else if(position == 6 || position == 5){
+        else if(this.position == 6 || this.position == 5){
             pointsPosition = 30;
         }
-        else if(position == 4 || position == 3){
+        else if(this.position == 4 || this.position == 3){
             pointsPosition = 40;
         }
-        else if(position == 2){
+        else if(this.position == 2){
             pointsPosition = 60;
         }
-        else if(position == 1){
+        else if(this.position == 1){
             pointsPosition = 100;
         }
         return pointsKA + pointsPosition - this.rankNegativePoints;
@@ -297,7 +523,12 @@ class RankedBattleRoyal extends BattleRoyal {
 class Arena extends Game implements Cloneable{
     /**
      * Class representing game of furche.pg.Arena, inheriting from furche.pg.Game class.
+     * Additional attribute:
+     * hasWon -> boolean true if player won the game
      */
+
+    private boolean hasWon;
+
     /**
      * Constructor of class Arena
      * @param date - String date of game
@@ -310,16 +541,52 @@ class Arena extends Game implements Cloneable{
      */
 
     public Arena(String date, float timeInGame, String hero, int kills, int assists, int damage, boolean hasWon){
-        super("arena", date, timeInGame, hero, kills, assists, damage);
-        this.gameStats.put("hasWon", Boolean.toString(hasWon));
+        super(date, timeInGame, hero, kills, assists, damage);
+        this.hasWon = hasWon;
     }
 
     /**
-     * Constructor of class Arena used for deep cloning
-     * @param gameStats - deep copy of gameStats from original object
+     * Constructor of class Arena with date given as epoch day
+     * @param epochDay - int date of game as number of days since 1-1-1970
+     * @param timeInGame - float time spent in game
+     * @param hero - String name of hero used in game
+     * @param kills - int number of scored kills
+     * @param assists - int number of scored assists
+     * @param damage - int number of scored damage
+     * @param hasWon - boolean true if player won, false if player lost
      */
-    public Arena(LinkedHashMap<String, String> gameStats){
+
+    public Arena(int epochDay, float timeInGame, String hero, int kills, int assists, int damage, boolean hasWon){
+        super(epochDay, timeInGame, hero, kills, assists, damage);
+        this.hasWon = hasWon;
+    }
+
+    /**
+     * Constructor of class Arena from map of game stats
+     * @param gameStats - map with game stats (in format returned by getGameStats())
+     */
+    public Arena(Map<String, String> gameStats){
         super(gameStats);
+        this.hasWon = Boolean.parseBoolean(gameStats.get("hasWon"));
+    }
+
+    @Override
+    public GameMode getGameMode(){
+        return GameMode.ARENA;
+    }
+
+    /**
+     * Function setting result of the game
+     * @param hasWon - boolean true if player won, false if player lost
+     */
+    public void setHasWon(boolean hasWon){
+        this.hasWon = hasWon;
+        this.invalidateGameStats();
+    }
+
+    @Override
+    protected void putModeStats(LinkedHashMap<String, String> gameStats){
+        gameStats.put("hasWon", Boolean.toString(this.hasWon));
     }
 
     /**
@@ -327,7 +594,7 @@ class Arena extends Game implements Cloneable{
      * @return String game results in format "win" or "loss"
      */
     public String getGameResult(){ // polymorphism
-        if(Boolean.parseBoolean(this.gameStats.get("hasWon"))){
+        if(this.hasWon){
             return "win";
         }
         else{
@@ -336,22 +603,18 @@ class Arena extends Game implements Cloneable{
     }
 
     /**
-     * Deep cloning of Arena Game object
+     * Cloning of Arena Game object (all fields are primitives or immutable, so shallow copy is a deep copy)
      *
-     * @return deep clone of Arena object
+     * @return clone of Arena object
      */
 
     @Override
     public Object clone(){
-        Arena clonedArena;
-        LinkedHashMap<String, String> gameStatsCopy = new LinkedHashMap<>(this.gameStats);
         try{
-            clonedArena = (Arena) super.clone();
-            clonedArena.setGameStats(gameStatsCopy);
+            return super.clone();
         }catch(CloneNotSupportedException e){
-            clonedArena = new Arena(gameStatsCopy);
+            return new Arena(this.epochDay, this.timeInGame, this.getHero(), this.kills, this.assists, this.damage, this.hasWon);
         }
-        return clonedArena;
     }
 
-}
\ No newline at end of file
+}
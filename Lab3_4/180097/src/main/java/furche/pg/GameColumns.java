@@ -0,0 +1,378 @@
+package furche.pg;
+
+public class GameColumns implements Cloneable {
+    /**
+     * Class storing games of one game mode column by column (struct of arrays) in growable primitive arrays
+     * on heap (default) or as fixed width records off heap in OffHeapGameArena.
+     * Game with index i is described by i-th element of every column. Game objects are not stored,
+     * they are created on demand by getGame (or read without creating objects through GameCursor).
+     * Attributes:
+     * mode : GameMode mode of all games stored in columns
+     * size : int number of stored games
+     * storage : GameStorage storing columns:
+     *           epochDay - date of game as number of days since 1-1-1970
+     *           timeInGame - time spent in game
+     *           heroId - id of hero in HeroDictionary
+     *           kills, assists, damage - number of kills, assists and damage dealt
+     *           result - position (1-20) for Battle Royal, 1 if won and 0 if lost for Arena
+     *           rank - PlayerRank ordinal for ranked Battle Royal, -1 for not ranked games
+     * readOnly : boolean true for snapshots created by snapshot()
+     * timeIndex : GameTimeIndex last built index of games ordered by date (may cover only first games)
+     * timeSum : float sum of time of all games, updated with every added game
+     * killsSum : long sum of kills of all games, updated with every added game
+     * summary : BattleRoyalSummary of kills, assists and damage of all games, updated with every added game
+     *
+     * Columns are append only: stored games are never changed or removed. Snapshot shares storage with original
+     * columns and only remembers their size, games appended later are written behind the end of the snapshot
+     * (or to new storage when columns grow), so snapshot stays consistent without copying anything.
+     */
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final GameMode mode;
+    private int size;
+    private GameStorage storage;
+    private final boolean readOnly;
+    private volatile GameTimeIndex timeIndex;
+    private float timeSum;
+    private long killsSum;
+    private final BattleRoyalSummary summary;
+
+    /**
+     * Constructor of GameColumns
+     * @param mode - GameMode mode of stored games
+     */
+    public GameColumns(GameMode mode){
+        this(mode, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor of GameColumns with initial capacity
+     * @param mode - GameMode mode of stored games
+     * @param capacity - int number of games which can be stored before columns have to grow
+     */
+    public GameColumns(GameMode mode, int capacity){
+        this(mode, new HeapGameStorage(capacity));
+    }
+
+    /**
+     * Constructor of GameColumns storing games off heap in given arena, blocks of arena are allocated
+     * when first games are added
+     * @param mode - GameMode mode of stored games
+     * @param arena - OffHeapGameArena arena storing games
+     */
+    public GameColumns(GameMode mode, OffHeapGameArena arena){
+        this(mode, new OffHeapGameStorage(arena, 0));
+    }
+
+    private GameColumns(GameMode mode, GameStorage storage){
+        this.mode = mode;
+        this.size = 0;
+        this.storage = storage;
+        this.readOnly = false;
+        this.summary = new BattleRoyalSummary();
+    }
+
+    /**
+     * Constructor of read only snapshot sharing storage with source columns
+     * @param source - GameColumns columns snapshot is taken of
+     */
+    private GameColumns(GameColumns source){
+        this.mode = source.mode;
+        this.size = source.size;
+        this.storage = source.storage;
+        this.readOnly = true;
+        this.timeIndex = source.timeIndex;
+        this.timeSum = source.timeSum;
+        this.killsSum = source.killsSum;
+        this.summary = new BattleRoyalSummary(source.summary);
+    }
+
+    /**
+     * Function creating read only snapshot of columns in O(1), games added to these columns later are not visible
+     * in the snapshot. Snapshot of snapshot is the snapshot itself.
+     * @return read only GameColumns
+     */
+    public GameColumns snapshot(){
+        return this.readOnly ? this : new GameColumns(this);
+    }
+
+    /**
+     * Returns true if games are stored off heap
+     * @return boolean true for off heap storage
+     */
+    public boolean isOffHeap(){
+        return this.storage instanceof OffHeapGameStorage;
+    }
+
+    /**
+     * Returns true if columns are read only snapshot
+     * @return boolean true for snapshot
+     */
+    public boolean isReadOnly(){
+        return this.readOnly;
+    }
+
+    /**
+     * Function appending game to the columns
+     * @param epochDay - int date of game as number of days since 1-1-1970
+     * @param timeInGame - float time spent in game
+     * @param heroId - int id of hero in HeroDictionary
+     * @param kills - int number of kills
+     * @param assists - int number of assists
+     * @param damage - int number of damage dealt
+     * @param result - int position for Battle Royal, 1 if won and 0 if lost for Arena
+     * @param rank - PlayerRank rank of player for ranked Battle Royal, null for not ranked games
+     */
+    public void add(int epochDay, float timeInGame, int heroId, int kills, int assists, int damage, int result, PlayerRank rank){
+        this.checkWritable();
+        if (result < 0 || result > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Game result out of range: " + result);
+        }
+        if (this.size == this.storage.capacity()) {
+            this.storage = this.storage.withCapacity(this.size + 1);
+        }
+        this.storage.set(this.size, epochDay, timeInGame, heroId, kills, assists, damage, result, rank == null ? -1 : rank.ordinal());
+        this.size++;
+        this.timeSum += timeInGame;
+        this.killsSum += kills;
+        this.summary.add(kills, assists, damage);
+    }
+
+    /**
+     * Function appending game object to the columns
+     * @param game - Game of the same mode as columns
+     */
+    public void add(Game game){
+        if (game.getGameMode() != this.mode) {
+            throw new IllegalArgumentException("Game of mode " + game.getMode() + " can't be added to " + this.mode.getName() + " columns");
+        }
+        int heroId = game.getHeroId();
+        if (game instanceof Arena) {
+            this.add(game.getEpochDay(), game.getTimeInGame(), heroId, game.getKills(), game.getAssists(), game.getDamage(),
+                    ((Arena) game).isHasWon() ? 1 : 0, null);
+        } else {
+            PlayerRank rank = game instanceof RankedBattleRoyal ? ((RankedBattleRoyal) game).getRank() : null;
+            this.add(game.getEpochDay(), game.getTimeInGame(), heroId, game.getKills(), game.getAssists(), game.getDamage(),
+                    ((BattleRoyal) game).getPosition(), rank);
+        }
+    }
+
+    /**
+     * Function making sure columns can store given number of games without growing
+     * @param capacity - int required capacity
+     */
+    public void ensureCapacity(int capacity){
+        this.checkWritable();
+        this.storage = this.storage.withCapacity(capacity);
+    }
+
+    /**
+     * Returns index of stored games ordered by date. Index is built on first call and then only extended with
+     * games added since the last call. Same as add, must not be called concurrently with adding games.
+     * @return GameTimeIndex index of all stored games
+     */
+    public GameTimeIndex getTimeIndex(){
+        GameTimeIndex index = this.timeIndex;
+        if (index == null || index.size() != this.size) {
+            index = GameTimeIndex.build(this, index);
+            this.timeIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Function creating Game object (BattleRoyal, RankedBattleRoyal or Arena) from i-th element of columns
+     * @param i - int index of game
+     * @return new Game object
+     */
+    public Game getGame(int i){
+        this.checkIndex(i);
+        GameStorage storage = this.storage;
+        String hero = HeroDictionary.getHeroName(storage.getHeroId(i));
+        if (this.mode == GameMode.ARENA) {
+            return new Arena(storage.getEpochDay(i), storage.getTimeInGame(i), hero, storage.getKills(i), storage.getAssists(i), storage.getDamage(i),
+                    storage.getResult(i) != 0);
+        }
+        int rank = storage.getRank(i);
+        if (rank >= 0) {
+            return new RankedBattleRoyal(storage.getEpochDay(i), storage.getTimeInGame(i), hero, storage.getKills(i), storage.getAssists(i),
+                    storage.getDamage(i), storage.getResult(i), PlayerRank.values()[rank]);
+        }
+        return new BattleRoyal(storage.getEpochDay(i), storage.getTimeInGame(i), hero, storage.getKills(i), storage.getAssists(i),
+                storage.getDamage(i), storage.getResult(i));
+    }
+
+    /**
+     * Returns mode of stored games
+     * @return GameMode mode
+     */
+    public GameMode getMode(){
+        return this.mode;
+    }
+
+    /**
+     * Returns number of stored games
+     * @return int number of games
+     */
+    public int size(){
+        return this.size;
+    }
+
+    /**
+     * Returns date of i-th game as epoch day
+     * @param i - int index of game
+     * @return int epoch day
+     */
+    public int getEpochDay(int i){
+        this.checkIndex(i);
+        return this.storage.getEpochDay(i);
+    }
+
+    /**
+     * Returns time spent in i-th game
+     * @param i - int index of game
+     * @return float time in game
+     */
+    public float getTimeInGame(int i){
+        this.checkIndex(i);
+        return this.storage.getTimeInGame(i);
+    }
+
+    /**
+     * Returns id (in HeroDictionary) of hero used in i-th game
+     * @param i - int index of game
+     * @return int hero id
+     */
+    public int getHeroId(int i){
+        this.checkIndex(i);
+        return this.storage.getHeroId(i);
+    }
+
+    /**
+     * Returns number of kills in i-th game
+     * @param i - int index of game
+     * @return int kills
+     */
+    public int getKills(int i){
+        this.checkIndex(i);
+        return this.storage.getKills(i);
+    }
+
+    /**
+     * Returns number of assists in i-th game
+     * @param i - int index of game
+     * @return int assists
+     */
+    public int getAssists(int i){
+        this.checkIndex(i);
+        return this.storage.getAssists(i);
+    }
+
+    /**
+     * Returns damage dealt in i-th game
+     * @param i - int index of game
+     * @return int damage
+     */
+    public int getDamage(int i){
+        this.checkIndex(i);
+        return this.storage.getDamage(i);
+    }
+
+    /**
+     * Returns result of i-th game: position for Battle Royal, 1 if won and 0 if lost for Arena
+     * @param i - int index of game
+     * @return int result
+     */
+    public int getResult(int i){
+        this.checkIndex(i);
+        return this.storage.getResult(i);
+    }
+
+    /**
+     * Returns rank of player in i-th game
+     * @param i - int index of game
+     * @return PlayerRank rank for ranked Battle Royal, null for not ranked games
+     */
+    public PlayerRank getRank(int i){
+        this.checkIndex(i);
+        int rank = this.storage.getRank(i);
+        return rank < 0 ? null : PlayerRank.values()[rank];
+    }
+
+    /**
+     * Returns storage of columns for readers checking bounds on their own (see GameCursor)
+     * @return GameStorage current storage, storage of writable columns is replaced when they grow
+     */
+    GameStorage getStorage(){
+        return this.storage;
+    }
+
+    /**
+     * Function creating flyweight cursor reading games of these columns without creating Game objects
+     * @return GameCursor placed before first game
+     */
+    public GameCursor cursor(){
+        return new GameCursor(this);
+    }
+
+    /**
+     * Returns sum of time spent in all games (maintained while adding games, O(1))
+     * @return float sum of time
+     */
+    public float sumTime(){
+        return this.timeSum;
+    }
+
+    /**
+     * Returns sum of kills in all games (maintained while adding games, O(1))
+     * @return long sum of kills
+     */
+    public long sumKills(){
+        return this.killsSum;
+    }
+
+    /**
+     * Returns copy of summary (count, min, max, mean, variance) of kills, assists and damage of all games
+     * (maintained while adding games, O(1))
+     * @return BattleRoyalSummary of stored games
+     */
+    public BattleRoyalSummary summarize(){
+        return new BattleRoyalSummary(this.summary);
+    }
+
+    /**
+     * Deep cloning of GameColumns, capacity of copied columns is trimmed to size. Clone is always writable
+     * and uses the same kind of storage (off heap clone is allocated in the same arena).
+     * OffHeapGameArena never frees blocks, so blocks of off heap clone stay allocated until the whole arena is released
+     * even after the clone becomes unreachable - off heap columns should be cloned only when the copy is kept.
+     *
+     * @return deep clone of GameColumns
+     */
+    @Override
+    public Object clone(){
+        GameStorage storage = this.storage;
+        GameColumns copy = new GameColumns(this.mode, storage.empty(this.isOffHeap() ? this.size : Math.max(this.size, DEFAULT_CAPACITY)));
+        for (int i = 0; i < this.size; i++) {
+            copy.storage.set(i, storage.getEpochDay(i), storage.getTimeInGame(i), storage.getHeroId(i), storage.getKills(i),
+                    storage.getAssists(i), storage.getDamage(i), storage.getResult(i), storage.getRank(i));
+        }
+        copy.size = this.size;
+        copy.timeSum = this.timeSum;
+        copy.killsSum = this.killsSum;
+        copy.summary.merge(this.summary);
+        return copy;
+    }
+
+    private void checkWritable(){
+        if (this.readOnly) {
+            throw new UnsupportedOperationException("Snapshot of " + this.mode.getName() + " columns is read only");
+        }
+    }
+
+    private void checkIndex(int i){
+        if (i < 0 || i >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + this.size);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package furche.pg;
+
+public class GameCursor {
+    /**
+     * Flyweight giving access to games stored in GameColumns without creating Game objects.
+     * Cursor points at one game at a time and is moved with next or moveTo, so one object can be used for reading
+     * whole history (e.g. off heap one). Cursor reads read only snapshot of columns taken when it was created.
+     * Bounds are checked only when cursor is moved, getters read storage of snapshot directly, so loop over cursor
+     * doesn't pay index check of GameColumns getters for every value. Getters may be called only while cursor points
+     * at game (after next returned true or after moveTo), otherwise their result is unspecified.
+     * Attributes:
+     * columns : GameColumns read only snapshot of columns
+     * storage : GameStorage storage of snapshot
+     * size : int number of games in snapshot
+     * index : int index of current game, -1 before first game
+     */
+
+    private final GameColumns columns;
+    private final GameStorage storage;
+    private final int size;
+    private int index;
+
+    /**
+     * Constructor of GameCursor placed before first game
+     * @param columns - GameColumns columns read by cursor
+     */
+    public GameCursor(GameColumns columns){
+        this.columns = columns.snapshot();
+        this.storage = this.columns.getStorage();
+        this.size = this.columns.size();
+        this.index = -1;
+    }
+
+    /**
+     * Function moving cursor to next game
+     * @return boolean true if cursor points at game, false if there are no more games
+     */
+    public boolean next(){
+        if (this.index + 1 < this.size) {
+            this.index++;
+            return true;
+        }
+        this.index = this.size;
+        return false;
+    }
+
+    /**
+     * Function moving cursor to game with given index
+     * @param index - int index of game
+     * @return this cursor
+     */
+    public GameCursor moveTo(int index){
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+        this.index = index;
+        return this;
+    }
+
+    /**
+     * Returns number of games which can be read by cursor
+     * @return int number of games
+     */
+    public int size(){
+        return this.size;
+    }
+
+    /**
+     * Returns index of current game
+     * @return int index, -1 before first game, size() after last game
+     */
+    public int getIndex(){
+        return this.index;
+    }
+
+    /**
+     * Returns mode of games read by cursor
+     * @return GameMode mode of columns
+     */
+    public GameMode getGameMode(){
+        return this.columns.getMode();
+    }
+
+    /**
+     * Returns date of current game
+     * @return int number of days since 1-1-1970
+     */
+    public int getEpochDay(){
+        return this.storage.getEpochDay(this.index);
+    }
+
+    /**
+     * Returns date of current game in format d-m-yyyy
+     * @return String date
+     */
+    public String getDate(){
+        return GameDate.toDateString(this.getEpochDay());
+    }
+
+    /**
+     * Returns time spent in current game
+     * @return float time in game
+     */
+    public float getTimeInGame(){
+        return this.storage.getTimeInGame(this.index);
+    }
+
+    /**
+     * Returns id of hero used in current game
+     * @return int id of hero in HeroDictionary
+     */
+    public int getHeroId(){
+        return this.storage.getHeroId(this.index);
+    }
+
+    /**
+     * Returns name of hero used in current game
+     * @return String interned name of hero
+     */
+    public String getHero(){
+        return HeroDictionary.getHeroName(this.getHeroId());
+    }
+
+    /**
+     * Returns number of kills scored in current game
+     * @return int kills
+     */
+    public int getKills(){
+        return this.storage.getKills(this.index);
+    }
+
+    /**
+     * Returns number of assists scored in current game
+     * @return int assists
+     */
+    public int getAssists(){
+        return this.storage.getAssists(this.index);
+    }
+
+    /**
+     * Returns damage dealt in current game
+     * @return int damage
+     */
+    public int getDamage(){
+        return this.storage.getDamage(this.index);
+    }
+
+    /**
+     * Returns position of current Battle Royal game
+     * @return int position
+     */
+    public int getPosition(){
+        this.checkMode(GameMode.BATTLE_ROYAL);
+        return this.storage.getResult(this.index);
+    }
+
+    /**
+     * Returns true if current Arena game was won
+     * @return boolean true if won
+     */
+    public boolean isHasWon(){
+        this.checkMode(GameMode.ARENA);
+        return this.storage.getResult(this.index) != 0;
+    }
+
+    /**
+     * Returns rank of player in current game
+     * @return PlayerRank rank for ranked Battle Royal, null for not ranked games
+     */
+    public PlayerRank getRank(){
+        int rank = this.storage.getRank(this.index);
+        return rank < 0 ? null : PlayerRank.values()[rank];
+    }
+
+    /**
+     * Function calculating game grade of current game (same as Game.countGameGrade)
+     * @return float game grade
+     */
+    public float countGameGrade(){
+        return Game.countGameGrade(this.getTimeInGame(), this.getKills(), this.getAssists(), this.getDamage());
+    }
+
+    /**
+     * Function creating Game object of current game
+     * @return Game current game
+     */
+    public Game toGame(){
+        return this.columns.getGame(this.index);
+    }
+
+    private void checkMode(GameMode mode){
+        if (this.columns.getMode() != mode) {
+            throw new IllegalStateException("Cursor reads " + this.columns.getMode().getName() + " games");
+        }
+    }
+}
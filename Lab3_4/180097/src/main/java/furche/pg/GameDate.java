@@ -0,0 +1,83 @@
+package furche.pg;
+
+import java.time.LocalDate;
+
+public final class GameDate {
+    /**
+     * Utility class for converting dates of games between String format used in game history files ("d-m-yyyy")
+     * and epoch day (int number of days since 1-1-1970).
+     * String representations of dates are cached, so every game played on the same day shares one String object.
+     */
+
+    private static final int CACHE_FIRST_DAY = toEpochDay(1, 1, 2000);
+    private static final int CACHE_LAST_DAY = toEpochDay(31, 12, 2099);
+    private static final String[] DATE_STRING_CACHE = new String[CACHE_LAST_DAY - CACHE_FIRST_DAY + 1];
+
+    private GameDate(){
+    }
+
+    /**
+     * Function converting date to epoch day (same algorithm as java.time.LocalDate.toEpochDay, without creating objects)
+     * @param day - int day of month [1;31]
+     * @param month - int month [1;12]
+     * @param year - int year
+     * @return int number of days since 1-1-1970
+     */
+    public static int toEpochDay(int day, int month, int year){
+        long y = year;
+        long total = 365 * y;
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            boolean isLeapYear = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+            if (!isLeapYear) {
+                total--;
+            }
+        }
+        return (int) (total - 719528); // 719528 -> days from 0000-01-01 to 1970-01-01
+    }
+
+    /**
+     * Function parsing date in format "d-m-yyyy" (leading zeros allowed, e.g. "04-05-2019") to epoch day
+     * @param date - String date
+     * @return int number of days since 1-1-1970
+     */
+    public static int parseEpochDay(String date){
+        int firstSeparator = date.indexOf('-');
+        int secondSeparator = date.indexOf('-', firstSeparator + 1);
+        if (firstSeparator < 0 || secondSeparator < 0) {
+            throw new NumberFormatException("Invalid date: " + date);
+        }
+        return toEpochDay(Integer.parseInt(date.substring(0, firstSeparator)),
+                Integer.parseInt(date.substring(firstSeparator + 1, secondSeparator)),
+                Integer.parseInt(date.substring(secondSeparator + 1)));
+    }
+
+    /**
+     * Function returning date in format "d-m-yyyy" for given epoch day. Strings of dates between 2000 and 2099 are cached.
+     * @param epochDay - int number of days since 1-1-1970
+     * @return String date
+     */
+    public static String toDateString(int epochDay){
+        if (epochDay < CACHE_FIRST_DAY || epochDay > CACHE_LAST_DAY) {
+            return formatDate(epochDay);
+        }
+        String date = DATE_STRING_CACHE[epochDay - CACHE_FIRST_DAY];
+        if (date == null) { // race between threads is harmless, both create equal Strings
+            date = formatDate(epochDay);
+            DATE_STRING_CACHE[epochDay - CACHE_FIRST_DAY] = date;
+        }
+        return date;
+    }
+
+    private static String formatDate(int epochDay){
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getDayOfMonth() + "-" + date.getMonthValue() + "-" + date.getYear();
+    }
+}
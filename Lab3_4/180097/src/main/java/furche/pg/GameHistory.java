@@ -1,7 +1,5 @@
 package furche.pg;
 
-import javafx.util.Pair;
-import jdk.nashorn.internal.objects.Global;
 import lombok.Getter;
 import lombok.Setter;
 import tech.tablesaw.api.DoubleColumn;
@@ -10,8 +8,8 @@ import tech.tablesaw.api.Table;
 import tech.tablesaw.plotly.Plot;
 import tech.tablesaw.plotly.api.TimeSeriesPlot;
 
-import java.rmi.dgc.DGC;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.lang.Math;
 
 
@@ -21,133 +19,282 @@ public class GameHistory implements Cloneable {
     /**
      * furche.pg.GameHistory class represent game history of a specific player (aggregation relationship)
      * Attributes:
-     * playedGamesList : list containing furche.pg.Game object of games played by a specific player
-     * historyStats : hashtable containing summed stats of all games played (all values are int):
+     * battleRoyalColumns : GameColumns storing Battle Royal games played by a specific player column by column
+     * arenaColumns : GameColumns storing Arena games played by a specific player column by column
+     * historyCounters : HistoryCounters containing summed stats of all games played (see HistoryCounter):
      *                  - number of all battle royals played
      *                  - number of battle royals won
      *                  - number of battle royals top3
      *                  - number of battle royals top5
      *                  - number of arenas played
      *                  - number of arenas won
+     *                  getHistoryStats returns them as hashtable for compatibility
+     *
+     * Games are not stored as objects, getPlayedBattleRoyalsList and getPlayedArenasList return read only lists
+     * creating Game objects on demand.
+     * Readers which need consistent history while games are being added should use snapshot() (O(1), shares
+     * columns), deep copy by clone() is needed only when copy has to be modified independently.
      */
 
-    // list for storing game entries
-    private List<BattleRoyal> playedBattleRoyalsList;
-    private List<Arena> playedArenasList;
+    // columns for storing game entries
+    private final GameColumns battleRoyalColumns;
+    private final GameColumns arenaColumns;
     private GameListComparatorDate gameListComparator;
 
-    // dictionary for storing overall values for game history : number of games, won games etc.
-    private Hashtable<String, Integer> historyStats;
+    // counters of overall values for game history : number of games, won games etc.
+    private HistoryCounters historyCounters;
+
+    // listeners notified about every added game
+    private final List<GameHistoryListener> listeners;
 
     /**
      * Constructor of GameHistory
      *
      */
     public GameHistory(){
-        this.playedBattleRoyalsList = new ArrayList<>();
-        this.playedArenasList = new ArrayList<>();
-        this.historyStats = new Hashtable<>();
-        this.gameListComparator = new GameListComparatorDate();
+        this(false);
+    }
+
+    /**
+     * Constructor of GameHistory with choice of counters
+     * @param concurrentCounters - boolean true if counters should be readable by other threads without locking
+     *                             (LongAdder), false for plain int counters
+     */
+    public GameHistory(boolean concurrentCounters){
+        this(new GameColumns(GameMode.BATTLE_ROYAL), new GameColumns(GameMode.ARENA),
+                concurrentCounters ? HistoryCounters.concurrent() : HistoryCounters.plain());
     }
 
 
     /**
-     * Constructor of GameHistory used for deep cloning
-     * @param playedBattleRoyalsList - deep copy of battle royal list from original object
-     * @param playedArenasList - deep copy of arena list from original object
-     * @param historyStats - deep copy of history stats from original object
+     * Constructor of GameHistory storing games off heap in given arena
+     * @param arena - OffHeapGameArena arena storing games
+     */
+    public GameHistory(OffHeapGameArena arena){
+        this(new GameColumns(GameMode.BATTLE_ROYAL, arena), new GameColumns(GameMode.ARENA, arena), HistoryCounters.plain());
+    }
+
+    /**
+     * Constructor of GameHistory from lists of games
+     * @param playedBattleRoyalsList - list of battle royals
+     * @param playedArenasList - list of arenas
+     * @param historyStats - history stats matching given games
      */
     public GameHistory(List<BattleRoyal> playedBattleRoyalsList, List<Arena> playedArenasList, Hashtable<String, Integer> historyStats){
-        this.playedBattleRoyalsList = playedBattleRoyalsList;
-        this.playedArenasList = playedArenasList;
-        this.historyStats = historyStats;
-        this.gameListComparator = new GameListComparatorDate();
+        this(new GameColumns(GameMode.BATTLE_ROYAL, playedBattleRoyalsList.size()), new GameColumns(GameMode.ARENA, playedArenasList.size()),
+                HistoryCounters.fromHashtable(historyStats, false));
+        for(BattleRoyal game : playedBattleRoyalsList){
+            this.battleRoyalColumns.add(game);
+        }
+        for(Arena game : playedArenasList){
+            this.arenaColumns.add(game);
+        }
     }
 
     /**
-     * Function copying lists of Games with deep cloning of each game
+     * Constructor of GameHistory used for deep cloning
+     * @param battleRoyalColumns - deep copy of battle royal columns from original object
+     * @param arenaColumns - deep copy of arena columns from original object
+     * @param historyCounters - copy of history counters from original object
+     */
+    private GameHistory(GameColumns battleRoyalColumns, GameColumns arenaColumns, HistoryCounters historyCounters){
+        this.battleRoyalColumns = battleRoyalColumns;
+        this.arenaColumns = arenaColumns;
+        this.historyCounters = historyCounters;
+        this.gameListComparator = new GameListComparatorDate();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
 
-     * @return Pair containing copied lists of Battle Royals and Arenas
+    /**
+     * Function creating read only snapshot of history in O(1). Snapshot shares columns with this history and is not
+     * affected by games added later, adding games to snapshot throws UnsupportedOperationException.
+     * Listeners are not copied.
+     * @return read only GameHistory
      */
-    private Pair<List<BattleRoyal>, List<Arena>> getGameListsDeepCopies(){
-        List<BattleRoyal> playedBattleRoyalsListTmpCopy = new ArrayList<>();
-        List<Arena> playedArenasListTmpCopy = new ArrayList<>();
-        for(BattleRoyal game : this.playedBattleRoyalsList){
-            playedBattleRoyalsListTmpCopy.add((BattleRoyal) game.clone());
-        }
-        for(Arena game : this.playedArenasList){
-            playedArenasListTmpCopy.add((Arena) game.clone());
+    public synchronized GameHistory snapshot(){
+        if (this.isReadOnly()){
+            return this;
         }
+        return new GameHistory(this.battleRoyalColumns.snapshot(), this.arenaColumns.snapshot(), this.historyCounters.copy());
+    }
 
-        return new Pair<>(playedBattleRoyalsListTmpCopy, playedArenasListTmpCopy);
+    /**
+     * Returns true if history is read only snapshot
+     * @return boolean true for snapshot
+     */
+    public boolean isReadOnly(){
+        return this.battleRoyalColumns.isReadOnly();
     }
 
     /**
-     * Deep cloning of GameHistory
+     * Deep cloning of GameHistory (listeners are not copied), clone is always writable.
+     * Use snapshot() when only read access is needed.
      *
      * @return deep clone of gameHistory
      */
 
     @Override
-    public Object clone(){
-        GameHistory gameHistoryCopy = null;
-        Hashtable<String, Integer> historyStatsCopy = new Hashtable<>(this.historyStats);
-        Pair<List<BattleRoyal>, List<Arena>> gameListsCopies = this.getGameListsDeepCopies();
-        List<BattleRoyal> playedBattleRoyalsListCopy = gameListsCopies.getKey();
-        List<Arena> playedArenasListCopy = gameListsCopies.getValue();
-
-        try{
-            gameHistoryCopy = (GameHistory) super.clone();
-            gameHistoryCopy.setHistoryStats(historyStatsCopy);
-            gameHistoryCopy.setPlayedBattleRoyalsList(playedBattleRoyalsListCopy);
-            gameHistoryCopy.setPlayedArenasList(playedArenasListCopy);
-        }catch (CloneNotSupportedException e){
-            gameHistoryCopy = new GameHistory(playedBattleRoyalsListCopy, playedArenasListCopy, historyStatsCopy);
+    public synchronized Object clone(){
+        return new GameHistory((GameColumns) this.battleRoyalColumns.clone(), (GameColumns) this.arenaColumns.clone(),
+                this.historyCounters.copy());
+    }
+
+    /**
+     * Function registering listener notified about every game added to history
+     * @param listener - GameHistoryListener listener
+     */
+    public void addListener(GameHistoryListener listener){
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Function removing registered listener
+     * @param listener - GameHistoryListener listener
+     */
+    public void removeListener(GameHistoryListener listener){
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Function notifying listeners about game added as last element of columns
+     * @param columns - GameColumns game was added to
+     */
+    private void notifyListeners(GameColumns columns){
+        if (this.listeners.isEmpty()){
+            return;
+        }
+        int index = columns.size() - 1;
+        for (GameHistoryListener listener : this.listeners){
+            listener.gameAdded(this, columns, index);
+        }
+    }
+
+    /**
+     * Read only list of games stored in columns, Game objects are created on every get.
+     */
+    private static class GameListView<T extends Game> extends AbstractList<T> implements RandomAccess {
+        private final GameColumns columns;
+
+        private GameListView(GameColumns columns){
+            this.columns = columns;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T get(int index){
+            return (T) this.columns.getGame(index);
         }
-        return gameHistoryCopy;
+
+        @Override
+        public int size(){
+            return this.columns.size();
+        }
+    }
+
+    /**
+     * Returns read only list of played Battle Royals, games are created on demand from columns
+     * @return list of Battle Royal games
+     */
+    public List<BattleRoyal> getPlayedBattleRoyalsList(){
+        return new GameListView<>(this.battleRoyalColumns);
+    }
+
+    /**
+     * Returns read only list of played Arenas, games are created on demand from columns
+     * @return list of Arena games
+     */
+    public List<Arena> getPlayedArenasList(){
+        return new GameListView<>(this.arenaColumns);
     }
 
     /**
      *
-     * Adds game to the list storing played games.
-     * After insertion to list, based on mode of the game (furche.pg.Arena, battle Royal) and results
-     * corresponding values are incremented in historyStats
+     * Adds game to the columns storing played games.
+     * After insertion, based on mode of the game (furche.pg.Arena, battle Royal) and results
+     * corresponding values are incremented in historyCounters
      * @param game : object of type game
      *
      * */
-    public void addGameToHistory(Game game){
-        if(game.getMode().equals("battleRoyal")) {
-            this.playedBattleRoyalsList.add((BattleRoyal) game);
-            int countBattleRoyalsPlayed = this.historyStats.getOrDefault("battleRoyalsPlayed", 0);
-            this.historyStats.put("battleRoyalsPlayed", countBattleRoyalsPlayed + 1);
-            String gameResult = game.getGameResult();
-
-            switch(gameResult){
-                case "win":
-                    int countBattleRoyalsWon = this.historyStats.getOrDefault("battleRoyalsWon", 0);
-                    this.historyStats.put("battleRoyalsWon", countBattleRoyalsWon + 1);
-                    break;
-                case "top3":
-                    int countBattleRoyalsTop3 = this.historyStats.getOrDefault("battleRoyalsTop3", 0);
-                    this.historyStats.put("battleRoyalsTop3", countBattleRoyalsTop3 + 1);
-                    break;
-                case "top5":
-                    int countBattleRoyalsTop5 = this.historyStats.getOrDefault("battleRoyalsTop5", 0);
-                    this.historyStats.put("battleRoyalsTop5", countBattleRoyalsTop5 + 1);
-            }
+    public synchronized void addGameToHistory(Game game){
+        if(game.getGameMode() == GameMode.BATTLE_ROYAL) {
+            this.battleRoyalColumns.add(game);
+            this.historyCounters.countBattleRoyal(((BattleRoyal) game).getPosition());
+            this.notifyListeners(this.battleRoyalColumns);
         }
-        else if(game.getMode().equals("arena")){
-            this.playedArenasList.add((Arena) game);
-            int countArenasPlayed = this.historyStats.getOrDefault("arenasPlayed", 0);
-            this.historyStats.put("arenasPlayed", countArenasPlayed + 1);
-            boolean hasWon =  Boolean.getBoolean(game.getGameStats().get("hasWon"));
-            if(hasWon){
-                int countArenasWon = this.historyStats.getOrDefault("arenasWon", 0);
-                this.historyStats.put("arenasWon", countArenasWon + 1);
-            }
+        else if(game.getGameMode() == GameMode.ARENA){
+            this.arenaColumns.add(game);
+            this.historyCounters.countArena(((Arena) game).isHasWon());
+            this.notifyListeners(this.arenaColumns);
         }
     }
 
+    /**
+     * Adds Battle Royal game to history without creating Game object
+     * @param epochDay - int date of game as number of days since 1-1-1970
+     * @param timeInGame - float time spent in game
+     * @param heroId - int id of hero in HeroDictionary
+     * @param kills - int number of kills
+     * @param assists - int number of assists
+     * @param damage - int number of damage dealt
+     * @param position - int position on which player finished the game
+     * @param rank - PlayerRank rank of player for ranked game, null for not ranked game
+     */
+    public synchronized void addBattleRoyal(int epochDay, float timeInGame, int heroId, int kills, int assists, int damage, int position, PlayerRank rank){
+        this.battleRoyalColumns.add(epochDay, timeInGame, heroId, kills, assists, damage, position, rank);
+        this.historyCounters.countBattleRoyal(position);
+        this.notifyListeners(this.battleRoyalColumns);
+    }
+
+    /**
+     * Adds Arena game to history without creating Game object
+     * @param epochDay - int date of game as number of days since 1-1-1970
+     * @param timeInGame - float time spent in game
+     * @param heroId - int id of hero in HeroDictionary
+     * @param kills - int number of kills
+     * @param assists - int number of assists
+     * @param damage - int number of damage dealt
+     * @param hasWon - boolean true if player won the game
+     */
+    public synchronized void addArena(int epochDay, float timeInGame, int heroId, int kills, int assists, int damage, boolean hasWon){
+        this.arenaColumns.add(epochDay, timeInGame, heroId, kills, assists, damage, hasWon ? 1 : 0, null);
+        this.historyCounters.countArena(hasWon);
+        this.notifyListeners(this.arenaColumns);
+    }
+
+    /**
+     * Returns counters of history as hashtable (compatibility with former historyStats), only counters greater than 0
+     * are included. Hashtable is a copy, changing it doesn't change history.
+     * @return Hashtable with counters by key (e.g. "battleRoyalsWon")
+     */
+    public Hashtable<String, Integer> getHistoryStats(){
+        return this.historyCounters.toHashtable();
+    }
+
+    /**
+     * Function replacing counters of history with values from hashtable (compatibility with former historyStats)
+     * @param historyStats - hashtable with counters by key
+     */
+    public synchronized void setHistoryStats(Hashtable<String, Integer> historyStats){
+        this.historyCounters = HistoryCounters.fromHashtable(historyStats, this.historyCounters.isConcurrent());
+    }
+
+    /**
+     * Returns value of one counter of history (O(1), counters are updated while adding games)
+     * @param counter - HistoryCounter counter
+     * @return int value of counter
+     */
+    public int getHistoryCounter(HistoryCounter counter){
+        return this.historyCounters.get(counter);
+    }
+
+    /**
+     * Returns number of all games (Battle Royal and Arena) stored in history
+     * @return int number of games
+     */
+    public int getNumberOfGames(){
+        return this.battleRoyalColumns.size() + this.arenaColumns.size();
+    }
+
     /**
      *  Returns a string containing concatenated statistics about history
      *  of Battle Royal games. (sums, averages, K/D ratio, etc. (not implemented yet!))
@@ -158,10 +305,10 @@ public class GameHistory implements Cloneable {
     public String getPlayerBattleRoyalStats(){
 
         return String.format(" Played: %d Won: %d Top3: %d Top5: %d",
-                this.historyStats.getOrDefault("battleRoyalsPlayed", 0),
-                this.historyStats.getOrDefault("battleRoyalsWon", 0),
-                this.historyStats.getOrDefault("battleRoyalsTop3", 0),
-                this.historyStats.getOrDefault("battleRoyalsTop5", 0));
+                this.historyCounters.get(HistoryCounter.BATTLE_ROYALS_PLAYED),
+                this.historyCounters.get(HistoryCounter.BATTLE_ROYALS_WON),
+                this.historyCounters.get(HistoryCounter.BATTLE_ROYALS_TOP3),
+                this.historyCounters.get(HistoryCounter.BATTLE_ROYALS_TOP5));
 
     }
 
@@ -175,8 +322,8 @@ public class GameHistory implements Cloneable {
     public String getPlayerArenaStats(){
 
         return String.format(" Played: %d Won: %d",
-                this.historyStats.getOrDefault("arenasPlayed", 0),
-                this.historyStats.getOrDefault("arenasWon", 0));
+                this.historyCounters.get(HistoryCounter.ARENAS_PLAYED),
+                this.historyCounters.get(HistoryCounter.ARENAS_WON));
     }
 
 
@@ -196,6 +343,53 @@ public class GameHistory implements Cloneable {
         }
     }
 
+    /**
+     * Function printing games of given mode ordered by date. Time index of history is used when games are compared
+     * by date only (default comparator), so games are not sorted on every call.
+     * @param mode - GameMode mode of printed games
+     */
+    private void printGameList(GameMode mode){
+        if (this.gameListComparator == null || this.gameListComparator.getClass() == GameListComparatorDate.class){
+            for (Game game : this.getTimeIndex(mode).games()){
+                System.out.println(game.gameStatsToString());
+            }
+        }
+        else{
+            printGameList(mode == GameMode.ARENA ? this.getPlayedArenasList() : this.getPlayedBattleRoyalsList(), this.gameListComparator);
+        }
+    }
+
+    /**
+     * Returns index of games of given mode ordered by date, index is updated only with games added since last call
+     * @param mode - GameMode mode of games
+     * @return GameTimeIndex index of games
+     */
+    public synchronized GameTimeIndex getTimeIndex(GameMode mode){
+        return (mode == GameMode.ARENA ? this.arenaColumns : this.battleRoyalColumns).getTimeIndex();
+    }
+
+    /**
+     * Returns games of given mode played between two dates (both inclusive) ordered by date, using binary search
+     * in time index
+     * @param mode - GameMode mode of games
+     * @param from - String first day in format d-m-yyyy
+     * @param to - String last day in format d-m-yyyy
+     * @return read only list of games
+     */
+    public List<Game> gamesBetween(GameMode mode, String from, String to){
+        return this.getTimeIndex(mode).gamesBetween(GameDate.parseEpochDay(from), GameDate.parseEpochDay(to));
+    }
+
+    /**
+     * Returns n latest games of given mode ordered by date
+     * @param mode - GameMode mode of games
+     * @param n - int number of games
+     * @return read only list of games
+     */
+    public List<Game> lastN(GameMode mode, int n){
+        return this.getTimeIndex(mode).lastN(n);
+    }
+
 
     /**
      * Based on value of choice (input from player_app in furche.pg.Player)
@@ -212,168 +406,128 @@ public class GameHistory implements Cloneable {
         switch(choice){
             case 1: // Battle Royal entries
                 System.out.println("Battle Royal game history: ");
-                printGameList(this.playedBattleRoyalsList, this.gameListComparator);
+                printGameList(GameMode.BATTLE_ROYAL);
                 break;
             case 2: // Arena entries
                 System.out.println("Arena game history: ");
-                printGameList(this.playedArenasList, this.gameListComparator);
+                printGameList(GameMode.ARENA);
                 break;
             case 3: // All entries
                 System.out.println("Game History:\nBattle Royal:");
-                printGameList(this.playedBattleRoyalsList, this.gameListComparator);
+                printGameList(GameMode.BATTLE_ROYAL);
                 System.out.println("Arena:");
-                printGameList(this.playedArenasList, this.gameListComparator);
+                printGameList(GameMode.ARENA);
                 break;
         }
     }
 
     /**
-     * Function returning sum of time player spent playing in his entire history
+     * Function returning sum of time player spent playing in his entire history.
+     * Sums are maintained by columns while adding games, so calling it costs O(1).
      *
      * @return float sum of time
      */
     public float sumTime(){
-        float sumTime = 0;
-        for(Game game : this.playedBattleRoyalsList){
-            sumTime += Float.parseFloat(game.getGameStats().get("timeInGame"));
-        }
-        for(Game game : this.playedArenasList){
-            sumTime += Float.parseFloat(game.getGameStats().get("timeInGame"));
-        }
-        return sumTime;
+        return this.battleRoyalColumns.sumTime() + this.arenaColumns.sumTime();
     }
 
     /**
-     * Function calculating Kill/Death Ratio of player for Battle Royal games
-     *
+     * Function calculating Kill/Death Ratio of player for Battle Royal games (O(1), sum of kills is maintained
+     * while adding games)
      *
      * @return float KDR
      */
 
     public float getKDRatio(){
-        float sumKills = 0;
-        for(Game game : this.playedBattleRoyalsList){
-            sumKills += Float.parseFloat(game.getGameStats().get("kills"));
-        }
-        return sumKills / this.playedBattleRoyalsList.size();
+        return (float) this.battleRoyalColumns.sumKills() / this.battleRoyalColumns.size();
+    }
+
+    /**
+     * Function returning summary (count, min, max, mean, variance) of kills, assists and damage
+     * of Battle Royal history. Summary is updated with every added game, so calling it costs O(1).
+     *
+     * @return BattleRoyalSummary of player (copy, can be modified by caller)
+     */
+    public synchronized BattleRoyalSummary summarizeBattleRoyals(){
+        return this.battleRoyalColumns.summarize();
     }
 
     /**
      * Function calculating players average kills, assists and damage for their whole Battle Royal history
+     * (min, max, std and var are also included, all values are NaN if player has no Battle Royal games)
      *
      * @return hashtable with player averages
      */
     public Map<String, Double> playerHistoryAveragesBattleRoyal(){
         Map<String, Double> averages = new LinkedHashMap<>();
-        int sumKills = 0;
-        int sumAssists = 0;
-        int sumDamage = 0;
-        int minKills = -1;
-        int maxKills = -1;;
-        int minAssists = -1;
-        int maxAssists = -1;
-        int minDamage = -1;
-        int maxDamage = -1;
-        double meanKills;
-        double meanAssists;
-        double meanDamage;
-        double varKills = 0;
-        double stdKills = 0;
-        double varAssists = 0;
-        double stdAssists = 0;
-        double varDamage = 0;
-        double stdDamage = 0;
-        int list_len = this.playedBattleRoyalsList.size();
-        for (Game game : this.playedBattleRoyalsList){
-            int kills = Integer.parseInt(game.getGameStats().get("kills"));
-            int assists = Integer.parseInt(game.getGameStats().get("assists"));
-            int damage = Integer.parseInt(game.getGameStats().get("damage"));
-            sumKills += kills;
-            sumAssists += assists;
-            sumDamage += damage;
-            if (minKills > kills || minKills == -1){
-                minKills = kills;
-            }
-            else if (maxKills < kills || maxKills == -1){
-                maxKills = kills;
-            }
-
-            if (minAssists > assists || minAssists == -1){
-                minAssists = assists;
-            }
-            else if (maxAssists < assists || maxAssists == -1){
-                maxAssists = assists;
-            }
-            if (minDamage > damage || minDamage == -1){
-                minDamage = damage;
-            }
-            else if (maxDamage < damage || maxDamage == -1){
-                maxDamage = damage;
-            }
-        }
-        meanKills = (double)sumKills/list_len;
-        meanAssists = (double)sumAssists/list_len;
-        meanDamage = (double)sumDamage/list_len;
-        for (Game game : this.playedBattleRoyalsList){
-            varKills += (Double.parseDouble(game.getGameStats().get("kills")) - meanKills) * (Double.parseDouble(game.getGameStats().get("kills")) - meanKills);
-            varAssists += (Double.parseDouble(game.getGameStats().get("assists")) - meanAssists) * (Double.parseDouble(game.getGameStats().get("assists")) - meanAssists);
-            varDamage += (Double.parseDouble(game.getGameStats().get("damage")) - meanDamage) * (Double.parseDouble(game.getGameStats().get("damage")) - meanDamage);
-        }
-        varKills = varKills / list_len;
-        varAssists = varAssists / list_len;
-        varDamage = varDamage / list_len;
-
-        stdKills = Math.sqrt(varKills);
-        stdAssists = Math.sqrt(varAssists);
-        stdDamage = Math.sqrt(varDamage);
-
-        averages.put("minKills", (double)minKills);
-        averages.put("avgKills", meanKills);
-        averages.put("maxKills", (double)maxKills);
-        averages.put("stdKills", stdKills);
-        averages.put("varKills", varKills);
-
-        averages.put("minAssists", (double)minAssists);
-        averages.put("avgAssists", meanAssists);
-        averages.put("maxAssists", (double)maxAssists);
-        averages.put("stdAssists", stdAssists);
-        averages.put("varAssists", varAssists);
-
-
-        averages.put("minDamage", (double)minDamage);
-        averages.put("avgDamage", meanDamage);
-        averages.put("maxDamage", (double)maxDamage);
-        averages.put("stdDamage", stdDamage);
-        averages.put("varDamage", varDamage);
+        BattleRoyalSummary summary = this.summarizeBattleRoyals();
+        putAverages(averages, "Kills", summary.getKills());
+        putAverages(averages, "Assists", summary.getAssists());
+        putAverages(averages, "Damage", summary.getDamage());
         return averages;
     }
 
+    private static void putAverages(Map<String, Double> averages, String statName, StatSummary statSummary){
+        averages.put("min" + statName, statSummary.getMin());
+        averages.put("avg" + statName, statSummary.getMean());
+        averages.put("max" + statName, statSummary.getMax());
+        averages.put("std" + statName, statSummary.getStd());
+        averages.put("var" + statName, statSummary.getVariance());
+    }
+
     /**
      * Functional calculating initial game score ( not normalized using global data )
-     * @return list<float> with not normalized game scores of players
+     * @return FloatArrayList with not normalized game scores of players
      */
-    public List<Float> calculateInitBattleRoyalScores(){
-        List<Float> initScores = new ArrayList<>();
-        for (Game game : this.playedBattleRoyalsList){
-            initScores.add(game.countGameGrade());
+    public FloatArrayList calculateInitBattleRoyalScores(){
+        GameCursor cursor = this.battleRoyalColumns.cursor();
+        FloatArrayList initScores = new FloatArrayList(cursor.size());
+        while (cursor.next()){
+            initScores.add(cursor.countGameGrade());
         }
         return initScores;
     }
 
     /**
      * Function calculating normalized gaem
-     * @param globalGameScores list<float> containing global non normalized game scores
-     * @return list<double> with normalized game scores of player
-     */
-    public List<Double> calcNormalizedBattleRoyalScores(List<Float> globalGameScores){
-        List<Double> normalizedScores = new ArrayList<>();
-        List<Float> initScores = this.calculateInitBattleRoyalScores();
-        double max = globalGameScores.stream().mapToDouble(v -> v).max().orElseThrow(NoSuchElementException::new);
-        double min = globalGameScores.stream().mapToDouble(v -> v).min().orElseThrow(NoSuchElementException::new);
-        for(Float gameScore : initScores){
-            normalizedScores.add(5*(((double)gameScore - min)/ (max - min)));
+     * @param globalGameScores FloatArrayList containing global non normalized game scores
+     * @return DoubleArrayList with normalized game scores of player
+     */
+    public DoubleArrayList calcNormalizedBattleRoyalScores(FloatArrayList globalGameScores){
+        return this.calcNormalizedBattleRoyalScores(new GlobalScoreStatistics(globalGameScores));
+    }
+
+    /**
+     * Function calculating normalized game scores using global bounds of scores
+     * @param globalScoreStatistics - GlobalScoreStatistics bounds of global non normalized game scores
+     * @return DoubleArrayList with normalized game scores of player
+     */
+    public DoubleArrayList calcNormalizedBattleRoyalScores(GlobalScoreStatistics globalScoreStatistics){
+        FloatArrayList initScores = this.calculateInitBattleRoyalScores();
+        DoubleArrayList normalizedScores = new DoubleArrayList(initScores.size());
+        double max = globalScoreStatistics.getMax();
+        double min = globalScoreStatistics.getMin();
+        for(int i = 0; i < initScores.size(); i++){
+            normalizedScores.add(5*(((double)initScores.get(i) - min)/ (max - min)));
         }
         return normalizedScores;
     }
 
+    /**
+     * Function calculating average of normalized game scores of player without creating lists of scores
+     * @param globalScoreStatistics - GlobalScoreStatistics bounds of global non normalized game scores
+     * @return double average normalized game score, NaN if player has no Battle Royal games
+     */
+    public double calcAvgNormalizedBattleRoyalScore(GlobalScoreStatistics globalScoreStatistics){
+        GameCursor cursor = this.battleRoyalColumns.cursor();
+        double max = globalScoreStatistics.getMax();
+        double min = globalScoreStatistics.getMin();
+        double sum = 0;
+        while (cursor.next()){
+            double gameScore = cursor.countGameGrade();
+            sum += 5*((gameScore - min)/ (max - min));
+        }
+        return sum / cursor.size();
+    }
+
 }
@@ -0,0 +1,220 @@
+package furche.pg;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class GameHistoryFileReader {
+    /**
+     * Reader of game history csv files (rows in format "date,timeInGame,hero,kills,assists,damage,position").
+     * File is memory mapped and all fields are parsed directly from bytes, without creating Strings for lines
+     * or fields. Dates are converted to epoch days and hero names to ids in HeroDictionary, so for already known
+     * heroes parsing of a row does not allocate any objects.
+     * Attributes:
+     * buffer : ByteBuffer with content of game history file
+     * position : int index of next byte to parse
+     */
+
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+
+    private final ByteBuffer buffer;
+    private int position;
+
+    /**
+     * Constructor of GameHistoryFileReader, rows are parsed from current position up to limit of buffer.
+     * @param buffer - ByteBuffer with content of game history file
+     */
+    public GameHistoryFileReader(ByteBuffer buffer){
+        this.buffer = buffer;
+        this.position = buffer.position();
+    }
+
+    /**
+     * Function memory mapping game history file and passing each parsed row to consumer
+     * @param pathToGameHistory - String path to csv file
+     * @param consumer - GameRowConsumer receiving rows
+     * @return int number of parsed rows
+     * @throws IOException when file can not be opened or mapped
+     */
+    public static int readGameHistory(String pathToGameHistory, GameRowConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(pathToGameHistory), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new GameHistoryFileReader(buffer).parseRows(consumer);
+        }
+    }
+
+    /**
+     * Function memory mapping game history file and passing each complete row (ending with new line) to consumer.
+     * Incomplete last row of file which is still being appended is left unread, so file can be tailed from returned
+     * offset (see GameHistoryTailer(PlayerBase, String, Map)).
+     * @param pathToGameHistory - String path to csv file
+     * @param consumer - GameRowConsumer receiving rows
+     * @return long number of consumed bytes (offset right after last complete row)
+     * @throws IOException when file can not be opened or mapped
+     */
+    public static long readCompleteRows(String pathToGameHistory, GameRowConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(pathToGameHistory), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int lineEnd = buffer.limit();
+            while (lineEnd > 0 && buffer.get(lineEnd - 1) != '\n'){
+                lineEnd--;
+            }
+            buffer.limit(lineEnd);
+            new GameHistoryFileReader(buffer).parseRows(consumer);
+            return lineEnd;
+        }
+    }
+
+    /**
+     * Function parsing all rows left in the buffer. Empty lines are skipped, both "\n" and "\r\n" line endings
+     * are supported.
+     * @param consumer - GameRowConsumer receiving rows
+     * @return int number of parsed rows
+     */
+    public int parseRows(GameRowConsumer consumer){
+        int limit = this.buffer.limit();
+        int rows = 0;
+        while (this.position < limit) {
+            byte b = this.buffer.get(this.position);
+            if (b == '\n' || b == '\r') {
+                this.position++;
+                continue;
+            }
+            int day = this.parseInt('-');
+            int month = this.parseInt('-');
+            int year = this.parseInt(',');
+            float timeInGame = this.parseFloat(',');
+            int heroId = this.parseHeroId();
+            int kills = this.parseInt(',');
+            int assists = this.parseInt(',');
+            int damage = this.parseInt(',');
+            int position = this.parseInt('\n');
+            consumer.accept(GameDate.toEpochDay(day, month, year), timeInGame, heroId, kills, assists, damage, position);
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Returns index of next byte to parse
+     * @return int position in buffer
+     */
+    public int getPosition(){
+        return this.position;
+    }
+
+    /**
+     * Function parsing integer ending with separator (last field of the row can also end with "\r" or end of buffer).
+     * Position is moved after the separator.
+     * @param separator - char expected after the number
+     * @return int parsed number
+     */
+    private int parseInt(char separator){
+        int limit = this.buffer.limit();
+        boolean negative = false;
+        if (this.position < limit && this.buffer.get(this.position) == '-') {
+            negative = true;
+            this.position++;
+        }
+        int start = this.position;
+        int value = 0;
+        while (this.position < limit) {
+            byte b = this.buffer.get(this.position);
+            if (b < '0' || b > '9') {
+                break;
+            }
+            value = value * 10 + (b - '0');
+            this.position++;
+        }
+        if (this.position == start) {
+            throw this.parseError("number");
+        }
+        this.skipSeparator(separator);
+        return negative ? -value : value;
+    }
+
+    /**
+     * Function parsing decimal number (e.g. "12.53") ending with separator. Position is moved after the separator.
+     * @param separator - char expected after the number
+     * @return float parsed number
+     */
+    private float parseFloat(char separator){
+        int limit = this.buffer.limit();
+        boolean negative = false;
+        if (this.position < limit && this.buffer.get(this.position) == '-') {
+            negative = true;
+            this.position++;
+        }
+        int start = this.position;
+        long mantissa = 0;
+        int fractionDigits = -1; // -1 until decimal point is found
+        while (this.position < limit) {
+            byte b = this.buffer.get(this.position);
+            if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else {
+                break;
+            }
+            this.position++;
+        }
+        if (this.position == start || this.position - start > POWERS_OF_TEN.length) {
+            throw this.parseError("decimal number");
+        }
+        this.skipSeparator(separator);
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return (float) (negative ? -value : value);
+    }
+
+    /**
+     * Function parsing hero name ending with ','. Position is moved after the separator.
+     * @return int id of hero in HeroDictionary
+     */
+    private int parseHeroId(){
+        int limit = this.buffer.limit();
+        int start = this.position;
+        while (this.position < limit && this.buffer.get(this.position) != ',') {
+            this.position++;
+        }
+        if (this.position == start || this.position == limit) {
+            throw this.parseError("hero name");
+        }
+        int heroId = HeroDictionary.getHeroId(this.buffer, start, this.position);
+        this.position++;
+        return heroId;
+    }
+
+    private void skipSeparator(char separator){
+        int limit = this.buffer.limit();
+        if (this.position == limit && separator == '\n') {
+            return;
+        }
+        if (this.position < limit) {
+            byte b = this.buffer.get(this.position);
+            if (b == separator) {
+                this.position++;
+                return;
+            }
+            if (separator == '\n' && b == '\r') {
+                this.position++;
+                if (this.position < limit && this.buffer.get(this.position) == '\n') {
+                    this.position++;
+                }
+                return;
+            }
+        }
+        throw this.parseError("'" + separator + "'");
+    }
+
+    private NumberFormatException parseError(String expected){
+        return new NumberFormatException(String.format("Expected %s at byte %d of game history file", expected, this.position));
+    }
+}
@@ -0,0 +1,16 @@
+package furche.pg;
+
+/**
+ * Listener notified every time a game is added to GameHistory it is registered in.
+ * Used for keeping statistics computed over many histories (e.g. GlobalScoreStatistics) up to date.
+ */
+@FunctionalInterface
+public interface GameHistoryListener {
+    /**
+     * Function called after game was added to history
+     * @param gameHistory - GameHistory game was added to
+     * @param columns - GameColumns game is stored in (battle royal or arena columns of gameHistory)
+     * @param index - int index of added game in columns
+     */
+    void gameAdded(GameHistory gameHistory, GameColumns columns, int index);
+}
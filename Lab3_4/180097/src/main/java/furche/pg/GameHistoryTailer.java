@@ -0,0 +1,314 @@
+package furche.pg;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class GameHistoryTailer implements Runnable, AutoCloseable {
+    /**
+     * Tailer of game history csv files appended while the application is running. Directory with game history files
+     * is watched with WatchService and for every modified file only bytes after last read offset are read and parsed,
+     * rows are added to player through Player.addGameToHistory. Statistics registered as listeners of game histories
+     * (e.g. GlobalScoreStatistics) and incremental sums of GameColumns are updated by the additions.
+     * Only complete lines are parsed, incomplete last line is read again after next modification of file.
+     * Lines are parsed one by one, malformed line is reported and skipped, other lines of the same append are added.
+     * Files of nicks that are not in player base are ignored. Players with the same nick on different platforms
+     * share one file (as when loading PlayerBase), rows of the file are added to all of them.
+     * Attributes:
+     * playerBase : PlayerBase players games are added to
+     * directory : Path watched directory with files named <nick>.csv
+     * offsets : Map<String, Long> number of already read bytes of file of every nick, nicks without offset
+     *           are read from the beginning
+     * gamesAdded : long number of games added by tailer
+     * watchService : WatchService watching directory, null until tailer is started
+     * thread : Thread processing watch events, null until tailer is started
+     */
+
+    private final PlayerBase playerBase;
+    private final Path directory;
+    private final Map<String, Long> offsets = new HashMap<>();
+    private long gamesAdded = 0;
+    private volatile WatchService watchService;
+    private Thread thread;
+
+    /**
+     * Constructor of GameHistoryTailer, current content of files of players in base is treated as already loaded
+     * (base should be loaded from the same files), only rows appended later are added. Rows appended between
+     * loading of the base and this constructor are never added, for files appended while loading use
+     * GameHistoryTailer(PlayerBase, String, Map) with offsets returned by GameHistoryFileReader.readCompleteRows.
+     * @param playerBase - PlayerBase players games are added to
+     * @param directory - String directory with game history files
+     */
+    public GameHistoryTailer(PlayerBase playerBase, String directory){
+        this(playerBase, directory, currentLengths(playerBase, Paths.get(directory)));
+    }
+
+    /**
+     * Constructor of GameHistoryTailer continuing from offsets up to which the loader read files of players.
+     * Files of nicks without offset (e.g. files created after start or players added to base later) are read
+     * from the beginning.
+     * @param playerBase - PlayerBase players games are added to
+     * @param directory - String directory with game history files
+     * @param offsets - Map<String, Long> number of bytes of file of every nick already loaded to base (map is copied)
+     */
+    public GameHistoryTailer(PlayerBase playerBase, String directory, Map<String, Long> offsets){
+        this.playerBase = playerBase;
+        this.directory = Paths.get(directory);
+        this.offsets.putAll(offsets);
+    }
+
+    private static Map<String, Long> currentLengths(PlayerBase playerBase, Path directory){
+        Map<String, Long> lengths = new HashMap<>();
+        for (Player player : playerBase.getPlayerBaseList()){
+            lengths.put(player.getNick(), directory.resolve(player.getNick() + ".csv").toFile().length());
+        }
+        return lengths;
+    }
+
+    /**
+     * Function setting number of already loaded bytes of file of nick (e.g. for player added to base after tailer
+     * was created), next poll of the nick reads rows after the offset
+     * @param nick - String nick of player
+     * @param offset - long number of loaded bytes
+     */
+    public synchronized void setOffset(String nick, long offset){
+        this.offsets.put(nick, offset);
+    }
+
+    /**
+     * Returns number of bytes of file of nick which were already read
+     * @param nick - String nick of player
+     * @return long offset, 0 for files which were not read yet
+     */
+    public synchronized long getOffset(String nick){
+        return this.offsets.getOrDefault(nick, 0L);
+    }
+
+    /**
+     * Function starting background thread watching the directory
+     * @throws IOException when directory can not be watched
+     */
+    public synchronized void start() throws IOException {
+        if (this.thread != null){
+            throw new IllegalStateException("Tailer is already started");
+        }
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.directory.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this, "game-history-tailer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Function processing watch events until tailer is closed. Files are checked once more after registration,
+     * so rows appended before start are not lost.
+     */
+    @Override
+    public void run(){
+        this.pollAll();
+        try {
+            while (true){
+                WatchKey key = this.watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()){
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW){
+                        this.pollAll();
+                    } else {
+                        String fileName = event.context().toString();
+                        if (fileName.endsWith(".csv")){
+                            this.poll(fileName.substring(0, fileName.length() - ".csv".length()));
+                        }
+                    }
+                }
+                if (!key.reset()){
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // tailer was closed
+        }
+    }
+
+    /**
+     * Function reading rows appended to files of all players in base
+     * @return int number of added games
+     */
+    public int pollAll(){
+        int added = 0;
+        for (Player player : this.playerBase.getPlayerBaseList()){
+            added += this.poll(player.getNick());
+        }
+        return added;
+    }
+
+    /**
+     * Function reading rows appended to file of a nick since last poll and adding them to game history of every player
+     * with the nick.
+     * If file got shorter it was rewritten, rows already added can't be removed, so reading continues from its new end.
+     * @param nick - String nick of player
+     * @return int number of added games (games added to more players with the same nick are counted once)
+     */
+    public synchronized int poll(String nick){
+        List<Player> players = this.playerBase.findPlayers(nick);
+        if (players.isEmpty()){
+            return 0;
+        }
+        Path path = this.resolve(nick);
+        long offset = this.offsets.getOrDefault(nick, 0L);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < offset){
+                System.out.printf("Game history file %s was truncated, continuing from its end%n", path);
+                this.offsets.put(nick, size);
+                return 0;
+            }
+            if (size == offset){
+                return 0;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) (size - offset));
+            while (buffer.hasRemaining()){
+                if (channel.read(buffer, offset + buffer.position()) < 0){
+                    break;
+                }
+            }
+            int lineEnd = buffer.position();
+            while (lineEnd > 0 && buffer.get(lineEnd - 1) != '\n'){
+                lineEnd--;
+            }
+            if (lineEnd == 0){
+                return 0;
+            }
+            buffer.position(0);
+            buffer.limit(lineEnd);
+            int rows = parseLines(buffer, path, (epochDay, timeInGame, heroId, kills, assists, damage, position) -> {
+                for (Player player : players){
+                    player.addGameToHistory(epochDay, timeInGame, heroId, kills, assists, damage, position);
+                }
+            });
+            this.offsets.put(nick, offset + lineEnd);
+            this.gamesAdded += rows;
+            return rows;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * Function parsing complete lines of buffer one by one, malformed line is reported and skipped
+     * without losing valid lines around it
+     * @param buffer - ByteBuffer with complete lines between position and limit
+     * @param path - Path file the lines come from (used in report of malformed line)
+     * @param consumer - GameRowConsumer receiving rows
+     * @return int number of parsed rows
+     */
+    private static int parseLines(ByteBuffer buffer, Path path, GameRowConsumer consumer){
+        int rows = 0;
+        int lineStart = buffer.position();
+        for (int i = lineStart; i < buffer.limit(); i++){
+            if (buffer.get(i) == '\n'){
+                ByteBuffer line = buffer.duplicate();
+                line.limit(i + 1);
+                line.position(lineStart);
+                try {
+                    rows += new GameHistoryFileReader(line).parseRows(consumer);
+                } catch (NumberFormatException e) {
+                    System.out.printf("Skipping malformed line of %s: %s%n", path, e.getMessage());
+                }
+                lineStart = i + 1;
+            }
+        }
+        return rows;
+    }
+
+    private Path resolve(String nick){
+        return this.directory.resolve(nick + ".csv");
+    }
+
+    public synchronized long getGamesAdded(){
+        return this.gamesAdded;
+    }
+
+    /**
+     * Function stopping background thread, returns after the thread finished (rows of poll in progress are still added)
+     * @throws IOException when watch service can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        WatchService watchService;
+        Thread thread;
+        synchronized (this) {
+            watchService = this.watchService;
+            thread = this.thread;
+        }
+        if (watchService != null){
+            watchService.close();
+        }
+        if (thread != null && thread != Thread.currentThread()){
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Main function for testing purposes. Game history files of few players are copied to temporary directory,
+     * rows are appended to them and latency between append and updated statistics is measured.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("game_history_tail");
+        List<Player> players = new ArrayList<>();
+        Map<String, Long> offsets = new HashMap<>();
+        for (PlayerInfo playerInfo : PlayerInfo.readPlayerInfo(PlayerInfo.PLAYER_INFO_PATH, 4)){
+            Path copy = directory.resolve(playerInfo.getNick() + ".csv");
+            Files.copy(Paths.get(playerInfo.getGameHistoryPath()), copy, StandardCopyOption.REPLACE_EXISTING);
+            Player player = new Player(playerInfo.getNick(), playerInfo.getPlatform(), playerInfo.getRank());
+            offsets.put(playerInfo.getNick(), GameHistoryFileReader.readCompleteRows(copy.toString(), player::addGameToHistory));
+            players.add(player);
+        }
+        PlayerBase playerBase = new PlayerBase(players);
+        GlobalScoreStatistics globalScoreStatistics = new GlobalScoreStatistics(playerBase);
+        Player player = players.get(0);
+        Path path = directory.resolve(player.getNick() + ".csv");
+        try (GameHistoryTailer tailer = new GameHistoryTailer(playerBase, directory.toString(), offsets)) {
+            tailer.start();
+            int before = player.getGameHistory().getNumberOfGames();
+            // incomplete line is not parsed until it is finished
+            Files.write(path, "1-6-2023,30.5,Wraith,25,3,5000".getBytes(), StandardOpenOption.APPEND);
+            Thread.sleep(200);
+            System.out.printf("After incomplete line: %d new games%n", player.getGameHistory().getNumberOfGames() - before);
+            long start = System.nanoTime();
+            Files.write(path, ",1\n2-6-2023,12.25,Lifeline,3,4,700,5\n".getBytes(), StandardOpenOption.APPEND);
+            while (player.getGameHistory().getNumberOfGames() < before + 2 && System.nanoTime() - start < 10_000_000_000L){
+                Thread.sleep(1);
+            }
+            System.out.printf("Added %d games in %f ms, KD Ratio: %f, global score max: %f (%d scores)%n",
+                    player.getGameHistory().getNumberOfGames() - before, (System.nanoTime() - start) / 1e6,
+                    player.getKDRatio(), globalScoreStatistics.getMax(), globalScoreStatistics.getCount());
+        }
+        globalScoreStatistics.close();
+        for (File file : directory.toFile().listFiles()){
+            file.delete();
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,24 @@
+package furche.pg;
+
+/**
+ * Enum representing game modes of Apex Legends.
+ * name : String name of mode used in game stats ("battleRoyal", "arena")
+ */
+public enum GameMode {
+    BATTLE_ROYAL("battleRoyal"),
+    ARENA("arena");
+
+    private final String name;
+
+    GameMode(String name){
+        this.name = name;
+    }
+
+    /**
+     * Returns name of mode used in game stats
+     * @return String name of mode
+     */
+    public String getName(){
+        return this.name;
+    }
+}
@@ -0,0 +1,21 @@
+package furche.pg;
+
+/**
+ * Functional interface receiving rows of game history file parsed by GameHistoryFileReader.
+ * Hero is passed as id in HeroDictionary resolved by the parser, so consumers don't hash its name again.
+ * Signature matches Player.addGameToHistory for Battle Royal games, so player::addGameToHistory can be used directly.
+ */
+@FunctionalInterface
+public interface GameRowConsumer {
+    /**
+     * Function called for each parsed row
+     * @param epochDay - int date of game as number of days since 1-1-1970
+     * @param timeInGame - float time spent in game
+     * @param heroId - int id of hero used in game in HeroDictionary
+     * @param kills - int number of scored kills
+     * @param assists - int number of scored assists
+     * @param damage - int number of scored damage
+     * @param position - int position player finished game on
+     */
+    void accept(int epochDay, float timeInGame, int heroId, int kills, int assists, int damage, int position);
+}
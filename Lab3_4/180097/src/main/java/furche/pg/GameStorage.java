@@ -0,0 +1,49 @@
+package furche.pg;
+
+/**
+ * Storage of fixed-width game rows used by GameColumns (on heap arrays or off heap records).
+ * Rows are written once (games are only appended) and storage is never shrunk, so storage object
+ * (and storages returned by withCapacity) can be shared by snapshots of columns.
+ * rank is PlayerRank ordinal or -1, result is position (Battle Royal) or 1/0 (Arena won/lost).
+ */
+interface GameStorage {
+
+    /**
+     * Returns number of rows which can be stored
+     * @return int capacity
+     */
+    int capacity();
+
+    /**
+     * Function returning storage containing rows of this storage with at least given capacity,
+     * this storage if its capacity is big enough. Rows of this storage stay readable.
+     * @param capacity - int required capacity
+     * @return GameStorage with required capacity
+     */
+    GameStorage withCapacity(int capacity);
+
+    /**
+     * Function creating new empty storage of the same kind
+     * @param capacity - int initial capacity
+     * @return empty GameStorage
+     */
+    GameStorage empty(int capacity);
+
+    void set(int i, int epochDay, float timeInGame, int heroId, int kills, int assists, int damage, int result, int rank);
+
+    int getEpochDay(int i);
+
+    float getTimeInGame(int i);
+
+    int getHeroId(int i);
+
+    int getKills(int i);
+
+    int getAssists(int i);
+
+    int getDamage(int i);
+
+    int getResult(int i);
+
+    int getRank(int i);
+}
@@ -0,0 +1,170 @@
+package furche.pg;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+public class GameTimeIndex {
+    /**
+     * Immutable index of games stored in GameColumns ordered by date (games played on the same day keep order in which
+     * they were added). Index is built for read only snapshot of columns, so it is not affected by games added later.
+     * Attributes:
+     * columns : GameColumns read only snapshot of indexed columns
+     * order : int[] indexes of games in columns sorted by date
+     * epochDays : int[] dates of games in order of index, used for binary search
+     */
+
+    private final GameColumns columns;
+    private final int[] order;
+    private final int[] epochDays;
+
+    private GameTimeIndex(GameColumns columns, int[] order){
+        this.columns = columns;
+        this.order = order;
+        this.epochDays = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            this.epochDays[i] = columns.getEpochDay(order[i]);
+        }
+    }
+
+    /**
+     * Function building index of columns. If previous index of the same columns is given, only games added after
+     * it was built are sorted and merged with it.
+     * @param columns - GameColumns indexed columns
+     * @param previous - GameTimeIndex index of first games of the same columns or null
+     * @return GameTimeIndex index of all games currently stored in columns
+     */
+    public static GameTimeIndex build(GameColumns columns, GameTimeIndex previous){
+        GameColumns snapshot = columns.snapshot();
+        int size = snapshot.size();
+        int indexed = previous == null ? 0 : previous.size();
+        if (indexed > size) {
+            throw new IllegalArgumentException("Previous index is bigger than indexed columns");
+        }
+        if (indexed == size && previous != null) {
+            return previous;
+        }
+        // sorting date and position packed into long keeps games from the same day in insertion order
+        long[] keys = new long[size - indexed];
+        for (int i = indexed; i < size; i++) {
+            keys[i - indexed] = ((long) snapshot.getEpochDay(i) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[size];
+        int i = 0;
+        int k = 0;
+        int o = 0;
+        while (i < indexed && k < keys.length) {
+            if (previous.epochDays[i] <= (int) (keys[k] >> 32)) {
+                order[o++] = previous.order[i++];
+            } else {
+                order[o++] = (int) keys[k++];
+            }
+        }
+        while (i < indexed) {
+            order[o++] = previous.order[i++];
+        }
+        while (k < keys.length) {
+            order[o++] = (int) keys[k++];
+        }
+        return new GameTimeIndex(snapshot, order);
+    }
+
+    /**
+     * Returns number of indexed games
+     * @return int number of games
+     */
+    public int size(){
+        return this.order.length;
+    }
+
+    /**
+     * Returns index in columns of i-th game in order of dates
+     * @param i - int position in index
+     * @return int index of game in columns
+     */
+    public int getGameIndex(int i){
+        return this.order[i];
+    }
+
+    /**
+     * Function finding position of first game played on given day or later (binary search)
+     * @param epochDay - int date as number of days since 1-1-1970
+     * @return int position in index, size() if there is no such game
+     */
+    public int lowerBound(int epochDay){
+        int low = 0;
+        int high = this.epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns read only list of games ordered by date, games are created on demand from columns
+     * @return list of all indexed games
+     */
+    public List<Game> games(){
+        return new OrderedGames(0, this.size());
+    }
+
+    /**
+     * Returns games played between two dates (both inclusive) ordered by date
+     * @param fromEpochDay - int first day as number of days since 1-1-1970
+     * @param toEpochDay - int last day as number of days since 1-1-1970
+     * @return read only list of games
+     */
+    public List<Game> gamesBetween(int fromEpochDay, int toEpochDay){
+        if (toEpochDay < fromEpochDay) {
+            return new OrderedGames(0, 0);
+        }
+        int from = this.lowerBound(fromEpochDay);
+        int to = toEpochDay == Integer.MAX_VALUE ? this.size() : this.lowerBound(toEpochDay + 1);
+        return new OrderedGames(from, to);
+    }
+
+    /**
+     * Returns n latest games ordered by date (or all games if there is less than n of them)
+     * @param n - int number of games
+     * @return read only list of games
+     */
+    public List<Game> lastN(int n){
+        if (n < 0) {
+            throw new IllegalArgumentException("Number of games can't be negative: " + n);
+        }
+        return new OrderedGames(Math.max(0, this.size() - n), this.size());
+    }
+
+    /**
+     * Read only list of games between two positions of index, Game objects are created on every get.
+     */
+    private class OrderedGames extends AbstractList<Game> implements RandomAccess {
+        private final int from;
+        private final int to;
+
+        private OrderedGames(int from, int to){
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Game get(int index){
+            if (index < 0 || index >= this.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size());
+            }
+            return GameTimeIndex.this.columns.getGame(GameTimeIndex.this.order[this.from + index]);
+        }
+
+        @Override
+        public int size(){
+            return this.to - this.from;
+        }
+    }
+}
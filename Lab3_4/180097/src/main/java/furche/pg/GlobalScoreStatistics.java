@@ -0,0 +1,189 @@
+package furche.pg;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class GlobalScoreStatistics implements GameHistoryListener, PlayerBaseListener, AutoCloseable {
+    /**
+     * Class storing global minimum and maximum of not normalized Battle Royal game scores (Game.countGameGrade)
+     * of all games of all players, used for normalizing game scores.
+     * When created from PlayerBase it registers itself as listener of the base and of every players GameHistory,
+     * so bounds are updated with every added game (also games of players added later with PlayerBase.addPlayer)
+     * instead of being recalculated from all scores. close() removes the listeners, statistics have to be closed
+     * when they are no longer used, otherwise player base and game histories keep them reachable.
+     * Scores are added without locking: count is striped LongAdder and bounds are float bits updated with
+     * compare and set only when score moves them, so games added by many threads don't wait for each other.
+     * Count is incremented after bounds, so bounds of every counted score are visible.
+     * Attributes:
+     * count : LongAdder number of scores
+     * min : AtomicInteger bits of minimal score (Float.floatToIntBits)
+     * max : AtomicInteger bits of maximal score (Float.floatToIntBits)
+     * playerBase : PlayerBase base statistics listen to, null for statistics not created from player base
+     * registeredHistories : List<GameHistory> game histories statistics listen to
+     */
+
+    private final List<GameHistory> registeredHistories = new ArrayList<>();
+    private final LongAdder count = new LongAdder();
+    private final AtomicInteger min = new AtomicInteger(Float.floatToIntBits(Float.POSITIVE_INFINITY));
+    private final AtomicInteger max = new AtomicInteger(Float.floatToIntBits(Float.NEGATIVE_INFINITY));
+    private PlayerBase playerBase;
+
+    /**
+     * Constructor of empty GlobalScoreStatistics
+     */
+    public GlobalScoreStatistics(){
+    }
+
+    /**
+     * Constructor of GlobalScoreStatistics from list of scores
+     * @param scores - FloatArrayList of not normalized game scores
+     */
+    public GlobalScoreStatistics(FloatArrayList scores){
+        if (!scores.isEmpty()){
+            this.min.set(Float.floatToIntBits(scores.min()));
+            this.max.set(Float.floatToIntBits(scores.max()));
+            this.count.add(scores.size());
+        }
+    }
+
+    /**
+     * Constructor of GlobalScoreStatistics calculating bounds of scores of all Battle Royal games in player base.
+     * Statistics are registered as listener of the base (see playerAdded) and of game history of every player in it.
+     * Registration and snapshot of columns are done under lock of history, so every game is counted exactly once
+     * even when games are being added. Players put to the base directly to playerBaseList or with setPlayerBaseList
+     * after creation are not tracked.
+     * @param playerBase - PlayerBase base of players
+     */
+    public GlobalScoreStatistics(PlayerBase playerBase){
+        this.playerBase = playerBase;
+        playerBase.addListener(this);
+        for (Player player : playerBase.getPlayerBaseList()){
+            this.register(player.getGameHistory());
+        }
+    }
+
+    private void register(GameHistory gameHistory){
+        GameColumns columns;
+        synchronized (gameHistory) {
+            gameHistory.addListener(this);
+            columns = gameHistory.snapshot().getBattleRoyalColumns();
+        }
+        synchronized (this.registeredHistories) {
+            this.registeredHistories.add(gameHistory);
+        }
+        GameCursor cursor = columns.cursor();
+        while (cursor.next()){
+            this.addScore(cursor.countGameGrade());
+        }
+    }
+
+    /**
+     * Function updating bounds with new score
+     * @param score - float not normalized game score
+     */
+    public void addScore(float score){
+        updateMin(this.min, score);
+        updateMax(this.max, score);
+        this.count.increment();
+    }
+
+    /**
+     * Function updating bounds with summary of many scores (e.g. scores of one player)
+     * @param scores - StatSummary of not normalized game scores
+     */
+    public void addScores(StatSummary scores){
+        if (scores.getCount() == 0){
+            return;
+        }
+        updateMin(this.min, (float) scores.getMin());
+        updateMax(this.max, (float) scores.getMax());
+        this.count.add(scores.getCount());
+    }
+
+    private static void updateMin(AtomicInteger bound, float score){
+        int current = bound.get();
+        while (score < Float.intBitsToFloat(current) && !bound.compareAndSet(current, Float.floatToIntBits(score))){
+            current = bound.get();
+        }
+    }
+
+    private static void updateMax(AtomicInteger bound, float score){
+        int current = bound.get();
+        while (score > Float.intBitsToFloat(current) && !bound.compareAndSet(current, Float.floatToIntBits(score))){
+            current = bound.get();
+        }
+    }
+
+    /**
+     * Function updating bounds with score of added Battle Royal game (Arena games are ignored)
+     */
+    @Override
+    public void gameAdded(GameHistory gameHistory, GameColumns columns, int index){
+        if (columns.getMode() == GameMode.BATTLE_ROYAL){
+            this.addScore(Game.countGameGrade(columns.getTimeInGame(index), columns.getKills(index), columns.getAssists(index), columns.getDamage(index)));
+        }
+    }
+
+    /**
+     * Function registering statistics in game history of player added to the base and adding scores of its games
+     */
+    @Override
+    public void playerAdded(PlayerBase playerBase, Player player){
+        this.register(player.getGameHistory());
+    }
+
+    /**
+     * Function removing statistics from listeners of player base and game histories, bounds are no longer updated
+     * with added games and players
+     */
+    @Override
+    public void close(){
+        if (this.playerBase != null){
+            this.playerBase.removeListener(this);
+            this.playerBase = null;
+        }
+        synchronized (this.registeredHistories) {
+            for (GameHistory gameHistory : this.registeredHistories){
+                gameHistory.removeListener(this);
+            }
+            this.registeredHistories.clear();
+        }
+    }
+
+    /**
+     * Returns number of scores
+     * @return long number of scores
+     */
+    public long getCount(){
+        return this.count.sum();
+    }
+
+    /**
+     * Returns minimal score
+     * @return float minimal score
+     * @throws NoSuchElementException when there are no scores
+     */
+    public float getMin(){
+        this.checkNotEmpty();
+        return Float.intBitsToFloat(this.min.get());
+    }
+
+    /**
+     * Returns maximal score
+     * @return float maximal score
+     * @throws NoSuchElementException when there are no scores
+     */
+    public float getMax(){
+        this.checkNotEmpty();
+        return Float.intBitsToFloat(this.max.get());
+    }
+
+    private void checkNotEmpty(){
+        if (this.count.sum() == 0){
+            throw new NoSuchElementException("No game scores");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package furche.pg;
+
+import java.util.Arrays;
+
+class HeapGameStorage implements GameStorage {
+    /**
+     * Game storage keeping every column in primitive array on heap (default storage of GameColumns).
+     * Growing creates new arrays, old storage keeps old arrays, so snapshots using it are not affected.
+     */
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int[] epochDay;
+    private final float[] timeInGame;
+    private final byte[] heroId;
+    private final int[] kills;
+    private final int[] assists;
+    private final int[] damage;
+    private final byte[] result;
+    private final byte[] rank;
+
+    HeapGameStorage(int capacity){
+        this.epochDay = new int[capacity];
+        this.timeInGame = new float[capacity];
+        this.heroId = new byte[capacity];
+        this.kills = new int[capacity];
+        this.assists = new int[capacity];
+        this.damage = new int[capacity];
+        this.result = new byte[capacity];
+        this.rank = new byte[capacity];
+    }
+
+    private HeapGameStorage(HeapGameStorage source, int capacity){
+        this.epochDay = Arrays.copyOf(source.epochDay, capacity);
+        this.timeInGame = Arrays.copyOf(source.timeInGame, capacity);
+        this.heroId = Arrays.copyOf(source.heroId, capacity);
+        this.kills = Arrays.copyOf(source.kills, capacity);
+        this.assists = Arrays.copyOf(source.assists, capacity);
+        this.damage = Arrays.copyOf(source.damage, capacity);
+        this.result = Arrays.copyOf(source.result, capacity);
+        this.rank = Arrays.copyOf(source.rank, capacity);
+    }
+
+    @Override
+    public int capacity(){
+        return this.epochDay.length;
+    }
+
+    /**
+     * Arrays grow at least twice, so appending games one by one costs amortized O(1)
+     */
+    @Override
+    public GameStorage withCapacity(int capacity){
+        if (capacity <= this.epochDay.length) {
+            return this;
+        }
+        return new HeapGameStorage(this, Math.max(capacity, Math.max(this.epochDay.length * 2, DEFAULT_CAPACITY)));
+    }
+
+    @Override
+    public GameStorage empty(int capacity){
+        return new HeapGameStorage(capacity);
+    }
+
+    @Override
+    public void set(int i, int epochDay, float timeInGame, int heroId, int kills, int assists, int damage, int result, int rank){
+        this.epochDay[i] = epochDay;
+        this.timeInGame[i] = timeInGame;
+        this.heroId[i] = (byte) heroId;
+        this.kills[i] = kills;
+        this.assists[i] = assists;
+        this.damage[i] = damage;
+        this.result[i] = (byte) result;
+        this.rank[i] = (byte) rank;
+    }
+
+    @Override
+    public int getEpochDay(int i){
+        return this.epochDay[i];
+    }
+
+    @Override
+    public float getTimeInGame(int i){
+        return this.timeInGame[i];
+    }
+
+    @Override
+    public int getHeroId(int i){
+        return this.heroId[i];
+    }
+
+    @Override
+    public int getKills(int i){
+        return this.kills[i];
+    }
+
+    @Override
+    public int getAssists(int i){
+        return this.assists[i];
+    }
+
+    @Override
+    public int getDamage(int i){
+        return this.damage[i];
+    }
+
+    @Override
+    public int getResult(int i){
+        return this.result[i];
+    }
+
+    @Override
+    public int getRank(int i){
+        return this.rank[i];
+    }
+}
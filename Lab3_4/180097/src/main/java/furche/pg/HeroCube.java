@@ -0,0 +1,381 @@
+package furche.pg;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class HeroCube implements AutoCloseable {
+    /**
+     * Aggregate cube of Battle Royal games grouped by hero x platform x rank of player. Every dimension has additional
+     * ALL slot holding roll-up over the dimension, every game is added to all 8 combinations of its coordinates
+     * and ALL slots, so any slice or roll-up (e.g. hero on all platforms, all heroes of Gold players) is read
+     * from single cell in constant time.
+     * Cube is built in one parallel pass over games of all players and registers listener in every game history,
+     * so games added later (addGameToHistory, addBattleRoyal) are added to the cube. Rank dimension uses rank
+     * player had when cube was built. close() removes the listeners, cube has to be closed when it is no longer used,
+     * otherwise game histories keep it reachable.
+     * Attributes:
+     * cells : long[] counters of all cells, FIELDS values per cell (games, kills, assists, damage, wins, top5)
+     * listeners : List<CubeListener> listeners registered in game histories of players
+     */
+
+    private static final int HEROES = HeroDictionary.MAX_HEROES + 1;
+    private static final int PLATFORMS = Platform.values().length + 1;
+    private static final int RANKS = PlayerRank.values().length + 1;
+    private static final int ALL_HEROES = HEROES - 1;
+    private static final int ALL_PLATFORMS = PLATFORMS - 1;
+    private static final int ALL_RANKS = RANKS - 1;
+
+    private static final int GAMES = 0;
+    private static final int KILLS = 1;
+    private static final int ASSISTS = 2;
+    private static final int DAMAGE = 3;
+    private static final int WINS = 4;
+    private static final int TOP5 = 5;
+    private static final int FIELDS = 6;
+
+    private final long[] cells = new long[HEROES * PLATFORMS * RANKS * FIELDS];
+    private final List<CubeListener> listeners = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Constructor of empty HeroCube
+     */
+    public HeroCube(){
+    }
+
+    /**
+     * Aggregates of one cell of the cube
+     */
+    public static class HeroStats {
+        private final long games;
+        private final long rollUpGames;
+        private final long kills;
+        private final long assists;
+        private final long damage;
+        private final long wins;
+        private final long top5;
+
+        private HeroStats(long[] cells, int cell, int rollUpCell){
+            this.games = cells[cell + GAMES];
+            this.rollUpGames = cells[rollUpCell + GAMES];
+            this.kills = cells[cell + KILLS];
+            this.assists = cells[cell + ASSISTS];
+            this.damage = cells[cell + DAMAGE];
+            this.wins = cells[cell + WINS];
+            this.top5 = cells[cell + TOP5];
+        }
+
+        private HeroStats(long rollUpGames){
+            this.games = 0;
+            this.rollUpGames = rollUpGames;
+            this.kills = 0;
+            this.assists = 0;
+            this.damage = 0;
+            this.wins = 0;
+            this.top5 = 0;
+        }
+
+        public long getGames(){
+            return this.games;
+        }
+
+        /**
+         * Returns share of games with the hero among all games of the same platform and rank
+         * @return double pick rate, NaN if there are no games
+         */
+        public double getPickRate(){
+            return (double) this.games / this.rollUpGames;
+        }
+
+        public double getAvgKills(){
+            return (double) this.kills / this.games;
+        }
+
+        public double getAvgAssists(){
+            return (double) this.assists / this.games;
+        }
+
+        public double getAvgDamage(){
+            return (double) this.damage / this.games;
+        }
+
+        public double getWinRate(){
+            return (double) this.wins / this.games;
+        }
+
+        public double getTop5Rate(){
+            return (double) this.top5 / this.games;
+        }
+    }
+
+    /**
+     * Function building cube of all players of base in single thread. Games played before are aggregated into private
+     * partial cube which is merged at the end, because listeners already registered can add games to the cube
+     * while the remaining players are aggregated.
+     * @param playerBase - PlayerBase base of players
+     * @return HeroCube cube registered as listener of every game history
+     */
+    public static HeroCube create(PlayerBase playerBase){
+        HeroCube cube = new HeroCube();
+        HeroCube partial = new HeroCube();
+        for (Player player : playerBase.getPlayerBaseList()){
+            partial.addColumns(cube.register(player), player);
+        }
+        return cube.merge(partial);
+    }
+
+    /**
+     * Function building cube in parallel, ranges of players are aggregated by fork/join tasks into partial cubes
+     * which are merged
+     * @param playerBase - PlayerBase base of players
+     * @param pool - ForkJoinPool pool used for computing
+     * @return HeroCube cube registered as listener of every game history
+     */
+    public static HeroCube create(PlayerBase playerBase, ForkJoinPool pool){
+        HeroCube cube = new HeroCube();
+        List<Player> players = playerBase.getPlayerBaseList();
+        int threshold = Math.max(1, players.size() / (pool.getParallelism() * 8)); // few tasks per thread for stealing
+        cube.merge(pool.invoke(new CubeTask(cube, players, 0, players.size(), threshold)));
+        return cube;
+    }
+
+    /**
+     * Fork/join task aggregating range of players into partial cube
+     */
+    private static class CubeTask extends RecursiveTask<HeroCube> {
+        private static final long serialVersionUID = 1L;
+
+        private final HeroCube target;
+        private final List<Player> players;
+        private final int start;
+        private final int end;
+        private final int threshold;
+
+        private CubeTask(HeroCube target, List<Player> players, int start, int end, int threshold){
+            this.target = target;
+            this.players = players;
+            this.start = start;
+            this.end = end;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected HeroCube compute(){
+            if (this.end - this.start <= this.threshold){
+                HeroCube partial = new HeroCube();
+                for (Player player : this.players.subList(this.start, this.end)){
+                    partial.addColumns(this.target.register(player), player);
+                }
+                return partial;
+            }
+            int split = (this.start + this.end) >>> 1;
+            CubeTask left = new CubeTask(this.target, this.players, this.start, split, this.threshold);
+            CubeTask right = new CubeTask(this.target, this.players, split, this.end, this.threshold);
+            left.fork();
+            HeroCube rightCube = right.compute();
+            return left.join().merge(rightCube);
+        }
+    }
+
+    /**
+     * Listener adding games of one player to the cube
+     */
+    private static class CubeListener implements GameHistoryListener {
+        private final HeroCube cube;
+        private final GameHistory gameHistory;
+        private final int platform;
+        private final int rank;
+
+        private CubeListener(HeroCube cube, Player player){
+            this.cube = cube;
+            this.gameHistory = player.getGameHistory();
+            this.platform = player.getPlatformType().ordinal();
+            this.rank = player.getRank().ordinal();
+        }
+
+        @Override
+        public void gameAdded(GameHistory gameHistory, GameColumns columns, int index){
+            if (columns.getMode() == GameMode.BATTLE_ROYAL){
+                this.cube.add(columns.getHeroId(index), this.platform, this.rank, columns.getKills(index),
+                        columns.getAssists(index), columns.getDamage(index), columns.getResult(index));
+            }
+        }
+    }
+
+    /**
+     * Function registering listener in game history of player and returning columns of games played before.
+     * Both are done while history is locked, so every game is counted exactly once.
+     */
+    private GameColumns register(Player player){
+        GameHistory gameHistory = player.getGameHistory();
+        CubeListener listener = new CubeListener(this, player);
+        this.listeners.add(listener);
+        synchronized (gameHistory){
+            gameHistory.addListener(listener);
+            return gameHistory.snapshot().getBattleRoyalColumns();
+        }
+    }
+
+    /**
+     * Function removing listeners of cube from game histories, games added later are no longer added to the cube
+     */
+    @Override
+    public void close(){
+        synchronized (this.listeners){
+            for (CubeListener listener : this.listeners){
+                listener.gameHistory.removeListener(listener);
+            }
+            this.listeners.clear();
+        }
+    }
+
+    /**
+     * Function adding games from columns of player (used while building partial cubes, which are never shared)
+     */
+    private void addColumns(GameColumns columns, Player player){
+        int platform = player.getPlatformType().ordinal();
+        int rank = player.getRank().ordinal();
+        GameCursor cursor = columns.cursor();
+        while (cursor.next()){
+            this.addUnsynchronized(cursor.getHeroId(), platform, rank, cursor.getKills(), cursor.getAssists(),
+                    cursor.getDamage(), cursor.getPosition());
+        }
+    }
+
+    /**
+     * Function adding Battle Royal game to all cells it belongs to
+     * @param heroId - int id of hero in HeroDictionary
+     * @param platform - int ordinal of Platform
+     * @param rank - int ordinal of PlayerRank
+     * @param kills - int number of kills
+     * @param assists - int number of assists
+     * @param damage - int number of damage dealt
+     * @param position - int position on which player finished the game
+     */
+    public synchronized void add(int heroId, int platform, int rank, int kills, int assists, int damage, int position){
+        this.addUnsynchronized(heroId, platform, rank, kills, assists, damage, position);
+    }
+
+    private void addUnsynchronized(int heroId, int platform, int rank, int kills, int assists, int damage, int position){
+        int win = position == 1 ? 1 : 0;
+        int top5 = position <= 5 ? 1 : 0;
+        for (int h = 0; h < 2; h++){
+            int hero = h == 0 ? heroId : ALL_HEROES;
+            for (int p = 0; p < 2; p++){
+                int platformSlot = p == 0 ? platform : ALL_PLATFORMS;
+                for (int r = 0; r < 2; r++){
+                    int cell = cell(hero, platformSlot, r == 0 ? rank : ALL_RANKS);
+                    this.cells[cell + GAMES]++;
+                    this.cells[cell + KILLS] += kills;
+                    this.cells[cell + ASSISTS] += assists;
+                    this.cells[cell + DAMAGE] += damage;
+                    this.cells[cell + WINS] += win;
+                    this.cells[cell + TOP5] += top5;
+                }
+            }
+        }
+    }
+
+    /**
+     * Function adding counters of other cube to this cube
+     * @param other - HeroCube partial cube
+     * @return this cube
+     */
+    public synchronized HeroCube merge(HeroCube other){
+        for (int i = 0; i < this.cells.length; i++){
+            this.cells[i] += other.cells[i];
+        }
+        return this;
+    }
+
+    private static int cell(int hero, int platform, int rank){
+        return ((hero * PLATFORMS + platform) * RANKS + rank) * FIELDS;
+    }
+
+    /**
+     * Function returning aggregates of cell, null dimension means roll-up over all its values
+     * (e.g. getStats("Wraith", null, PlayerRank.GOLD) - Wraith games of Gold players on all platforms).
+     * Hero which is not in HeroDictionary (e.g. misspelled name) has no games, it is not added to dictionary.
+     * @param hero - String name of hero or null for all heroes
+     * @param platform - Platform platform or null for all platforms
+     * @param rank - PlayerRank rank or null for all ranks
+     * @return HeroStats aggregates of cell
+     */
+    public synchronized HeroStats getStats(String hero, Platform platform, PlayerRank rank){
+        int heroSlot = hero == null ? ALL_HEROES : HeroDictionary.findHeroId(hero);
+        int platformSlot = platform == null ? ALL_PLATFORMS : platform.ordinal();
+        int rankSlot = rank == null ? ALL_RANKS : rank.ordinal();
+        int rollUpCell = cell(ALL_HEROES, platformSlot, rankSlot);
+        if (heroSlot < 0){
+            return new HeroStats(this.cells[rollUpCell + GAMES]);
+        }
+        return new HeroStats(this.cells, cell(heroSlot, platformSlot, rankSlot), rollUpCell);
+    }
+
+    /**
+     * Function returning aggregates of every hero with at least one game for given platform and rank
+     * @param platform - Platform platform or null for all platforms
+     * @param rank - PlayerRank rank or null for all ranks
+     * @return map from hero name to its aggregates (in order of hero ids)
+     */
+    public synchronized Map<String, HeroStats> slice(Platform platform, PlayerRank rank){
+        int platformSlot = platform == null ? ALL_PLATFORMS : platform.ordinal();
+        int rankSlot = rank == null ? ALL_RANKS : rank.ordinal();
+        int rollUpCell = cell(ALL_HEROES, platformSlot, rankSlot);
+        Map<String, HeroStats> slice = new LinkedHashMap<>();
+        for (int heroId = 0; heroId < HeroDictionary.size(); heroId++){
+            int cell = cell(heroId, platformSlot, rankSlot);
+            if (this.cells[cell + GAMES] > 0){
+                slice.put(HeroDictionary.getHeroName(heroId), new HeroStats(this.cells, cell, rollUpCell));
+            }
+        }
+        return slice;
+    }
+
+    /**
+     * Function printing aggregates of every hero for given platform and rank
+     * @param platform - Platform platform or null for all platforms
+     * @param rank - PlayerRank rank or null for all ranks
+     */
+    public void printSlice(Platform platform, PlayerRank rank){
+        System.out.printf("Heroes (platform: %s, rank: %s)%n", platform == null ? "All" : platform.getName(), rank == null ? "All" : rank);
+        for (Map.Entry<String, HeroStats> entry : this.slice(platform, rank).entrySet()){
+            HeroStats stats = entry.getValue();
+            System.out.printf("Hero: %s Games: %d Pick rate: %f Avg kills: %f Avg damage: %f Win rate: %f Top5 rate: %f%n",
+                    entry.getKey(), stats.getGames(), stats.getPickRate(), stats.getAvgKills(), stats.getAvgDamage(),
+                    stats.getWinRate(), stats.getTop5Rate());
+        }
+    }
+
+    /**
+     * Main function for testing purposes, builds cube of snapshot in parallel, prints few slices and shows
+     * incremental update after adding game.
+     */
+    public static void main(String[] args) throws IOException {
+        PlayerBase playerBase = PlayerBase.loadSnapshot(PlayerBaseSnapshot.DEFAULT_SNAPSHOT_PATH);
+        long start = System.nanoTime();
+        HeroCube single = HeroCube.create(playerBase);
+        System.out.printf("Cube built in single thread in %f s%n", (System.nanoTime() - start) / 1e9);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        start = System.nanoTime();
+        HeroCube cube = HeroCube.create(playerBase, pool);
+        System.out.printf("Cube built in parallel in %f s%n", (System.nanoTime() - start) / 1e9);
+        pool.shutdown();
+        cube.printSlice(null, null);
+        cube.printSlice(Platform.PC, PlayerRank.GOLD);
+        Player player = playerBase.getPlayerBaseList().get(0);
+        HeroStats before = cube.getStats("Wraith", player.getPlatformType(), null);
+        player.addGameToHistory("1-6-2023", 30.5f, "Wraith", 25, 3, 5000, 1);
+        HeroStats after = cube.getStats("Wraith", player.getPlatformType(), null);
+        System.out.printf("Wraith games on %s: %d -> %d, all games: %d (single thread cube: %d)%n", player.getPlatform(),
+                before.getGames(), after.getGames(), cube.getStats(null, null, null).getGames(),
+                single.getStats(null, null, null).getGames());
+        single.close();
+        cube.close();
+    }
+}
@@ -0,0 +1,175 @@
+package furche.pg;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public final class HeroDictionary {
+    /**
+     * Global dictionary of hero names. Each hero gets a small integer id (in order of first appearance) and a single
+     * interned String object shared by all games the hero was used in.
+     * Lookups from raw bytes (used by GameHistoryFileReader) do not create any objects, so parsing a hero name
+     * of already known hero costs only hashing of its bytes.
+     * Reads are lock free, adding new hero copies the table (number of heroes is very small).
+     */
+
+    public static final int MAX_HEROES = 127; // hero id has to fit in a byte
+
+    private static volatile Table table = new Table(new String[0], new byte[0][], new int[256]); // twice MAX_HEROES, so table never fills up
+
+    private HeroDictionary(){
+    }
+
+    /**
+     * Immutable state of dictionary: names of heroes, their utf-8 bytes and open addressing hash table of (id + 1).
+     */
+    private static final class Table {
+        private final String[] names;
+        private final byte[][] nameBytes;
+        private final int[] slots;
+
+        private Table(String[] names, byte[][] nameBytes, int[] slots){
+            this.names = names;
+            this.nameBytes = nameBytes;
+            this.slots = slots;
+        }
+    }
+
+    /**
+     * Returns id of hero with given name, hero is added to dictionary if it is not present yet.
+     * @param heroName - String name of hero
+     * @return int id of hero
+     */
+    public static int getHeroId(String heroName){
+        int id = findHeroId(heroName);
+        if (id >= 0) {
+            return id;
+        }
+        byte[] bytes = heroName.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return addHero(buffer, 0, bytes.length, hash(buffer, 0, bytes.length)); // addHero checks again under lock
+    }
+
+    /**
+     * Returns id of hero with given name without adding it to dictionary (used by lookups of names typed by user,
+     * so unknown names don't use up ids of heroes).
+     * @param heroName - String name of hero
+     * @return int id of hero or -1 if there is no such hero in dictionary
+     */
+    public static int findHeroId(String heroName){
+        Table current = table;
+        String[] names = current.names;
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] == heroName) { // already interned name, no need to hash it
+                return i;
+            }
+        }
+        byte[] bytes = heroName.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return find(current, buffer, 0, bytes.length, hash(buffer, 0, bytes.length));
+    }
+
+    /**
+     * Returns id of hero which name is stored in buffer as utf-8 bytes between start (inclusive) and end (exclusive),
+     * hero is added to dictionary if it is not present yet.
+     * @param buffer - ByteBuffer buffer with hero name
+     * @param start - int index of first byte of name
+     * @param end - int index after last byte of name
+     * @return int id of hero
+     */
+    public static int getHeroId(ByteBuffer buffer, int start, int end){
+        int hash = hash(buffer, start, end);
+        int id = find(table, buffer, start, end, hash);
+        if (id >= 0) {
+            return id;
+        }
+        return addHero(buffer, start, end, hash);
+    }
+
+    /**
+     * Returns interned instance of hero name, hero is added to dictionary if it is not present yet.
+     * @param heroName - String name of hero
+     * @return String interned name of hero
+     */
+    public static String intern(String heroName){
+        return getHeroName(getHeroId(heroName));
+    }
+
+    /**
+     * Returns interned name of hero with given id
+     * @param heroId - int id of hero
+     * @return String name of hero
+     */
+    public static String getHeroName(int heroId){
+        return table.names[heroId];
+    }
+
+    /**
+     * Returns number of heroes in dictionary
+     * @return int number of heroes
+     */
+    public static int size(){
+        return table.names.length;
+    }
+
+    private static synchronized int addHero(ByteBuffer buffer, int start, int end, int hash){
+        Table current = table;
+        int id = find(current, buffer, start, end, hash);
+        if (id >= 0) { // added by other thread in the meantime
+            return id;
+        }
+        id = current.names.length;
+        if (id >= MAX_HEROES) {
+            throw new IllegalStateException("Too many heroes in dictionary");
+        }
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        String[] names = Arrays.copyOf(current.names, id + 1);
+        byte[][] nameBytes = Arrays.copyOf(current.nameBytes, id + 1);
+        names[id] = new String(bytes, StandardCharsets.UTF_8).intern();
+        nameBytes[id] = bytes;
+        int[] slots = Arrays.copyOf(current.slots, current.slots.length);
+        int slot = hash & (slots.length - 1);
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        slots[slot] = id + 1;
+        table = new Table(names, nameBytes, slots);
+        return id;
+    }
+
+    private static int find(Table table, ByteBuffer buffer, int start, int end, int hash){
+        int[] slots = table.slots;
+        int slot = hash & (slots.length - 1);
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (equalBytes(table.nameBytes[id], buffer, start, end)) {
+                return id;
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        return -1;
+    }
+
+    private static boolean equalBytes(byte[] name, ByteBuffer buffer, int start, int end){
+        if (name.length != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (name[i] != buffer.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(ByteBuffer buffer, int start, int end){
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
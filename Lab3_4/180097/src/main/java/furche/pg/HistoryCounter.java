@@ -0,0 +1,42 @@
+package furche.pg;
+
+/**
+ * Enum representing counters of game history (index of counter in HistoryCounters).
+ * key : String name of counter used in historyStats hashtable
+ */
+public enum HistoryCounter {
+    BATTLE_ROYALS_PLAYED("battleRoyalsPlayed"),
+    BATTLE_ROYALS_WON("battleRoyalsWon"),
+    BATTLE_ROYALS_TOP3("battleRoyalsTop3"),
+    BATTLE_ROYALS_TOP5("battleRoyalsTop5"),
+    ARENAS_PLAYED("arenasPlayed"),
+    ARENAS_WON("arenasWon");
+
+    private final String key;
+
+    HistoryCounter(String key){
+        this.key = key;
+    }
+
+    /**
+     * Returns name of counter used in historyStats hashtable
+     * @return String key of counter
+     */
+    public String getKey(){
+        return this.key;
+    }
+
+    /**
+     * Function finding counter by its historyStats key
+     * @param key - String key of counter (e.g. "battleRoyalsWon")
+     * @return HistoryCounter with given key or null if there is no such counter
+     */
+    public static HistoryCounter fromKey(String key){
+        for (HistoryCounter counter : values()){
+            if (counter.key.equals(key)){
+                return counter;
+            }
+        }
+        return null;
+    }
+}
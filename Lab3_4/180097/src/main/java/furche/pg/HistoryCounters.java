@@ -0,0 +1,170 @@
+package furche.pg;
+
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public class HistoryCounters {
+    /**
+     * Class storing counters of game history (number of played and won games etc.) in fixed layout indexed by
+     * HistoryCounter ordinal, without string keys and boxing.
+     * Plain counters are plain ints and must be updated by one thread at a time (GameHistory adds games under lock),
+     * concurrent counters use LongAdder and can be updated and read by many threads without locking.
+     * Attributes:
+     * counts : int[] plain counters, null for concurrent counters
+     * adders : LongAdder[] concurrent counters, null for plain counters
+     */
+
+    private static final HistoryCounter[] COUNTERS = HistoryCounter.values();
+
+    private final int[] counts;
+    private final LongAdder[] adders;
+
+    private HistoryCounters(boolean concurrent){
+        if (concurrent){
+            this.counts = null;
+            this.adders = new LongAdder[COUNTERS.length];
+            for (int i = 0; i < this.adders.length; i++){
+                this.adders[i] = new LongAdder();
+            }
+        } else {
+            this.counts = new int[COUNTERS.length];
+            this.adders = null;
+        }
+    }
+
+    /**
+     * Function creating plain (not thread safe) counters
+     * @return HistoryCounters with all counters equal 0
+     */
+    public static HistoryCounters plain(){
+        return new HistoryCounters(false);
+    }
+
+    /**
+     * Function creating thread safe counters
+     * @return HistoryCounters with all counters equal 0
+     */
+    public static HistoryCounters concurrent(){
+        return new HistoryCounters(true);
+    }
+
+    /**
+     * Function creating counters from historyStats hashtable, unknown keys are ignored
+     * @param historyStats - hashtable with counters by key
+     * @param concurrent - boolean true for thread safe counters
+     * @return HistoryCounters with values from hashtable
+     */
+    public static HistoryCounters fromHashtable(Map<String, Integer> historyStats, boolean concurrent){
+        HistoryCounters counters = new HistoryCounters(concurrent);
+        for (Map.Entry<String, Integer> entry : historyStats.entrySet()){
+            HistoryCounter counter = HistoryCounter.fromKey(entry.getKey());
+            if (counter != null){
+                counters.add(counter, entry.getValue());
+            }
+        }
+        return counters;
+    }
+
+    /**
+     * Returns true if counters are thread safe
+     * @return boolean true for concurrent counters
+     */
+    public boolean isConcurrent(){
+        return this.adders != null;
+    }
+
+    /**
+     * Function adding value to counter
+     * @param counter - HistoryCounter counter
+     * @param value - int added value
+     */
+    public void add(HistoryCounter counter, int value){
+        if (this.counts != null){
+            this.counts[counter.ordinal()] += value;
+        } else {
+            this.adders[counter.ordinal()].add(value);
+        }
+    }
+
+    /**
+     * Function incrementing counter
+     * @param counter - HistoryCounter counter
+     */
+    public void increment(HistoryCounter counter){
+        this.add(counter, 1);
+    }
+
+    /**
+     * Returns value of counter
+     * @param counter - HistoryCounter counter
+     * @return int value
+     */
+    public int get(HistoryCounter counter){
+        if (this.counts != null){
+            return this.counts[counter.ordinal()];
+        }
+        return (int) this.adders[counter.ordinal()].sum();
+    }
+
+    /**
+     * Function counting Battle Royal finished on given position
+     * @param position - int position on which player finished the game
+     */
+    public void countBattleRoyal(int position){
+        this.increment(HistoryCounter.BATTLE_ROYALS_PLAYED);
+        if (position == 1){
+            this.increment(HistoryCounter.BATTLE_ROYALS_WON);
+        }
+        else if (position > 1 && position <= 3){
+            this.increment(HistoryCounter.BATTLE_ROYALS_TOP3);
+        }
+        else if (position > 3 && position <= 5){
+            this.increment(HistoryCounter.BATTLE_ROYALS_TOP5);
+        }
+    }
+
+    /**
+     * Function counting Arena game
+     * @param hasWon - boolean true if player won the game
+     */
+    public void countArena(boolean hasWon){
+        this.increment(HistoryCounter.ARENAS_PLAYED);
+        if (hasWon){
+            this.increment(HistoryCounter.ARENAS_WON);
+        }
+    }
+
+    /**
+     * Returns copy of counters of the same kind (plain or concurrent)
+     * @return HistoryCounters copy
+     */
+    public HistoryCounters copy(){
+        HistoryCounters copy = new HistoryCounters(this.isConcurrent());
+        for (HistoryCounter counter : COUNTERS){
+            copy.add(counter, this.get(counter));
+        }
+        return copy;
+    }
+
+    /**
+     * Function creating hashtable with counters by key (compatibility with former historyStats), counters equal 0
+     * are not included. Changing hashtable doesn't change counters.
+     * @return Hashtable with counters
+     */
+    public Hashtable<String, Integer> toHashtable(){
+        Hashtable<String, Integer> historyStats = new Hashtable<>();
+        for (HistoryCounter counter : COUNTERS){
+            int value = this.get(counter);
+            if (value != 0){
+                historyStats.put(counter.getKey(), value);
+            }
+        }
+        return historyStats;
+    }
+
+    @Override
+    public String toString(){
+        return this.toHashtable().toString();
+    }
+}
@@ -0,0 +1,447 @@
+package furche.pg;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class IngestionPipeline {
+    /**
+     * Staged pipeline loading game history files into PlayerBase:
+     * readers -> raw queue -> parsers -> parsed queue -> writer.
+     * Reader threads read files in batches of complete lines, parser threads turn raw batches into columns of games
+     * and the calling thread is the single writer adding games to players (batches of one player are added in order
+     * they were read, so game history is the same as when loaded by PlayerBase). Both queues are bounded, so a slow
+     * stage blocks the stages before it instead of filling memory (backpressure).
+     * Stages stop after end of data is passed through queues (poison pills). If a stage fails, remaining work
+     * is skipped and the first failure is thrown from load after all threads stopped.
+     * Attributes:
+     * numOfReaders : int number of reader threads
+     * numOfParsers : int number of parser threads
+     * batchBytes : int size of raw batch in bytes (longer lines get bigger batch)
+     * rawQueue : BlockingQueue<RawBatch> batches of lines waiting for parsing
+     * parsedQueue : BlockingQueue<GameBatch> batches of games waiting for writer
+     * readStage, parseStage, writeStage : StageMetrics counters of stages
+     * failure : AtomicReference<Throwable> first failure of any stage
+     */
+
+    private static final RawBatch RAW_POISON = new RawBatch(-1, -1, null);
+    private static final GameBatch PARSED_POISON = new GameBatch(-1, -1, 0);
+
+    private final int numOfReaders;
+    private final int numOfParsers;
+    private final int batchBytes;
+    private final BlockingQueue<RawBatch> rawQueue;
+    private final BlockingQueue<GameBatch> parsedQueue;
+    private final StageMetrics readStage = new StageMetrics("read", "bytes");
+    private final StageMetrics parseStage = new StageMetrics("parse", "games");
+    private final StageMetrics writeStage = new StageMetrics("write", "games");
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Constructor of IngestionPipeline
+     * @param numOfReaders - int number of reader threads
+     * @param numOfParsers - int number of parser threads
+     * @param queueCapacity - int capacity of each queue in batches
+     * @param batchBytes - int size of raw batch in bytes
+     */
+    public IngestionPipeline(int numOfReaders, int numOfParsers, int queueCapacity, int batchBytes){
+        if (numOfReaders <= 0 || numOfParsers <= 0 || queueCapacity <= 0 || batchBytes <= 0){
+            throw new IllegalArgumentException("Number of threads, queue capacity and batch size must be positive");
+        }
+        this.numOfReaders = numOfReaders;
+        this.numOfParsers = numOfParsers;
+        this.batchBytes = batchBytes;
+        this.rawQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.parsedQueue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Lines of game history file of one player, seq is position of batch in the file
+     */
+    private static class RawBatch {
+        private final int player;
+        private final int seq;
+        private final ByteBuffer lines;
+
+        private RawBatch(int player, int seq, ByteBuffer lines){
+            this.player = player;
+            this.seq = seq;
+            this.lines = lines;
+        }
+    }
+
+    /**
+     * Parsed games of one raw batch stored in columns
+     */
+    private static class GameBatch implements GameRowConsumer {
+        private final int player;
+        private final int seq;
+        private int size = 0;
+        private int[] epochDay;
+        private float[] timeInGame;
+        private int[] heroId;
+        private int[] kills;
+        private int[] assists;
+        private int[] damage;
+        private int[] position;
+
+        private GameBatch(int player, int seq, int capacity){
+            this.player = player;
+            this.seq = seq;
+            this.epochDay = new int[capacity];
+            this.timeInGame = new float[capacity];
+            this.heroId = new int[capacity];
+            this.kills = new int[capacity];
+            this.assists = new int[capacity];
+            this.damage = new int[capacity];
+            this.position = new int[capacity];
+        }
+
+        @Override
+        public void accept(int epochDay, float timeInGame, int heroId, int kills, int assists, int damage, int position){
+            if (this.size == this.epochDay.length){
+                int capacity = Math.max(16, this.size * 2);
+                this.epochDay = Arrays.copyOf(this.epochDay, capacity);
+                this.timeInGame = Arrays.copyOf(this.timeInGame, capacity);
+                this.heroId = Arrays.copyOf(this.heroId, capacity);
+                this.kills = Arrays.copyOf(this.kills, capacity);
+                this.assists = Arrays.copyOf(this.assists, capacity);
+                this.damage = Arrays.copyOf(this.damage, capacity);
+                this.position = Arrays.copyOf(this.position, capacity);
+            }
+            this.epochDay[this.size] = epochDay;
+            this.timeInGame[this.size] = timeInGame;
+            this.heroId[this.size] = heroId;
+            this.kills[this.size] = kills;
+            this.assists[this.size] = assists;
+            this.damage[this.size] = damage;
+            this.position[this.size] = position;
+            this.size++;
+        }
+    }
+
+    /**
+     * Counters of one stage, updated by its threads
+     */
+    private static class StageMetrics {
+        private final String name;
+        private final String unit;
+        private final AtomicLong batches = new AtomicLong();
+        private final AtomicLong items = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+        private final AtomicLong blockedNanos = new AtomicLong();
+        private final AtomicLong maxQueueDepth = new AtomicLong();
+
+        private StageMetrics(String name, String unit){
+            this.name = name;
+            this.unit = unit;
+        }
+
+        private void print(double seconds){
+            System.out.printf("Stage %-5s: %d batches, %d %s (%.0f %s/s), busy %f s, blocked on queue %f s, max queue depth %d%n",
+                    this.name, this.batches.get(), this.items.get(), this.unit, this.items.get() / seconds, this.unit,
+                    this.busyNanos.get() / 1e9, this.blockedNanos.get() / 1e9, this.maxQueueDepth.get());
+        }
+    }
+
+    /**
+     * Function loading game histories of players from player_info file through the pipeline
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param playerCap - int amount of players in base
+     * @return PlayerBase with players in order of player_info file
+     * @throws IOException when any game history file can not be read or parsed
+     * @throws InterruptedException when calling thread is interrupted
+     */
+    public PlayerBase load(String pathToPlayerInfo, int playerCap) throws IOException, InterruptedException {
+        return this.load(pathToPlayerInfo, PlayerInfo.GAME_HISTORY_DIR, playerCap);
+    }
+
+    /**
+     * Function loading game histories of players from player_info file and given directory through the pipeline
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param gameHistoryDir - String directory with game history files (ending with separator)
+     * @param playerCap - int amount of players in base
+     * @return PlayerBase with players in order of player_info file
+     * @throws IOException when any game history file can not be read or parsed
+     * @throws InterruptedException when calling thread is interrupted
+     */
+    public PlayerBase load(String pathToPlayerInfo, String gameHistoryDir, int playerCap) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        List<String> paths = new ArrayList<>();
+        List<Player> players = new ArrayList<>();
+        for (PlayerInfo playerInfo : PlayerInfo.readPlayerInfo(pathToPlayerInfo, playerCap)){
+            String path = playerInfo.getGameHistoryPath(gameHistoryDir);
+            if (new File(path).isFile()){
+                paths.add(path);
+                players.add(new Player(playerInfo.getNick(), playerInfo.getPlatform(), playerInfo.getRank()));
+            }
+        }
+        ExecutorService readers = Executors.newFixedThreadPool(this.numOfReaders);
+        ExecutorService parsers = Executors.newFixedThreadPool(this.numOfParsers);
+        try {
+            AtomicInteger nextPlayer = new AtomicInteger();
+            AtomicInteger activeReaders = new AtomicInteger(this.numOfReaders);
+            for (int i = 0; i < this.numOfReaders; i++){
+                readers.execute(() -> this.readFiles(paths, nextPlayer, activeReaders));
+            }
+            for (int i = 0; i < this.numOfParsers; i++){
+                parsers.execute(this::parseBatches);
+            }
+            this.writeBatches(players);
+        } catch (InterruptedException e) {
+            readers.shutdownNow();
+            parsers.shutdownNow();
+            throw e;
+        } finally {
+            readers.shutdown();
+            parsers.shutdown();
+        }
+        Throwable cause = this.failure.get();
+        if (cause != null){
+            throw new IOException("Ingestion pipeline failed", cause);
+        }
+        this.printMetrics((System.nanoTime() - start) / 1e9);
+        return new PlayerBase(players);
+    }
+
+    /**
+     * Reader stage: reads files of players taken from shared counter, last finishing reader sends poison to parsers
+     */
+    private void readFiles(List<String> paths, AtomicInteger nextPlayer, AtomicInteger activeReaders){
+        try {
+            int player;
+            while (this.failure.get() == null && (player = nextPlayer.getAndIncrement()) < paths.size()){
+                this.readFile(player, paths.get(player));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.failure.compareAndSet(null, e);
+        } catch (IOException | RuntimeException e) {
+            this.failure.compareAndSet(null, e);
+        } finally {
+            if (activeReaders.decrementAndGet() == 0){
+                for (int i = 0; i < this.numOfParsers; i++){
+                    this.putQuietly(this.rawQueue, RAW_POISON);
+                }
+            }
+        }
+    }
+
+    /**
+     * Function reading file in batches of complete lines, rest of last line is moved to next batch
+     */
+    private void readFile(int player, String path) throws IOException, InterruptedException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            int seq = 0;
+            ByteBuffer buffer = ByteBuffer.allocate(this.batchBytes);
+            boolean endOfFile = false;
+            while (!endOfFile){
+                long busyStart = System.nanoTime();
+                endOfFile = channel.read(buffer) < 0;
+                if (!endOfFile && buffer.hasRemaining()){
+                    this.readStage.busyNanos.addAndGet(System.nanoTime() - busyStart);
+                    continue;
+                }
+                int end = buffer.position();
+                if (!endOfFile){
+                    while (end > 0 && buffer.get(end - 1) != '\n'){
+                        end--;
+                    }
+                    if (end == 0){ // line longer than batch
+                        ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+                        buffer.flip();
+                        bigger.put(buffer);
+                        buffer = bigger;
+                        continue;
+                    }
+                }
+                ByteBuffer next = ByteBuffer.allocate(Math.max(this.batchBytes, 2 * (buffer.position() - end)));
+                for (int i = end; i < buffer.position(); i++){
+                    next.put(buffer.get(i));
+                }
+                buffer.position(0);
+                buffer.limit(end);
+                this.readStage.busyNanos.addAndGet(System.nanoTime() - busyStart);
+                if (end > 0){
+                    this.readStage.batches.incrementAndGet();
+                    this.readStage.items.addAndGet(end);
+                    this.put(this.rawQueue, new RawBatch(player, seq++, buffer), this.readStage);
+                }
+                buffer = next;
+            }
+        }
+    }
+
+    /**
+     * Parser stage: parses raw batches until poison, poison is passed to writer. After failure batches are only drained.
+     */
+    private void parseBatches(){
+        try {
+            while (true){
+                RawBatch rawBatch = this.rawQueue.take();
+                if (rawBatch == RAW_POISON){
+                    break;
+                }
+                if (this.failure.get() != null){
+                    continue;
+                }
+                long busyStart = System.nanoTime();
+                GameBatch gameBatch = new GameBatch(rawBatch.player, rawBatch.seq, rawBatch.lines.limit() / 32 + 1);
+                try {
+                    new GameHistoryFileReader(rawBatch.lines).parseRows(gameBatch);
+                } catch (RuntimeException e) {
+                    this.failure.compareAndSet(null, e);
+                    continue;
+                }
+                this.parseStage.busyNanos.addAndGet(System.nanoTime() - busyStart);
+                this.parseStage.batches.incrementAndGet();
+                this.parseStage.items.addAndGet(gameBatch.size);
+                this.put(this.parsedQueue, gameBatch, this.parseStage);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.failure.compareAndSet(null, e);
+        } finally {
+            this.putQuietly(this.parsedQueue, PARSED_POISON);
+        }
+    }
+
+    /**
+     * Writer stage (calling thread): adds batches to players in order of seq, batches which came too early wait
+     * in pending map. Ends after poison from every parser.
+     */
+    private void writeBatches(List<Player> players) throws InterruptedException {
+        int[] nextSeq = new int[players.size()];
+        Map<Long, GameBatch> pending = new HashMap<>();
+        int poisons = 0;
+        while (poisons < this.numOfParsers){
+            GameBatch gameBatch = this.parsedQueue.take();
+            if (gameBatch == PARSED_POISON){
+                poisons++;
+                continue;
+            }
+            if (this.failure.get() != null){
+                continue;
+            }
+            long busyStart = System.nanoTime();
+            pending.put(((long) gameBatch.player << 32) | gameBatch.seq, gameBatch);
+            int player = gameBatch.player;
+            GameBatch next;
+            while ((next = pending.remove(((long) player << 32) | nextSeq[player])) != null){
+                this.addGames(players.get(player), next);
+                nextSeq[player]++;
+            }
+            this.writeStage.busyNanos.addAndGet(System.nanoTime() - busyStart);
+        }
+        if (this.failure.get() == null && !pending.isEmpty()){
+            this.failure.compareAndSet(null, new IllegalStateException(pending.size() + " batches were not written"));
+        }
+    }
+
+    private void addGames(Player player, GameBatch gameBatch){
+        GameHistory gameHistory = player.getGameHistory();
+        GameColumns columns = gameHistory.getBattleRoyalColumns();
+        columns.ensureCapacity(columns.size() + gameBatch.size);
+        for (int i = 0; i < gameBatch.size; i++){
+            gameHistory.addBattleRoyal(gameBatch.epochDay[i], gameBatch.timeInGame[i], gameBatch.heroId[i],
+                    gameBatch.kills[i], gameBatch.assists[i], gameBatch.damage[i], gameBatch.position[i], null);
+        }
+        this.writeStage.batches.incrementAndGet();
+        this.writeStage.items.addAndGet(gameBatch.size);
+    }
+
+    /**
+     * Function putting batch into queue, time spent waiting for free space is counted as blocked time of stage
+     * and depth of queue after put is recorded as depth of stages output queue
+     */
+    private <T> void put(BlockingQueue<T> queue, T batch, StageMetrics stage) throws InterruptedException {
+        if (!queue.offer(batch)){
+            long blockedStart = System.nanoTime();
+            queue.put(batch);
+            stage.blockedNanos.addAndGet(System.nanoTime() - blockedStart);
+        }
+        stage.maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    /**
+     * Function putting poison into queue, poison has to be delivered even when thread was interrupted
+     */
+    private <T> void putQuietly(BlockingQueue<T> queue, T poison){
+        boolean interrupted = Thread.interrupted();
+        while (true){
+            try {
+                queue.put(poison);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns number of batches currently waiting for parsing
+     * @return int depth of raw queue
+     */
+    public int getRawQueueDepth(){
+        return this.rawQueue.size();
+    }
+
+    /**
+     * Returns number of batches currently waiting for writer
+     * @return int depth of parsed queue
+     */
+    public int getParsedQueueDepth(){
+        return this.parsedQueue.size();
+    }
+
+    /**
+     * Function printing throughput of every stage and depths of queues
+     * @param seconds - double duration of loading
+     */
+    public void printMetrics(double seconds){
+        System.out.printf("Pipeline finished in %f s (%d readers, %d parsers)%n", seconds, this.numOfReaders, this.numOfParsers);
+        this.readStage.print(seconds);
+        this.parseStage.print(seconds);
+        this.writeStage.print(seconds);
+        System.out.printf("Queue raw: depth %d/%d, queue parsed: depth %d/%d%n", this.rawQueue.size(),
+                this.rawQueue.size() + this.rawQueue.remainingCapacity(), this.parsedQueue.size(),
+                this.parsedQueue.size() + this.parsedQueue.remainingCapacity());
+    }
+
+    /**
+     * Main function for testing purposes, loads default data set through pipeline and checks it against PlayerBase.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        IngestionPipeline pipeline = new IngestionPipeline(2, 2, 64, 1 << 16);
+        PlayerBase playerBase = pipeline.load(PlayerInfo.PLAYER_INFO_PATH, Integer.MAX_VALUE);
+        PlayerBase reference = PlayerBase.loadSnapshot(PlayerBaseSnapshot.DEFAULT_SNAPSHOT_PATH);
+        int different = 0;
+        for (int i = 0; i < reference.getPlayerBaseList().size(); i++){
+            Player player = playerBase.getPlayerBaseList().get(i);
+            Player expected = reference.getPlayerBaseList().get(i);
+            if (!player.getNick().equals(expected.getNick()) || player.getKDRatio() != expected.getKDRatio()
+                    || player.getSumTimePlayed() != expected.getSumTimePlayed()){
+                different++;
+            }
+        }
+        System.out.printf("Players different from snapshot: %d%n", different);
+    }
+}
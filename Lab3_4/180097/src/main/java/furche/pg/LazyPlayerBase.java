@@ -0,0 +1,277 @@
+package furche.pg;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+public class LazyPlayerBase {
+    /**
+     * Player base loading game histories on demand, created by PlayerBase.loadLazy. Only player_info file is read
+     * up front, csv file of a player is read on first access and loaded players are kept in LRU cache bounded
+     * by number of games, least recently used players are evicted when the bound is exceeded. Startup time and memory
+     * don't depend on size of data set.
+     * Players are identified by nick and platform (the same nick can be used on more platforms). Files are read
+     * without holding lock of the cache, so players can be loaded in parallel and cached players are returned while
+     * other players are being loaded. Concurrent requests of the same player wait for one read of its file.
+     * Failure of reading a file is rethrown to every request waiting for it and player is read again on next request.
+     * Attributes:
+     * playerInfoList : List<PlayerInfo> entries of player_info file
+     * gameHistoryDir : String directory with game history files
+     * playerInfoByKey : Map<String, PlayerInfo> entry of player with given nick and platform
+     * loadedPlayers : LinkedHashMap<String, LoadedPlayer> loaded players in access order (eldest first)
+     * loadingPlayers : Map<String, FutureTask<Player>> players which files are being read
+     * maxLoadedGames : long maximal number of games of all loaded players (at least one player is always kept)
+     * loadedGames : long number of games of loaded players
+     * hits, misses, evictions : long cache statistics
+     */
+
+    private final List<PlayerInfo> playerInfoList;
+    private final String gameHistoryDir;
+    private final Map<String, PlayerInfo> playerInfoByKey;
+    private final LinkedHashMap<String, LoadedPlayer> loadedPlayers;
+    private final Map<String, FutureTask<Player>> loadingPlayers = new HashMap<>();
+    private final long maxLoadedGames;
+    private long loadedGames = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Loaded player with number of games it had when it was loaded (used for accounting of cache size)
+     */
+    private static class LoadedPlayer {
+        private final Player player;
+        private final int games;
+
+        private LoadedPlayer(Player player){
+            this.player = player;
+            this.games = player.getGameHistory().getNumberOfGames();
+        }
+    }
+
+    /**
+     * Constructor of LazyPlayerBase reading only player_info file (use PlayerBase.loadLazy)
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param gameHistoryDir - String directory with game history files (ending with separator)
+     * @param maxLoadedGames - long maximal number of games kept in memory
+     */
+    LazyPlayerBase(String pathToPlayerInfo, String gameHistoryDir, long maxLoadedGames){
+        if (maxLoadedGames <= 0){
+            throw new IllegalArgumentException("Maximal number of loaded games must be positive: " + maxLoadedGames);
+        }
+        this.playerInfoList = PlayerInfo.readPlayerInfo(pathToPlayerInfo, Integer.MAX_VALUE);
+        this.gameHistoryDir = gameHistoryDir;
+        this.playerInfoByKey = new HashMap<>();
+        for (PlayerInfo playerInfo : this.playerInfoList){
+            this.playerInfoByKey.putIfAbsent(playerKey(playerInfo.getNick(), playerInfo.getPlatform()), playerInfo);
+        }
+        this.loadedPlayers = new LinkedHashMap<>(16, 0.75f, true);
+        this.maxLoadedGames = maxLoadedGames;
+    }
+
+    private static String playerKey(String nick, String platform){
+        return nick + ',' + platform;
+    }
+
+    /**
+     * Function returning player with given nick and platform, game history is read from csv file if player is not loaded.
+     * Returned player stays valid after being evicted from cache.
+     * @param nick - String nick of player
+     * @param platform - String name of platform (e.g. "PC", "Nintendo Switch")
+     * @return Player with given nick and platform or null if there is no such player or it has no game history file
+     * @throws IllegalStateException when game history file can not be read or parsed (cause is the original failure),
+     * or thread was interrupted while waiting for other thread reading the file
+     */
+    public Player getPlayer(String nick, String platform){
+        String key = playerKey(nick, platform);
+        PlayerInfo playerInfo = this.playerInfoByKey.get(key);
+        if (playerInfo == null){
+            return null;
+        }
+        FutureTask<Player> loading;
+        boolean loader = false;
+        synchronized (this){
+            LoadedPlayer loadedPlayer = this.loadedPlayers.get(key);
+            if (loadedPlayer != null){
+                this.hits++;
+                return loadedPlayer.player;
+            }
+            loading = this.loadingPlayers.get(key);
+            if (loading == null){
+                loading = new FutureTask<>(() -> readPlayer(playerInfo, this.gameHistoryDir));
+                this.loadingPlayers.put(key, loading);
+                this.misses++;
+                loader = true;
+            }
+        }
+        if (loader){
+            loading.run(); // file is read without holding the lock
+        }
+        Player player = null;
+        try {
+            player = loading.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("Waiting for loading of player %s (%s) was interrupted", nick, platform), e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(String.format("Loading of player %s (%s) failed", nick, platform), e.getCause());
+        } finally {
+            if (loader){
+                this.finishLoading(key, player);
+            }
+        }
+        return player;
+    }
+
+    /**
+     * Function removing finished loading of player and caching loaded player
+     * @param key - String key of player
+     * @param player - Player loaded player, null if player has no game history file or loading failed
+     */
+    private synchronized void finishLoading(String key, Player player){
+        this.loadingPlayers.remove(key);
+        if (player != null){
+            LoadedPlayer loadedPlayer = new LoadedPlayer(player);
+            this.loadedPlayers.put(key, loadedPlayer);
+            this.loadedGames += loadedPlayer.games;
+            this.evict();
+        }
+    }
+
+    /**
+     * Function reading game history file of player
+     * @param playerInfo - PlayerInfo entry of player
+     * @param gameHistoryDir - String directory with game history files
+     * @return Player with read games or null if player has no game history file
+     * @throws UncheckedIOException when game history file can not be read
+     */
+    private static Player readPlayer(PlayerInfo playerInfo, String gameHistoryDir){
+        String pathToGameHistory = playerInfo.getGameHistoryPath(gameHistoryDir);
+        if (!new File(pathToGameHistory).isFile()){
+            return null;
+        }
+        Player player = new Player(playerInfo.getNick(), playerInfo.getPlatform(), playerInfo.getRank());
+        try {
+            GameHistoryFileReader.readGameHistory(pathToGameHistory, player::addGameToHistory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading game history of " + playerInfo.getNick() + " failed", e);
+        }
+        return player;
+    }
+
+    /**
+     * Function evicting least recently used players until number of loaded games fits the bound
+     */
+    private void evict(){
+        Iterator<LoadedPlayer> eldest = this.loadedPlayers.values().iterator();
+        while (this.loadedGames > this.maxLoadedGames && this.loadedPlayers.size() > 1){
+            LoadedPlayer loadedPlayer = eldest.next();
+            eldest.remove();
+            this.loadedGames -= loadedPlayer.games;
+            this.evictions++;
+        }
+    }
+
+    /**
+     * Returns true if player with given nick and platform is loaded (doesn't change order of cache)
+     * @param nick - String nick of player
+     * @param platform - String name of platform
+     * @return boolean true if loaded
+     */
+    public synchronized boolean isLoaded(String nick, String platform){
+        return this.loadedPlayers.containsKey(playerKey(nick, platform));
+    }
+
+    /**
+     * Returns nicks of all players in base (in order of player_info file, nick used on more platforms is repeated)
+     * @return list of nicks
+     */
+    public List<String> getNicks(){
+        List<String> nicks = new ArrayList<>(this.playerInfoList.size());
+        for (PlayerInfo playerInfo : this.playerInfoList){
+            nicks.add(playerInfo.getNick());
+        }
+        return nicks;
+    }
+
+    /**
+     * Returns entries of player_info file
+     * @return read only list of PlayerInfo
+     */
+    public List<PlayerInfo> getPlayerInfoList(){
+        return Collections.unmodifiableList(this.playerInfoList);
+    }
+
+    /**
+     * Function that gives functionalities of playerApp for a player found by a nick and platform
+     * (player is loaded if needed).
+     *
+     * @param nick : nick of player
+     * @param platform : name of platform of player
+     */
+    public void showPlayerApp(String nick, String platform){
+        Player player = this.getPlayer(nick, platform);
+        if (player != null){
+            player.playerApp();
+        }
+    }
+
+    public synchronized int getNumberOfLoadedPlayers(){
+        return this.loadedPlayers.size();
+    }
+
+    public synchronized long getLoadedGames(){
+        return this.loadedGames;
+    }
+
+    public synchronized long getHits(){
+        return this.hits;
+    }
+
+    public synchronized long getMisses(){
+        return this.misses;
+    }
+
+    public synchronized long getEvictions(){
+        return this.evictions;
+    }
+
+    /**
+     * Function printing statistics of cache
+     */
+    public synchronized void printCacheStats(){
+        System.out.printf("Loaded players: %d (%d games, max %d) Hits: %d Misses: %d Evictions: %d%n", this.loadedPlayers.size(),
+                this.loadedGames, this.maxLoadedGames, this.hits, this.misses, this.evictions);
+    }
+
+    /**
+     * Main function for testing purposes, shows startup time of lazy base and hits and evictions of cache.
+     */
+    public static void main(String[] args){
+        long start = System.nanoTime();
+        LazyPlayerBase lazyBase = PlayerBase.loadLazy(PlayerInfo.PLAYER_INFO_PATH, 12_500);
+        System.out.printf("Lazy base with %d players ready in %f s%n", lazyBase.getPlayerInfoList().size(), (System.nanoTime() - start) / 1e9);
+        List<PlayerInfo> playerInfoList = lazyBase.getPlayerInfoList();
+        for (int i = 0; i < 20; i++){
+            PlayerInfo playerInfo = playerInfoList.get(i < 10 ? i % 4 : i % 8);
+            start = System.nanoTime();
+            Player player = lazyBase.getPlayer(playerInfo.getNick(), playerInfo.getPlatform());
+            if (player == null){
+                System.out.printf("%s (%s): no game history%n", playerInfo.getNick(), playerInfo.getPlatform());
+                continue;
+            }
+            System.out.printf("%s (%s): KD Ratio %f (%f s)%n", playerInfo.getNick(), playerInfo.getPlatform(),
+                    player.getKDRatio(), (System.nanoTime() - start) / 1e9);
+        }
+        lazyBase.printCacheStats();
+    }
+}
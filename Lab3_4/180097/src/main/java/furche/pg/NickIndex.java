@@ -0,0 +1,111 @@
+package furche.pg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class NickIndex {
+    /**
+     * Index of players by nick used for fast lookups in PlayerBase.
+     * Nicks are not unique, the same nick can be used by players on different platforms, so every lookup
+     * works with all players with given nick and exact lookup of one player needs nick and platform.
+     * Exact lookups use hash map (O(1)), prefix lookups (autocomplete) use tree map of lower case nicks sorted
+     * alphabetically, so both adding player and prefix lookup cost O(log n) (plus number of returned players)
+     * no matter how adds and lookups alternate.
+     * Attributes:
+     * playersByNick : Map<String, List<Player>> players with given nick in order of adding
+     * playersByKey : TreeMap<String, List<Player>> players with given lower case nick in order of adding
+     * size : int number of indexed players
+     */
+
+    private final Map<String, List<Player>> playersByNick = new HashMap<>();
+    private final TreeMap<String, List<Player>> playersByKey = new TreeMap<>();
+    private int size = 0;
+
+    /**
+     * Function adding player to the index, players with already indexed nick are kept next to the previous ones
+     * @param player - Player added player
+     */
+    public synchronized void add(Player player){
+        this.playersByNick.computeIfAbsent(player.getNick(), nick -> new ArrayList<>(1)).add(player);
+        this.playersByKey.computeIfAbsent(toKey(player.getNick()), key -> new ArrayList<>(1)).add(player);
+        this.size++;
+    }
+
+    /**
+     * Function removing all players from the index
+     */
+    public synchronized void clear(){
+        this.playersByNick.clear();
+        this.playersByKey.clear();
+        this.size = 0;
+    }
+
+    /**
+     * Returns number of indexed players
+     * @return int number of players
+     */
+    public synchronized int size(){
+        return this.size;
+    }
+
+    /**
+     * Function finding player with given nick (case sensitive) playing on given platform
+     * @param nick - String nick of player
+     * @param platform - String name of platform (e.g. "PC", "Nintendo Switch")
+     * @return Player with given nick and platform or null if there is no such player
+     */
+    public synchronized Player get(String nick, String platform){
+        for (Player player : this.playersByNick.getOrDefault(nick, Collections.emptyList())){
+            if (player.getPlatform().equals(platform)){
+                return player;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Function finding all players with given nick (case sensitive)
+     * @param nick - String nick of players
+     * @return list of players in order of adding, empty if there is no such player
+     */
+    public synchronized List<Player> getAll(String nick){
+        List<Player> players = this.playersByNick.get(nick);
+        return players == null ? Collections.emptyList() : new ArrayList<>(players);
+    }
+
+    /**
+     * Function finding players whose nick starts with given prefix (case insensitive), players are returned
+     * in alphabetical order of nicks, players with the same nick in order of adding
+     * @param prefix - String beginning of nick
+     * @param limit - int maximal number of returned players
+     * @return list of found players
+     */
+    public synchronized List<Player> findByPrefix(String prefix, int limit){
+        if (limit <= 0){
+            return Collections.emptyList();
+        }
+        String key = toKey(prefix);
+        List<Player> found = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<String, List<Player>> entry : this.playersByKey.tailMap(key, true).entrySet()){
+            if (!entry.getKey().startsWith(key)){
+                break;
+            }
+            for (Player player : entry.getValue()){
+                if (found.size() == limit){
+                    return found;
+                }
+                found.add(player);
+            }
+        }
+        return found;
+    }
+
+    private static String toKey(String nick){
+        return nick.toLowerCase(Locale.ROOT);
+    }
+}
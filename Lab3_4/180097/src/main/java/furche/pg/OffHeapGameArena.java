@@ -0,0 +1,173 @@
+package furche.pg;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class OffHeapGameArena {
+    /**
+     * Off heap memory for game rows shared by all players using off heap storage (see GameColumns(GameMode, OffHeapGameArena)).
+     * Memory is allocated in segments (direct ByteBuffers or segments of memory mapped file) which are divided into
+     * blocks of BLOCK_RECORDS fixed width records, each block belongs to game columns of one player.
+     * Heap only holds the segment buffers and small tables of blocks of each player, so number of objects
+     * on heap (and GC pause time) doesn't grow with number of games.
+     * Memory of direct segments is released when arena becomes unreachable, mapped file is kept on disk.
+     * Blocks are never freed one by one: blocks of columns which became unreachable (e.g. discarded clones
+     * of off heap columns) stay allocated until the whole arena is released.
+     *
+     * Record layout (native byte order): int epochDay, float timeInGame, int kills, int assists, int damage,
+     *                                    byte heroId, byte result, byte rank, 1 byte padding
+     * Attributes:
+     * channel : FileChannel mapped file, null for direct memory
+     * segments : ByteBuffer[] allocated segments
+     * allocatedBlocks : int number of allocated blocks
+     */
+
+    static final int RECORD_BYTES = 24;
+    static final int EPOCH_DAY_OFFSET = 0;
+    static final int TIME_OFFSET = 4;
+    static final int KILLS_OFFSET = 8;
+    static final int ASSISTS_OFFSET = 12;
+    static final int DAMAGE_OFFSET = 16;
+    static final int HERO_ID_OFFSET = 20;
+    static final int RESULT_OFFSET = 21;
+    static final int RANK_OFFSET = 22;
+
+    static final int BLOCK_SHIFT = 8;
+    static final int BLOCK_RECORDS = 1 << BLOCK_SHIFT;
+    static final int BLOCK_BYTES = BLOCK_RECORDS * RECORD_BYTES;
+    private static final int BLOCKS_PER_SEGMENT = 4096; // 24 MB segments
+
+    private final FileChannel channel;
+    private ByteBuffer[] segments = new ByteBuffer[0];
+    private int allocatedBlocks = 0;
+
+    private OffHeapGameArena(FileChannel channel){
+        this.channel = channel;
+    }
+
+    /**
+     * Function creating arena allocating segments with ByteBuffer.allocateDirect
+     * @return OffHeapGameArena in direct memory
+     */
+    public static OffHeapGameArena direct(){
+        return new OffHeapGameArena(null);
+    }
+
+    /**
+     * Function creating arena in memory mapped file, existing file is overwritten.
+     * Pages of file can be evicted by operating system, so data set can be bigger than physical memory.
+     * @param path - String path to file
+     * @return OffHeapGameArena in mapped file
+     * @throws IOException when file can not be created
+     */
+    public static OffHeapGameArena mapped(String path) throws IOException {
+        return new OffHeapGameArena(FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Function allocating new block of records
+     * @return int number of block (see getSegment and getBlockOffset)
+     */
+    synchronized int allocateBlock(){
+        int block = this.allocatedBlocks;
+        int segment = block / BLOCKS_PER_SEGMENT;
+        if (segment == this.segments.length) {
+            this.segments = Arrays.copyOf(this.segments, segment + 1);
+            this.segments[segment] = this.allocateSegment(segment);
+        }
+        this.allocatedBlocks++;
+        return block;
+    }
+
+    /**
+     * Returns segment containing given block
+     * @param block - int number of block returned by allocateBlock
+     * @return ByteBuffer segment
+     */
+    synchronized ByteBuffer getSegment(int block){
+        return this.segments[block / BLOCKS_PER_SEGMENT];
+    }
+
+    /**
+     * Returns offset of given block in its segment
+     * @param block - int number of block returned by allocateBlock
+     * @return int offset in bytes
+     */
+    static int getBlockOffset(int block){
+        return (block % BLOCKS_PER_SEGMENT) * BLOCK_BYTES;
+    }
+
+    private ByteBuffer allocateSegment(int segment){
+        int size = BLOCKS_PER_SEGMENT * BLOCK_BYTES;
+        ByteBuffer buffer;
+        if (this.channel == null) {
+            buffer = ByteBuffer.allocateDirect(size);
+        } else {
+            try {
+                buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, (long) segment * size, size);
+            } catch (IOException e) {
+                throw new IllegalStateException("Can't map segment " + segment + " of game arena", e);
+            }
+        }
+        return buffer.order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Returns number of bytes allocated for game records
+     * @return long number of bytes in allocated blocks
+     */
+    public synchronized long getAllocatedBytes(){
+        return (long) this.allocatedBlocks * BLOCK_BYTES;
+    }
+
+    /**
+     * Function closing mapped file (mapped segments stay readable), no more blocks can be allocated afterwards.
+     * Does nothing for direct arena.
+     * @throws IOException when file can not be closed
+     */
+    public synchronized void close() throws IOException {
+        if (this.channel != null) {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Main function comparing GC activity of loading snapshot to heap and off heap storage.
+     * Use argument "heap", "direct" or "mapped" (each run should be done in separate JVM).
+     */
+    public static void main(String[] args) throws IOException {
+        String mode = args.length > 0 ? args[0] : "direct";
+        OffHeapGameArena arena = null;
+        if (mode.equals("direct")) {
+            arena = direct();
+        } else if (mode.equals("mapped")) {
+            arena = mapped("src/main/resources/player_base.arena");
+        }
+        PlayerBase playerBase = arena == null ? PlayerBase.loadSnapshot(PlayerBaseSnapshot.DEFAULT_SNAPSHOT_PATH)
+                : PlayerBase.loadSnapshot(PlayerBaseSnapshot.DEFAULT_SNAPSHOT_PATH, arena);
+        long start = System.nanoTime();
+        System.gc();
+        System.out.printf("Full GC after load: %f s%n", (System.nanoTime() - start) / 1e9);
+        long gcCount = 0;
+        long gcTime = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += gc.getCollectionCount();
+            gcTime += gc.getCollectionTime();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("Storage: %s, games: %d, heap used: %.2f MB, off heap: %.2f MB, GC count: %d, GC time: %d ms%n", mode,
+                playerBase.summarizeBattleRoyals().getKills().getCount(), (runtime.totalMemory() - runtime.freeMemory()) / 1e6,
+                arena == null ? 0 : arena.getAllocatedBytes() / 1e6, gcCount, gcTime);
+        if (arena != null) {
+            arena.close();
+        }
+    }
+}
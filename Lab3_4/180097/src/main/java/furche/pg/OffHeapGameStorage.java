@@ -0,0 +1,131 @@
+package furche.pg;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static furche.pg.OffHeapGameArena.ASSISTS_OFFSET;
+import static furche.pg.OffHeapGameArena.BLOCK_RECORDS;
+import static furche.pg.OffHeapGameArena.BLOCK_SHIFT;
+import static furche.pg.OffHeapGameArena.DAMAGE_OFFSET;
+import static furche.pg.OffHeapGameArena.EPOCH_DAY_OFFSET;
+import static furche.pg.OffHeapGameArena.HERO_ID_OFFSET;
+import static furche.pg.OffHeapGameArena.KILLS_OFFSET;
+import static furche.pg.OffHeapGameArena.RANK_OFFSET;
+import static furche.pg.OffHeapGameArena.RECORD_BYTES;
+import static furche.pg.OffHeapGameArena.RESULT_OFFSET;
+import static furche.pg.OffHeapGameArena.TIME_OFFSET;
+import static furche.pg.OffHeapGameArena.getBlockOffset;
+
+class OffHeapGameStorage implements GameStorage {
+    /**
+     * Game storage keeping rows as fixed width records in blocks of OffHeapGameArena.
+     * Row i is stored in block i / BLOCK_RECORDS, heap only holds buffer and offset of every block of storage.
+     * Growing allocates only missing blocks, old storage keeps its (shorter) tables, so snapshots using it
+     * are not affected.
+     * Attributes:
+     * arena : OffHeapGameArena arena blocks are allocated in
+     * blockBuffers : ByteBuffer[] segment of every block
+     * blockOffsets : int[] offset of every block in its segment
+     */
+
+    private final OffHeapGameArena arena;
+    private final ByteBuffer[] blockBuffers;
+    private final int[] blockOffsets;
+
+    OffHeapGameStorage(OffHeapGameArena arena, int capacity){
+        this(arena, new ByteBuffer[0], new int[0], capacity);
+    }
+
+    private OffHeapGameStorage(OffHeapGameArena arena, ByteBuffer[] blockBuffers, int[] blockOffsets, int capacity){
+        int blocks = (capacity + BLOCK_RECORDS - 1) >>> BLOCK_SHIFT;
+        int existing = blockBuffers.length;
+        this.arena = arena;
+        this.blockBuffers = Arrays.copyOf(blockBuffers, Math.max(blocks, existing));
+        this.blockOffsets = Arrays.copyOf(blockOffsets, Math.max(blocks, existing));
+        for (int b = existing; b < blocks; b++) {
+            int block = arena.allocateBlock();
+            this.blockBuffers[b] = arena.getSegment(block);
+            this.blockOffsets[b] = getBlockOffset(block);
+        }
+    }
+
+    @Override
+    public int capacity(){
+        return this.blockBuffers.length << BLOCK_SHIFT;
+    }
+
+    @Override
+    public GameStorage withCapacity(int capacity){
+        if (capacity <= this.capacity()) {
+            return this;
+        }
+        return new OffHeapGameStorage(this.arena, this.blockBuffers, this.blockOffsets, capacity);
+    }
+
+    @Override
+    public GameStorage empty(int capacity){
+        return new OffHeapGameStorage(this.arena, capacity);
+    }
+
+    private ByteBuffer buffer(int i){
+        return this.blockBuffers[i >>> BLOCK_SHIFT];
+    }
+
+    private int offset(int i){
+        return this.blockOffsets[i >>> BLOCK_SHIFT] + (i & (BLOCK_RECORDS - 1)) * RECORD_BYTES;
+    }
+
+    @Override
+    public void set(int i, int epochDay, float timeInGame, int heroId, int kills, int assists, int damage, int result, int rank){
+        ByteBuffer buffer = this.buffer(i);
+        int offset = this.offset(i);
+        buffer.putInt(offset + EPOCH_DAY_OFFSET, epochDay);
+        buffer.putFloat(offset + TIME_OFFSET, timeInGame);
+        buffer.putInt(offset + KILLS_OFFSET, kills);
+        buffer.putInt(offset + ASSISTS_OFFSET, assists);
+        buffer.putInt(offset + DAMAGE_OFFSET, damage);
+        buffer.put(offset + HERO_ID_OFFSET, (byte) heroId);
+        buffer.put(offset + RESULT_OFFSET, (byte) result);
+        buffer.put(offset + RANK_OFFSET, (byte) rank);
+    }
+
+    @Override
+    public int getEpochDay(int i){
+        return this.buffer(i).getInt(this.offset(i) + EPOCH_DAY_OFFSET);
+    }
+
+    @Override
+    public float getTimeInGame(int i){
+        return this.buffer(i).getFloat(this.offset(i) + TIME_OFFSET);
+    }
+
+    @Override
+    public int getHeroId(int i){
+        return this.buffer(i).get(this.offset(i) + HERO_ID_OFFSET);
+    }
+
+    @Override
+    public int getKills(int i){
+        return this.buffer(i).getInt(this.offset(i) + KILLS_OFFSET);
+    }
+
+    @Override
+    public int getAssists(int i){
+        return this.buffer(i).getInt(this.offset(i) + ASSISTS_OFFSET);
+    }
+
+    @Override
+    public int getDamage(int i){
+        return this.buffer(i).getInt(this.offset(i) + DAMAGE_OFFSET);
+    }
+
+    @Override
+    public int getResult(int i){
+        return this.buffer(i).get(this.offset(i) + RESULT_OFFSET);
+    }
+
+    @Override
+    public int getRank(int i){
+        return this.buffer(i).get(this.offset(i) + RANK_OFFSET);
+    }
+}
@@ -0,0 +1,47 @@
+package furche.pg;
+
+/**
+ * Enum representing platforms Apex Legends is played on.
+ * name : String name of platform used in player_info.txt
+ */
+public enum Platform {
+    PC("PC"),
+    PLAYSTATION("Playstation"),
+    XBOX("Xbox"),
+    NINTENDO_SWITCH("Nintendo Switch");
+
+    private final String name;
+
+    Platform(String name){
+        this.name = name;
+    }
+
+    /**
+     * Returns name of platform used in player_info.txt
+     * @return String name of platform
+     */
+    public String getName(){
+        return this.name;
+    }
+
+    /**
+     * Function returning platform with given name
+     * @param name - String name of platform (e.g. "PC", "Nintendo Switch")
+     * @return Platform platform
+     * @throws IllegalArgumentException when there is no platform with given name
+     */
+    public static Platform fromName(String name){
+        switch (name){
+            case "PC":
+                return PC;
+            case "Playstation":
+                return PLAYSTATION;
+            case "Xbox":
+                return XBOX;
+            case "Nintendo Switch":
+                return NINTENDO_SWITCH;
+            default:
+                throw new IllegalArgumentException("Unknown platform: " + name);
+        }
+    }
+}
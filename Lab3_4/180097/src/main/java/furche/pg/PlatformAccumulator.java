@@ -0,0 +1,95 @@
+package furche.pg;
+
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+public class PlatformAccumulator {
+    /**
+     * Lock free accumulator of values (average game scores of players) of one platform.
+     * All fields are striped (LongAdder, DoubleAdder, DoubleAccumulator), so many threads can add values
+     * at the same time without contention. Values are combined only when results are read.
+     * Attributes:
+     * count : number of added values
+     * sum : sum of added values
+     * sumOfSquares : sum of squares of added values (used for variance)
+     * min : minimal added value
+     * max : maximal added value
+     */
+
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+    private final DoubleAdder sumOfSquares = new DoubleAdder();
+    private final DoubleAccumulator min = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+    private final DoubleAccumulator max = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+
+    /**
+     * Function adding value, can be called by many threads at once
+     * @param value - double added value
+     */
+    public void add(double value){
+        this.count.increment();
+        this.sum.add(value);
+        this.sumOfSquares.add(value * value);
+        this.min.accumulate(value);
+        this.max.accumulate(value);
+    }
+
+    /**
+     * Returns number of added values
+     * @return long count
+     */
+    public long getCount(){
+        return this.count.sum();
+    }
+
+    /**
+     * Returns sum of added values
+     * @return double sum
+     */
+    public double getSum(){
+        return this.sum.sum();
+    }
+
+    /**
+     * Returns average of added values
+     * @return double average, NaN if no values were added
+     */
+    public double getAverage(){
+        return this.sum.sum() / this.count.sum();
+    }
+
+    /**
+     * Returns (population) variance of added values
+     * @return double variance, NaN if no values were added
+     */
+    public double getVariance(){
+        long count = this.count.sum();
+        double mean = this.sum.sum() / count;
+        return Math.max(0, this.sumOfSquares.sum() / count - mean * mean);
+    }
+
+    /**
+     * Returns standard deviation of added values
+     * @return double standard deviation, NaN if no values were added
+     */
+    public double getStd(){
+        return Math.sqrt(this.getVariance());
+    }
+
+    /**
+     * Returns minimal added value
+     * @return double min, positive infinity if no values were added
+     */
+    public double getMin(){
+        return this.min.get();
+    }
+
+    /**
+     * Returns maximal added value
+     * @return double max, negative infinity if no values were added
+     */
+    public double getMax(){
+        return this.max.get();
+    }
+}
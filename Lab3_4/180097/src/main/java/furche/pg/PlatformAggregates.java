@@ -0,0 +1,50 @@
+package furche.pg;
+
+public class PlatformAggregates {
+    /**
+     * Class storing one PlatformAccumulator for every Platform, accumulators are indexed by ordinal of platform,
+     * so no hashing or locking is needed when threads publish values.
+     */
+
+    private final PlatformAccumulator[] accumulators;
+
+    /**
+     * Constructor of PlatformAggregates with empty accumulator for each platform
+     */
+    public PlatformAggregates(){
+        this.accumulators = new PlatformAccumulator[Platform.values().length];
+        for (int i = 0; i < this.accumulators.length; i++){
+            this.accumulators[i] = new PlatformAccumulator();
+        }
+    }
+
+    /**
+     * Function adding value to accumulator of given platform, can be called by many threads at once
+     * @param platform - Platform platform
+     * @param value - double added value
+     */
+    public void add(Platform platform, double value){
+        this.accumulators[platform.ordinal()].add(value);
+    }
+
+    /**
+     * Returns accumulator of given platform
+     * @param platform - Platform platform
+     * @return PlatformAccumulator accumulator
+     */
+    public PlatformAccumulator get(Platform platform){
+        return this.accumulators[platform.ordinal()];
+    }
+
+    /**
+     * Returns number of values added for all platforms
+     * @return long count
+     */
+    public long getTotalCount(){
+        long total = 0;
+        for (PlatformAccumulator accumulator : this.accumulators){
+            total += accumulator.getCount();
+        }
+        return total;
+    }
+}
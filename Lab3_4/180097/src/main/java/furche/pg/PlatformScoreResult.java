@@ -0,0 +1,82 @@
+package furche.pg;
+
+public class PlatformScoreResult {
+    /**
+     * Class storing result of calculating average normalized game scores of players for each platform.
+     * Partial results (e.g. computed by separate PlatformScoreTasks) are combined with merge.
+     * Attributes:
+     * platformScores : StatSummary[] summary of average normalized game scores of players, indexed by Platform ordinal
+     */
+
+    private final StatSummary[] platformScores;
+
+    /**
+     * Constructor of empty PlatformScoreResult
+     */
+    public PlatformScoreResult(){
+        this.platformScores = new StatSummary[Platform.values().length];
+        for (int i = 0; i < this.platformScores.length; i++){
+            this.platformScores[i] = new StatSummary();
+        }
+    }
+
+    /**
+     * Function adding average normalized game score of one player
+     * @param platform - Platform platform of player
+     * @param playerAvgNormalizedGameScore - double average normalized game score of player
+     */
+    public void addPlayerScore(Platform platform, double playerAvgNormalizedGameScore){
+        this.platformScores[platform.ordinal()].add(playerAvgNormalizedGameScore);
+    }
+
+    /**
+     * Function merging other result into this one
+     * @param other - PlatformScoreResult partial result
+     * @return this result
+     */
+    public PlatformScoreResult merge(PlatformScoreResult other){
+        for (int i = 0; i < this.platformScores.length; i++){
+            this.platformScores[i].merge(other.platformScores[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Returns summary (mean, variance, min, max) of players average normalized game scores for given platform
+     * @param platform - Platform platform
+     * @return StatSummary of game scores
+     */
+    public StatSummary getScoreSummary(Platform platform){
+        return this.platformScores[platform.ordinal()];
+    }
+
+    /**
+     * Returns average of players average normalized game scores for given platform
+     * @param platform - Platform platform
+     * @return double average game score, NaN if there are no players on the platform
+     */
+    public double getAverageScore(Platform platform){
+        return this.platformScores[platform.ordinal()].getMean();
+    }
+
+    /**
+     * Returns number of players on given platform
+     * @param platform - Platform platform
+     * @return int number of players
+     */
+    public int getPlayerCount(Platform platform){
+        return (int) this.platformScores[platform.ordinal()].getCount();
+    }
+
+    /**
+     * Returns number of players on all platforms
+     * @return int number of players
+     */
+    public int getTotalPlayerCount(){
+        int total = 0;
+        for (StatSummary summary : this.platformScores){
+            total += summary.getCount();
+        }
+        return total;
+    }
+}
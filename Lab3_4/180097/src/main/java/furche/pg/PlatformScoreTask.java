@@ -0,0 +1,97 @@
+package furche.pg;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+public class PlatformScoreTask extends RecursiveTask<PlatformScoreResult> {
+    /**
+     * Fork/join task calculating average normalized game score of players from given range of player list
+     * and grouping them by platform.
+     * Range is split in the point dividing its Battle Royal games in half (not players), so players with long
+     * histories don't make one subtask much slower than the others. Results of subtasks are merged.
+     * Attributes:
+     * players : list of players
+     * gameCountPrefix : int[] gameCountPrefix[i] - number of Battle Royal games of players [0;i)
+     * globalScoreStatistics : bounds of global not normalized game scores
+     * start : int first player of range (inclusive)
+     * end : int last player of range (exclusive)
+     * threshold : long maximal number of games computed without splitting
+     */
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Player> players;
+    private final int[] gameCountPrefix;
+    private final GlobalScoreStatistics globalScoreStatistics;
+    private final int start;
+    private final int end;
+    private final long threshold;
+
+    /**
+     * Constructor of task computing all players
+     * @param players - list of players
+     * @param globalScoreStatistics - GlobalScoreStatistics bounds of global not normalized game scores
+     * @param parallelism - int number of threads used for computing (used for choosing size of subtasks)
+     */
+    public PlatformScoreTask(List<Player> players, GlobalScoreStatistics globalScoreStatistics, int parallelism){
+        this.players = players;
+        this.gameCountPrefix = new int[players.size() + 1];
+        for (int i = 0; i < players.size(); i++){
+            this.gameCountPrefix[i + 1] = this.gameCountPrefix[i] + players.get(i).getGameHistory().getBattleRoyalColumns().size();
+        }
+        this.globalScoreStatistics = globalScoreStatistics;
+        this.start = 0;
+        this.end = players.size();
+        this.threshold = Math.max(1, this.gameCountPrefix[this.end] / (parallelism * 8L)); // few tasks per thread for stealing
+    }
+
+    private PlatformScoreTask(PlatformScoreTask parent, int start, int end){
+        this.players = parent.players;
+        this.gameCountPrefix = parent.gameCountPrefix;
+        this.globalScoreStatistics = parent.globalScoreStatistics;
+        this.start = start;
+        this.end = end;
+        this.threshold = parent.threshold;
+    }
+
+    @Override
+    protected PlatformScoreResult compute(){
+        if (this.end - this.start <= 1 || this.gameCountPrefix[this.end] - this.gameCountPrefix[this.start] <= this.threshold){
+            return this.computeDirectly();
+        }
+        int split = this.findSplit();
+        PlatformScoreTask left = new PlatformScoreTask(this, this.start, split);
+        PlatformScoreTask right = new PlatformScoreTask(this, split, this.end);
+        left.fork();
+        PlatformScoreResult rightResult = right.compute();
+        return left.join().merge(rightResult);
+    }
+
+    /**
+     * Function finding index of player splitting games of range in half (binary search in gameCountPrefix)
+     * @return int index in range (start;end)
+     */
+    private int findSplit(){
+        int middleGames = (this.gameCountPrefix[this.start] + this.gameCountPrefix[this.end]) >>> 1;
+        int low = this.start + 1;
+        int high = this.end - 1;
+        while (low < high){
+            int middle = (low + high) >>> 1;
+            if (this.gameCountPrefix[middle] < middleGames){
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private PlatformScoreResult computeDirectly(){
+        PlatformScoreResult result = new PlatformScoreResult();
+        for (Player player : this.players.subList(this.start, this.end)){
+            double playerAvgNormalizedGameScore = player.getGameHistory().calcAvgNormalizedBattleRoyalScore(this.globalScoreStatistics);
+            result.addPlayerScore(player.getPlatformType(), playerAvgNormalizedGameScore);
+        }
+        return result;
+    }
+}
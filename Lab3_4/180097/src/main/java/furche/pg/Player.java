@@ -12,14 +12,14 @@ public class Player {
      * Class describing player of Apex Legends
      * Attributes:
      * nick : String player nick
-     * platform : String platform players plays on (e.g."PC", "Playstation" etc.)
+     * platform : Platform platform players plays on, encoded at creation from its name (e.g."PC", "Playstation" etc.)
      * gameHistory : object of class GameHistory storing players game history
      * rank : String storing game rank of player (e.g. "bronze", "silver")
      */
 
     //example of hermetization
     private String nick;
-    private String platform;
+    private Platform platform;
     private final GameHistory gameHistory;
     private PlayerRank rank;
 
@@ -32,7 +32,7 @@ public class Player {
 
     public Player(String nick, String platform){
         this.nick = nick;
-        this.platform = platform;
+        this.platform = Platform.fromName(platform);
         this.gameHistory = new GameHistory();
         this.rank = PlayerRank.BRONZE;
     }
@@ -45,13 +45,50 @@ public class Player {
      */
 
     public Player(String nick, String platform, PlayerRank rank){  // constructor overloading
+        this(nick, platform, rank, new GameHistory());
+    }
+
+    /**
+     * Constructor of Player with provided game history (e.g. empty history storing games off heap)
+     *
+     * @param nick - String nick of player
+     * @param platform - String platform player plays on
+     * @param rank - PlayerRank rank of player
+     * @param gameHistory - GameHistory history of player
+     */
+
+    public Player(String nick, String platform, PlayerRank rank, GameHistory gameHistory){
         this.nick = nick;
-        this.platform = platform;
-        this.gameHistory = new GameHistory();
+        this.platform = Platform.fromName(platform);
+        this.gameHistory = gameHistory;
         this.rank = rank;
     }
 
 
+    /**
+     * Returns platform of player as Platform enum
+     * @return Platform platform
+     */
+    public Platform getPlatformType(){
+        return this.platform;
+    }
+
+    /**
+     * Returns name of platform of player (e.g. "PC", "Playstation")
+     * @return String name of platform
+     */
+    public String getPlatform(){
+        return this.platform.getName();
+    }
+
+    /**
+     * Function setting platform of player by its name
+     * @param platform - String name of platform (e.g. "PC", "Playstation")
+     */
+    public void setPlatform(String platform){
+        this.platform = Platform.fromName(platform);
+    }
+
     /**
      * Addition of Battle Royal game
      * @param date - String date of the game
@@ -64,8 +101,38 @@ public class Player {
      */
 
     public void addGameToHistory(String date, float timeInGame, String hero, int kills, int assists, int damage, int position){
-        Game game = new BattleRoyal(date, timeInGame, hero, kills, assists, damage, position);
-        this.gameHistory.addGameToHistory(game);
+        this.addGameToHistory(GameDate.parseEpochDay(date), timeInGame, hero, kills, assists, damage, position);
+    }
+
+    /**
+     * Addition of Battle Royal game with date given as epoch day (used when loading game history files)
+     * @param epochDay - int date of the game as number of days since 1-1-1970
+     * @param timeInGame - float time spent in game in minutes
+     * @param hero - String name of hero used in game
+     * @param kills - int number of kills scored
+     * @param assists - int number of assists scored
+     * @param damage - int number of damage dealt
+     * @param position - int position on which player finished the game, in the interval [1;20]
+     */
+
+    public void addGameToHistory(int epochDay, float timeInGame, String hero, int kills, int assists, int damage, int position){
+        this.addGameToHistory(epochDay, timeInGame, HeroDictionary.getHeroId(hero), kills, assists, damage, position);
+    }
+
+    /**
+     * Addition of Battle Royal game with date given as epoch day and hero as id in HeroDictionary
+     * (used when loading game history files, see GameRowConsumer)
+     * @param epochDay - int date of the game as number of days since 1-1-1970
+     * @param timeInGame - float time spent in game in minutes
+     * @param heroId - int id of hero used in game in HeroDictionary
+     * @param kills - int number of kills scored
+     * @param assists - int number of assists scored
+     * @param damage - int number of damage dealt
+     * @param position - int position on which player finished the game, in the interval [1;20]
+     */
+
+    public void addGameToHistory(int epochDay, float timeInGame, int heroId, int kills, int assists, int damage, int position){
+        this.gameHistory.addBattleRoyal(epochDay, timeInGame, heroId, kills, assists, damage, position, null);
     }
 
     /**
@@ -80,8 +147,7 @@ public class Player {
      */
 
     public void addGameToHistory(String date, float timeInGame, String hero, int kills, int assists, int damage, boolean hasWon){ // method overloading
-        Game game = new Arena(date, timeInGame, hero, kills, assists, damage, hasWon);
-        this.gameHistory.addGameToHistory(game);
+        this.gameHistory.addArena(GameDate.parseEpochDay(date), timeInGame, HeroDictionary.getHeroId(hero), kills, assists, damage, hasWon);
     }
     /**
      * Addition of Ranked Battle Royal game
@@ -90,8 +156,7 @@ public class Player {
 
 
     public void addRankedGameToHistory(String date, float timeInGame, String hero, int kills, int assists, int damage, int position){
-        Game game = new RankedBattleRoyal(date, timeInGame, hero, kills, assists, damage, position, this.rank);
-        this.gameHistory.addGameToHistory(game);
+        this.gameHistory.addBattleRoyal(GameDate.parseEpochDay(date), timeInGame, HeroDictionary.getHeroId(hero), kills, assists, damage, position, this.rank);
     }
 
     /**
@@ -107,8 +172,8 @@ public class Player {
      * Function showing as String players number of played games, number of played battle royal games and arena games.
      */
     public void showNumberOfGamesPlayed(){
-        int battleRoyalsPlayed = this.gameHistory.getHistoryStats().getOrDefault("battleRoyalsPlayed", 0);
-        int arenasPlayed = this.gameHistory.getHistoryStats().getOrDefault("arenasPlayed", 0);
+        int battleRoyalsPlayed = this.gameHistory.getHistoryCounters().get(HistoryCounter.BATTLE_ROYALS_PLAYED);
+        int arenasPlayed = this.gameHistory.getHistoryCounters().get(HistoryCounter.ARENAS_PLAYED);
         System.out.printf("Games played: %d Battle Royal: %d Arena: %d%n", battleRoyalsPlayed + arenasPlayed, battleRoyalsPlayed, arenasPlayed);
     }
 
@@ -116,13 +181,13 @@ public class Player {
      * Function prints players battle royal stats as String
      */
     public void showBattleRoyalStats(){
-        System.out.printf("Player: %s Platform: %s Battle Royal Stats : %s%n", this.nick, this.platform, this.gameHistory.getPlayerBattleRoyalStats());
+        System.out.printf("Player: %s Platform: %s Battle Royal Stats : %s%n", this.nick, this.platform.getName(), this.gameHistory.getPlayerBattleRoyalStats());
     }
     /**
      * Function prints players arena stats as String
      */
     public void showArenaStats(){
-        System.out.printf("furche.pg.Player: %s Platform%s Arena Stats %s%n", this.nick, this.platform, this.gameHistory.getPlayerArenaStats());
+        System.out.printf("furche.pg.Player: %s Platform%s Arena Stats %s%n", this.nick, this.platform.getName(), this.gameHistory.getPlayerArenaStats());
     }
 
     /**
@@ -144,7 +209,16 @@ public class Player {
     }
 
     /**
-     * Returns deep clone of players GameHistory objext
+     * Returns read only snapshot of players GameHistory, created in O(1) without copying games
+     * @return read only snapshot of gameHistory
+     */
+    public GameHistory getGameHistorySnapshot(){
+        return this.gameHistory.snapshot();
+    }
+
+    /**
+     * Returns deep clone of players GameHistory objext, should be used only when independent writable copy is needed
+     * (getGameHistorySnapshot is enough for reading)
      * @return deep clone of gameHistory
      */
     public GameHistory getGameHistoryClone(){
@@ -222,11 +296,29 @@ public class Player {
         System.out.printf("Orignal Battle Royal First Entry == Clone Battle Royal First Entry: %b\n", this.gameHistory.getPlayedBattleRoyalsList().get(0) == deepCopyGameHistory.getPlayedBattleRoyalsList().get(0));
         Game game = new BattleRoyal("11-12-2001", 99.99f,"Ash", 99, 99, 9999, 1);
         deepCopyGameHistory.addGameToHistory(game);
-        deepCopyGameHistory.getHistoryStats().put("TEST", 1);
+        deepCopyGameHistory.getHistoryCounters().increment(HistoryCounter.ARENAS_WON);
         System.out.println(deepCopyGameHistory.getHistoryStats());
         System.out.println(this.gameHistory.getHistoryStats());
     }
 
+    /**
+     * Function testing that snapshot of game history is not affected by games added after it was taken.
+     *
+     */
+
+    public void testSnapshot(){
+        GameHistory snapshot = this.getGameHistorySnapshot();
+        int snapshotGames = snapshot.getNumberOfGames();
+        this.addGameToHistory("11-12-2001", 99.99f, "Ash", 99, 99, 9999, 1);
+        System.out.printf("Games in snapshot before: %d after: %d, games in history: %d\n", snapshotGames, snapshot.getNumberOfGames(), this.gameHistory.getNumberOfGames());
+        System.out.printf("Snapshot read only: %b\n", snapshot.isReadOnly());
+        try {
+            snapshot.addGameToHistory(new BattleRoyal("11-12-2001", 99.99f,"Ash", 99, 99, 9999, 1));
+        } catch (UnsupportedOperationException e) {
+            System.out.printf("Adding game to snapshot failed: %s\n", e.getMessage());
+        }
+    }
+
     /**
      * Main function for testing purposes.
      */
@@ -235,6 +327,7 @@ public class Player {
         p.generateGameData();
         //p.playerApp();
         p.testDeepCopy();
+        p.testSnapshot();
 
     }
 }
@@ -1,15 +1,21 @@
 package furche.pg;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 @Getter
@@ -21,10 +27,16 @@ public class PlayerBase {
      * Attributes:
      * playerBaseList : list including furche.pg.Player objects
      * numberOfPlayers : int storing number of players in the base
+     * nickIndex : NickIndex index of players by nick, updated by addPlayer and setPlayerBaseList
+     *             (players added directly to playerBaseList are not indexed)
+     * listeners : List<PlayerBaseListener> listeners notified about players added by addPlayer
      *
      */
 
     private List<Player> playerBaseList;
+    private final NickIndex nickIndex = new NickIndex();
+    @Getter(AccessLevel.NONE)
+    private final List<PlayerBaseListener> listeners = new CopyOnWriteArrayList<>();
 
     /**
      * Constructor of PlayerBase class.
@@ -32,108 +44,320 @@ public class PlayerBase {
      * Based on data from player_info new players are created using createPlayerAndReadGameHistory
      */
     public PlayerBase(){
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor of PlayerBass class with additional parameter limiting amount of input data.
+     * @param playerCap - int amount of players in base
+     * @throws UncheckedIOException when game history file of any player can not be read
+     */
+    public PlayerBase(int playerCap){
         this.playerBaseList = new ArrayList<>();
-        String pathToPlayerInfo = "src/main/resources/player_info.txt";
-        try (BufferedReader br = new BufferedReader(new FileReader(pathToPlayerInfo))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] values = line.split(",");
-                PlayerRank rank;
-                switch(values[2]){
-                    case "Silver":
-                        rank = PlayerRank.SILVER;
-                        break;
-                    case "Gold":
-                        rank = PlayerRank.GOLD;
-                        break;
-                    case "Platinum":
-                        rank = PlayerRank.PLATINUM;
-                        break;
-                    default:
-                        rank = PlayerRank.BRONZE;
-                        break;
-                }
-                Path path = Paths.get("src/main/resources/game_history_files/"+values[0]+".csv");
-                if(path.toFile().isFile()){
-                    this.addPlayer(createPlayerAndReadGameHistory(values[0], values[1], rank));
-                }
+        long start = System.nanoTime();
+        long bytesRead = 0;
+        for (PlayerInfo playerInfo : PlayerInfo.readPlayerInfo(PlayerInfo.PLAYER_INFO_PATH, playerCap)){
+            File gameHistoryFile = new File(playerInfo.getGameHistoryPath());
+            if(gameHistoryFile.isFile()){
+                bytesRead += gameHistoryFile.length();
+                this.addPlayer(createPlayerAndReadGameHistory(playerInfo));
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+        this.printLoadThroughput(System.nanoTime() - start, bytesRead);
     }
 
     /**
-     * Constructor of PlayerBass class with additional parameter limiting amount of input data.
+     * Constructor of PlayerBase class loading game histories in parallel.
+     * Each players csv file is read and parsed by a separate task, players are still added to the base
+     * in the order of player_info file.
      * @param playerCap - int amount of players in base
+     * @param numOfThreads - int number of threads used for loading
+     * @throws IllegalStateException when loading of any player failed
      */
-    public PlayerBase(int playerCap){
+    public PlayerBase(int playerCap, int numOfThreads){
+        ExecutorService pool = Executors.newFixedThreadPool(numOfThreads);
+        try {
+            this.playerBaseList = new ArrayList<>();
+            this.loadPlayersParallel(playerCap, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Constructor of PlayerBase class loading game histories in parallel on pool provided by caller.
+     * Pool is not shut down after loading.
+     * @param playerCap - int amount of players in base
+     * @param pool - ExecutorService pool used for loading
+     * @throws IllegalStateException when loading of any player failed
+     */
+    public PlayerBase(int playerCap, ExecutorService pool){
         this.playerBaseList = new ArrayList<>();
-        String pathToPlayerInfo = "src/main/resources/player_info.txt";
-        try (BufferedReader br = new BufferedReader(new FileReader(pathToPlayerInfo))) {
-            String line;
-            int i = 0;
-            while ((line = br.readLine()) != null && i < playerCap) {
-                i++;
-                String[] values = line.split(",");
-                PlayerRank rank;
-                switch(values[2]){
-                    case "Silver":
-                        rank = PlayerRank.SILVER;
-                        break;
-                    case "Gold":
-                        rank = PlayerRank.GOLD;
-                        break;
-                    case "Platinum":
-                        rank = PlayerRank.PLATINUM;
-                        break;
-                    default:
-                        rank = PlayerRank.BRONZE;
-                        break;
-                }
-                Path path = Paths.get("src/main/resources/game_history_files/"+values[0]+".csv");
-                if(path.toFile().isFile()){
-                    this.addPlayer(createPlayerAndReadGameHistory(values[0], values[1], rank));
-                }
+        this.loadPlayersParallel(playerCap, pool);
+    }
+
+    /**
+     * Constructor of PlayerBase class from already created players.
+     * @param playerBaseList - list of players in base
+     */
+    public PlayerBase(List<Player> playerBaseList){
+        this.setPlayerBaseList(playerBaseList);
+    }
+
+    /**
+     * Function replacing list of players in base and rebuilding nick index
+     * @param playerBaseList - list of players in base
+     */
+    public void setPlayerBaseList(List<Player> playerBaseList){
+        this.playerBaseList = playerBaseList;
+        this.nickIndex.clear();
+        for (Player player : playerBaseList){
+            this.nickIndex.add(player);
+        }
+    }
+
+    /**
+     * Function creating PlayerBase from binary snapshot file (see PlayerBaseSnapshot).
+     * @param snapshotPath - String path to snapshot file
+     * @return PlayerBase with all players stored in snapshot
+     * @throws IOException when snapshot can not be read
+     */
+    public static PlayerBase loadSnapshot(String snapshotPath) throws IOException {
+        return loadSnapshot(snapshotPath, null);
+    }
+
+    /**
+     * Function creating PlayerBase from binary snapshot file, games are stored off heap in given arena
+     * and only small handles of players stay on heap.
+     * @param snapshotPath - String path to snapshot file
+     * @param arena - OffHeapGameArena arena storing games, null for storing games on heap
+     * @return PlayerBase with all players stored in snapshot
+     * @throws IOException when snapshot can not be read
+     */
+    public static PlayerBase loadSnapshot(String snapshotPath, OffHeapGameArena arena) throws IOException {
+        long start = System.nanoTime();
+        PlayerBase playerBase = new PlayerBase(PlayerBaseSnapshot.readPlayers(snapshotPath, arena));
+        playerBase.printLoadThroughput(System.nanoTime() - start, new File(snapshotPath).length());
+        return playerBase;
+    }
+
+    /**
+     * Function creating PlayerBase from game history files listed in dataset manifest (see DatasetManifest).
+     * Storage of every player is allocated for the number of games in manifest and files are opened without checking
+     * they exist. Loading stops on first file that is missing or doesn't match manifest.
+     * @param manifestPath - String path to manifest file
+     * @param verifyChecksums - boolean true if CRC32 of every file should be checked
+     * @return PlayerBase with all players listed in manifest
+     * @throws IOException when manifest or any game history file can not be read or doesn't match manifest
+     */
+    public static PlayerBase loadManifest(String manifestPath, boolean verifyChecksums) throws IOException {
+        return loadManifest(manifestPath, PlayerInfo.GAME_HISTORY_DIR, verifyChecksums);
+    }
+
+    /**
+     * Function creating PlayerBase from game history files in given directory listed in dataset manifest
+     * (see DatasetManifest).
+     * @param manifestPath - String path to manifest file
+     * @param gameHistoryDir - String directory with game history files (ending with separator)
+     * @param verifyChecksums - boolean true if CRC32 of every file should be checked
+     * @return PlayerBase with all players listed in manifest
+     * @throws IOException when manifest or any game history file can not be read or doesn't match manifest
+     */
+    public static PlayerBase loadManifest(String manifestPath, String gameHistoryDir, boolean verifyChecksums) throws IOException {
+        long start = System.nanoTime();
+        DatasetManifest manifest = DatasetManifest.read(manifestPath, gameHistoryDir);
+        List<Player> players = new ArrayList<>(manifest.getEntries().size());
+        long bytesRead = 0;
+        for (DatasetManifest.Entry entry : manifest.getEntries()){
+            PlayerInfo playerInfo = entry.getPlayerInfo();
+            Player player = new Player(playerInfo.getNick(), playerInfo.getPlatform(), playerInfo.getRank());
+            player.getGameHistory().getBattleRoyalColumns().ensureCapacity(entry.getRows());
+            DatasetManifest.readGameHistory(entry, player::addGameToHistory, verifyChecksums);
+            players.add(player);
+            bytesRead += entry.getLength();
+        }
+        PlayerBase playerBase = new PlayerBase(players);
+        playerBase.printLoadThroughput(System.nanoTime() - start, bytesRead);
+        return playerBase;
+    }
+
+    /**
+     * Function creating PlayerBase from consolidated data file by one sequential scan (see ConsolidatedHistoryStore).
+     * @param dataPath - String path to data file
+     * @param indexPath - String path to index file
+     * @return PlayerBase with all players stored in data file
+     * @throws IOException when data file or index can not be read
+     */
+    public static PlayerBase loadConsolidated(String dataPath, String indexPath) throws IOException {
+        long start = System.nanoTime();
+        PlayerBase playerBase;
+        try (ConsolidatedHistoryStore store = new ConsolidatedHistoryStore(dataPath, indexPath)) {
+            playerBase = new PlayerBase(store.readAllPlayers());
+        }
+        playerBase.printLoadThroughput(System.nanoTime() - start, new File(dataPath).length());
+        return playerBase;
+    }
+
+    /**
+     * Function creating player base which reads only player_info file up front and loads game histories of players
+     * on demand into cache bounded by number of games (see LazyPlayerBase). Used when data set doesn't fit in memory
+     * or only few players are accessed.
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param maxLoadedGames - long maximal number of games kept in memory
+     * @return LazyPlayerBase base loading players on first access
+     */
+    public static LazyPlayerBase loadLazy(String pathToPlayerInfo, long maxLoadedGames){
+        return loadLazy(pathToPlayerInfo, PlayerInfo.GAME_HISTORY_DIR, maxLoadedGames);
+    }
+
+    /**
+     * Function creating player base which loads game histories of players from given directory on demand
+     * (see LazyPlayerBase).
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param gameHistoryDir - String directory with game history files (ending with separator)
+     * @param maxLoadedGames - long maximal number of games kept in memory
+     * @return LazyPlayerBase base loading players on first access
+     */
+    public static LazyPlayerBase loadLazy(String pathToPlayerInfo, String gameHistoryDir, long maxLoadedGames){
+        return new LazyPlayerBase(pathToPlayerInfo, gameHistoryDir, maxLoadedGames);
+    }
+
+    /**
+     * Function submitting loading of each player to the pool and collecting results in the order of player_info file.
+     * If loading of any player fails, loading of remaining players is cancelled and failure is rethrown,
+     * so base is never silently missing players.
+     * @param playerCap - int amount of players in base
+     * @param pool - ExecutorService pool used for loading
+     * @throws IllegalStateException when loading of a player failed or waiting for it was interrupted
+     */
+    private void loadPlayersParallel(int playerCap, ExecutorService pool){
+        long start = System.nanoTime();
+        long bytesRead = 0;
+        List<PlayerInfo> playerInfoList = PlayerInfo.readPlayerInfo(PlayerInfo.PLAYER_INFO_PATH, playerCap);
+        List<PlayerInfo> submittedPlayers = new ArrayList<>(playerInfoList.size());
+        List<Future<Player>> loadedPlayers = new ArrayList<>(playerInfoList.size());
+        for (PlayerInfo playerInfo : playerInfoList){
+            File gameHistoryFile = new File(playerInfo.getGameHistoryPath());
+            if(gameHistoryFile.isFile()){
+                bytesRead += gameHistoryFile.length();
+                submittedPlayers.add(playerInfo);
+                loadedPlayers.add(pool.submit(() -> createPlayerAndReadGameHistory(playerInfo)));
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+        for (int i = 0; i < loadedPlayers.size(); i++){
+            try {
+                this.addPlayer(loadedPlayers.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelAll(loadedPlayers);
+                throw new IllegalStateException("Parallel loading of player base was interrupted", e);
+            } catch (ExecutionException e) {
+                cancelAll(loadedPlayers);
+                throw new IllegalStateException(String.format("Loading of player %s (%s) failed",
+                        submittedPlayers.get(i).getNick(), submittedPlayers.get(i).getPlatform()), e.getCause());
+            }
+        }
+        this.printLoadThroughput(System.nanoTime() - start, bytesRead);
+    }
+
+    private static void cancelAll(List<? extends Future<?>> futures){
+        for (Future<?> future : futures){
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Function printing throughput of loading player base in games per second and MB per second.
+     * @param durationNanos - long duration of loading in nanoseconds
+     * @param bytesRead - long summed size of loaded game history files
+     */
+    private void printLoadThroughput(long durationNanos, long bytesRead){
+        long gamesLoaded = 0;
+        for (Player player : this.playerBaseList){
+            gamesLoaded += player.getGameHistory().getNumberOfGames();
+        }
+        double seconds = durationNanos / 1e9;
+        System.out.printf("Loaded %d players, %d games (%.2f MB) in %f s -> %.0f games/s, %.2f MB/s%n",
+                this.playerBaseList.size(), gamesLoaded, bytesRead / 1e6, seconds,
+                gamesLoaded / seconds, bytesRead / 1e6 / seconds);
     }
 
 
     /**
      * Function used for creating a new player and inserting theirs game history from csv file.
-     * @param playerNick - String nick of player
-     * @param platform - String platform
-     * @param rank - PlayerRank rank of player
+     * @param playerInfo - PlayerInfo entry of player_info file describing the player
      * @return Player - new player object
+     * @throws UncheckedIOException when game history file can not be read, so player with partial history is never returned
      */
 
-    private Player createPlayerAndReadGameHistory(String playerNick, String platform, PlayerRank rank){
-        Player player = new Player(playerNick, platform, rank);
-        String pathToGameHistory = "src/main/resources/game_history_files/"+player.getNick()+".csv";
-        System.out.println(pathToGameHistory);
-        try (BufferedReader br = new BufferedReader(new FileReader(pathToGameHistory))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] values = line.split(",");
-                player.addGameToHistory(values[0], Float.parseFloat(values[1]), values[2], Integer.parseInt(values[3]), Integer.parseInt(values[4]), Integer.parseInt(values[5]), Integer.parseInt(values[6]));
-            }
+    private static Player createPlayerAndReadGameHistory(PlayerInfo playerInfo){
+        Player player = new Player(playerInfo.getNick(), playerInfo.getPlatform(), playerInfo.getRank());
+        try {
+            GameHistoryFileReader.readGameHistory(playerInfo.getGameHistoryPath(), player::addGameToHistory);
         } catch (IOException e) {
-            e.printStackTrace();
+            throw new UncheckedIOException("Reading game history of " + playerInfo.getNick() + " failed", e);
         }
         return player;
     }
 
     /**
-     * Function adds player to the list of Players in PlayerBase object.
+     * Function adds player to the list of Players in PlayerBase object and notifies listeners of the base.
      *
      * @param p - object of class Player
      */
 
     public void addPlayer(Player p){
         this.playerBaseList.add(p);
+        this.nickIndex.add(p);
+        for (PlayerBaseListener listener : this.listeners){
+            listener.playerAdded(this, p);
+        }
+    }
+
+    /**
+     * Function registering listener notified about every player added with addPlayer (players added directly
+     * to playerBaseList or by setPlayerBaseList are not reported)
+     * @param listener - PlayerBaseListener listener
+     */
+    public void addListener(PlayerBaseListener listener){
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Function removing listener of base
+     * @param listener - PlayerBaseListener listener
+     */
+    public void removeListener(PlayerBaseListener listener){
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Function finding player with given nick and platform using nick index
+     * @param nick - String nick of player
+     * @param platform - String name of platform (e.g. "PC", "Nintendo Switch")
+     * @return Player with given nick and platform or null if there is no such player in the base
+     */
+    public Player findPlayer(String nick, String platform){
+        return this.nickIndex.get(nick, platform);
+    }
+
+    /**
+     * Function finding all players with given nick using nick index (the same nick can be used on more platforms)
+     * @param nick - String nick of players
+     * @return list of players with given nick, empty if there is no such player in the base
+     */
+    public List<Player> findPlayers(String nick){
+        return this.nickIndex.getAll(nick);
+    }
+
+    /**
+     * Function finding players whose nick starts with given prefix (case insensitive) using nick index
+     * @param prefix - String beginning of nick
+     * @param limit - int maximal number of returned players
+     * @return list of found players in alphabetical order of nicks
+     */
+    public List<Player> findPlayersByPrefix(String prefix, int limit){
+        return this.nickIndex.findByPrefix(prefix, limit);
     }
 
     /**
@@ -170,20 +394,22 @@ public class PlayerBase {
 
     /**
      * Function showing average, max and min KD Ratio for players in the player base.
+     * PlayerBaseReport computes this together with other aggregate stats in one pass.
      *
      */
 
     public void showPlayersKDRatioStats(){
         float sumKDRatio = 0;
-        float minKDRatio = 0;
-        float maxKDRatio = 0;
+        float minKDRatio = Float.POSITIVE_INFINITY;
+        float maxKDRatio = Float.NEGATIVE_INFINITY;
         for (Player player : this.playerBaseList){
-            sumKDRatio += player.getKDRatio();
-            if (minKDRatio == 0 || player.getKDRatio() < minKDRatio){
-                minKDRatio = player.getKDRatio();
+            float kdRatio = player.getKDRatio();
+            sumKDRatio += kdRatio;
+            if (kdRatio < minKDRatio){
+                minKDRatio = kdRatio;
             }
-            if (maxKDRatio == 0 || player.getKDRatio() > minKDRatio){
-                maxKDRatio = player.getKDRatio();
+            if (kdRatio > maxKDRatio){
+                maxKDRatio = kdRatio;
             }
         }
         System.out.printf("Average KD Ratio: %f%nMin KD Ratio: %f%nMax KD Ratio: %f%n", sumKDRatio/this.playerBaseList.size(),minKDRatio, maxKDRatio);
@@ -191,16 +417,74 @@ public class PlayerBase {
 
     /**
      * Function that gives functionalities of playerApp for a player found by a nick.
+     * If more players use the nick, platforms of them are printed and nothing else is done,
+     * showPlayerApp(nick, platform) has to be used instead.
      *
      * @param nick : nick of player
      */
     public void showPlayerApp(String nick){
+        List<Player> players = this.findPlayers(nick);
+        if(players.size() == 1){
+            players.get(0).playerApp();
+        } else if(players.size() > 1){
+            System.out.printf("Nick %s is used by more players, choose platform:%n", nick);
+            players.forEach(player -> System.out.println(player.getPlatform()));
+        }
+    }
+
+    /**
+     * Function that gives functionalities of playerApp for a player found by a nick and platform.
+     *
+     * @param nick : nick of player
+     * @param platform : name of platform of player
+     */
+    public void showPlayerApp(String nick, String platform){
+        Player player = this.findPlayer(nick, platform);
+        if(player != null){
+            player.playerApp();
+        }
+    }
+
+    /**
+     * Function calculating summary of kills, assists and damage of Battle Royal games of all players in the base,
+     * summaries of players are merged instead of going through all games at once.
+     *
+     * @return BattleRoyalSummary of player base
+     */
+    public BattleRoyalSummary summarizeBattleRoyals(){
+        BattleRoyalSummary summary = new BattleRoyalSummary();
         for (Player player : this.playerBaseList){
-            if(player.getNick().equals(nick)){
-                player.playerApp();
-                return;
-            }
+            summary.merge(player.getGameHistory().summarizeBattleRoyals());
         }
+        return summary;
+    }
+
+    /**
+     * Function calculating summaries of kills, assists and damage of Battle Royal games for each platform.
+     *
+     * @return map platform -> BattleRoyalSummary of players on the platform
+     */
+    public Map<Platform, BattleRoyalSummary> summarizeBattleRoyalsByPlatform(){
+        Map<Platform, BattleRoyalSummary> summaries = new EnumMap<>(Platform.class);
+        for (Player player : this.playerBaseList){
+            summaries.computeIfAbsent(player.getPlatformType(), platform -> new BattleRoyalSummary())
+                    .merge(player.getGameHistory().summarizeBattleRoyals());
+        }
+        return summaries;
+    }
+
+    /**
+     * Function calculating summaries of kills, assists and damage of Battle Royal games for each rank.
+     *
+     * @return map rank -> BattleRoyalSummary of players with the rank
+     */
+    public Map<PlayerRank, BattleRoyalSummary> summarizeBattleRoyalsByRank(){
+        Map<PlayerRank, BattleRoyalSummary> summaries = new EnumMap<>(PlayerRank.class);
+        for (Player player : this.playerBaseList){
+            summaries.computeIfAbsent(player.getRank(), rank -> new BattleRoyalSummary())
+                    .merge(player.getGameHistory().summarizeBattleRoyals());
+        }
+        return summaries;
     }
 
     /**
@@ -209,11 +493,8 @@ public class PlayerBase {
 
     private void calculatePlayerSumKillsBattleRoyal(){
         for(Player player : this.playerBaseList){
-            GameHistory gameHistory = player.getGameHistoryClone();
-            int sumKills = 0;
-            for(Game game : gameHistory.getPlayedBattleRoyalsList()){
-                sumKills += Integer.parseInt(game.getGameStats().get("kills"));
-            }
+            GameHistory gameHistory = player.getGameHistorySnapshot();
+            long sumKills = gameHistory.getBattleRoyalColumns().sumKills();
             System.out.printf("Player: %s | Sum of kills: %d\n", player.getNick(), sumKills);
         }
     }
@@ -0,0 +1,15 @@
+package furche.pg;
+
+/**
+ * Listener notified every time a player is added to PlayerBase with addPlayer.
+ * Used for registering statistics kept over all players (e.g. GlobalScoreStatistics) in histories of new players.
+ */
+@FunctionalInterface
+public interface PlayerBaseListener {
+    /**
+     * Function called after player was added to base
+     * @param playerBase - PlayerBase player was added to
+     * @param player - Player added player
+     */
+    void playerAdded(PlayerBase playerBase, Player player);
+}
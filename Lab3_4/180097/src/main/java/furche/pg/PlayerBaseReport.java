@@ -0,0 +1,349 @@
+package furche.pg;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class PlayerBaseReport {
+    /**
+     * Class storing all aggregate stats of player base shown by PlayerBase.showPlayersBattleRoyalStats,
+     * showPlayersArenaStats, showPlayersTimePlayedStats and showPlayersKDRatioStats, computed in one pass over players
+     * (optionally in parallel with fork/join), stats of each player are read in O(1) from counters and sums of its
+     * history. Partial reports of ranges of players are combined with merge. Report only stores values, printing
+     * is done by print functions.
+     * Attributes:
+     * players : List<PlayerStats> stats of every player in order of player base
+     * battleRoyalsPlayed, battleRoyalsWon, battleRoyalsTop3, battleRoyalsTop5 : long Battle Royal counters of all players
+     * arenasPlayed, arenasWon : long Arena counters of all players
+     * timePlayed : StatSummary of time played by players (sum of time of all their games)
+     * kdRatio : StatSummary of KD ratios of players (players without Battle Royal games are skipped)
+     */
+
+    private final List<PlayerStats> players;
+    private long battleRoyalsPlayed;
+    private long battleRoyalsWon;
+    private long battleRoyalsTop3;
+    private long battleRoyalsTop5;
+    private long arenasPlayed;
+    private long arenasWon;
+    private final StatSummary timePlayed;
+    private final StatSummary kdRatio;
+
+    /**
+     * Stats of single player
+     */
+    public static class PlayerStats {
+        private final String nick;
+        private final String platform;
+        private final int battleRoyalsPlayed;
+        private final int battleRoyalsWon;
+        private final int battleRoyalsTop3;
+        private final int battleRoyalsTop5;
+        private final int arenasPlayed;
+        private final int arenasWon;
+        private final float timePlayed;
+        private final float kdRatio;
+
+        /**
+         * Constructor of PlayerStats reading counters and sums of snapshot of player history, so it costs O(1)
+         * regardless of number of games (counters are the same as shown by getPlayerBattleRoyalStats)
+         * @param player - Player player
+         */
+        public PlayerStats(Player player){
+            GameHistory gameHistory = player.getGameHistorySnapshot();
+            this.nick = player.getNick();
+            this.platform = player.getPlatform();
+            this.battleRoyalsPlayed = gameHistory.getHistoryCounter(HistoryCounter.BATTLE_ROYALS_PLAYED);
+            this.battleRoyalsWon = gameHistory.getHistoryCounter(HistoryCounter.BATTLE_ROYALS_WON);
+            this.battleRoyalsTop3 = gameHistory.getHistoryCounter(HistoryCounter.BATTLE_ROYALS_TOP3);
+            this.battleRoyalsTop5 = gameHistory.getHistoryCounter(HistoryCounter.BATTLE_ROYALS_TOP5);
+            this.arenasPlayed = gameHistory.getHistoryCounter(HistoryCounter.ARENAS_PLAYED);
+            this.arenasWon = gameHistory.getHistoryCounter(HistoryCounter.ARENAS_WON);
+            this.timePlayed = gameHistory.sumTime();
+            this.kdRatio = gameHistory.getKDRatio();
+        }
+
+        public String getNick(){
+            return this.nick;
+        }
+
+        public String getPlatform(){
+            return this.platform;
+        }
+
+        public int getBattleRoyalsPlayed(){
+            return this.battleRoyalsPlayed;
+        }
+
+        public int getBattleRoyalsWon(){
+            return this.battleRoyalsWon;
+        }
+
+        public int getBattleRoyalsTop3(){
+            return this.battleRoyalsTop3;
+        }
+
+        public int getBattleRoyalsTop5(){
+            return this.battleRoyalsTop5;
+        }
+
+        public int getArenasPlayed(){
+            return this.arenasPlayed;
+        }
+
+        public int getArenasWon(){
+            return this.arenasWon;
+        }
+
+        public float getTimePlayed(){
+            return this.timePlayed;
+        }
+
+        /**
+         * Returns KD ratio of player in Battle Royal games
+         * @return float KD ratio, NaN if player has no Battle Royal games
+         */
+        public float getKDRatio(){
+            return this.kdRatio;
+        }
+    }
+
+    /**
+     * Constructor of empty PlayerBaseReport
+     */
+    public PlayerBaseReport(){
+        this.players = new ArrayList<>();
+        this.timePlayed = new StatSummary();
+        this.kdRatio = new StatSummary();
+    }
+
+    /**
+     * Function creating report of player base in single thread
+     * @param playerBase - PlayerBase base of players
+     * @return PlayerBaseReport of all players
+     */
+    public static PlayerBaseReport create(PlayerBase playerBase){
+        PlayerBaseReport report = new PlayerBaseReport();
+        for (Player player : playerBase.getPlayerBaseList()){
+            report.addPlayer(new PlayerStats(player));
+        }
+        return report;
+    }
+
+    /**
+     * Function creating report of player base in parallel, ranges of players are computed by fork/join tasks
+     * and partial reports are merged
+     * @param playerBase - PlayerBase base of players
+     * @param pool - ForkJoinPool pool used for computing
+     * @return PlayerBaseReport of all players
+     */
+    public static PlayerBaseReport create(PlayerBase playerBase, ForkJoinPool pool){
+        List<Player> players = playerBase.getPlayerBaseList();
+        int threshold = Math.max(1, players.size() / (pool.getParallelism() * 8)); // few tasks per thread for stealing
+        return pool.invoke(new ReportTask(players, 0, players.size(), threshold));
+    }
+
+    /**
+     * Fork/join task creating report of range of players
+     */
+    private static class ReportTask extends RecursiveTask<PlayerBaseReport> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Player> players;
+        private final int start;
+        private final int end;
+        private final int threshold;
+
+        private ReportTask(List<Player> players, int start, int end, int threshold){
+            this.players = players;
+            this.start = start;
+            this.end = end;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected PlayerBaseReport compute(){
+            if (this.end - this.start <= this.threshold){
+                PlayerBaseReport report = new PlayerBaseReport();
+                for (Player player : this.players.subList(this.start, this.end)){
+                    report.addPlayer(new PlayerStats(player));
+                }
+                return report;
+            }
+            int split = (this.start + this.end) >>> 1;
+            ReportTask left = new ReportTask(this.players, this.start, split, this.threshold);
+            ReportTask right = new ReportTask(this.players, split, this.end, this.threshold);
+            left.fork();
+            PlayerBaseReport rightReport = right.compute();
+            return left.join().merge(rightReport);
+        }
+    }
+
+    /**
+     * Function adding stats of player to the report
+     * @param playerStats - PlayerStats stats of player
+     */
+    public void addPlayer(PlayerStats playerStats){
+        this.players.add(playerStats);
+        this.battleRoyalsPlayed += playerStats.battleRoyalsPlayed;
+        this.battleRoyalsWon += playerStats.battleRoyalsWon;
+        this.battleRoyalsTop3 += playerStats.battleRoyalsTop3;
+        this.battleRoyalsTop5 += playerStats.battleRoyalsTop5;
+        this.arenasPlayed += playerStats.arenasPlayed;
+        this.arenasWon += playerStats.arenasWon;
+        this.timePlayed.add(playerStats.timePlayed);
+        if (playerStats.battleRoyalsPlayed > 0){
+            this.kdRatio.add(playerStats.kdRatio);
+        }
+    }
+
+    /**
+     * Function merging report of players following players of this report
+     * @param other - PlayerBaseReport partial report
+     * @return this report
+     */
+    public PlayerBaseReport merge(PlayerBaseReport other){
+        this.players.addAll(other.players);
+        this.battleRoyalsPlayed += other.battleRoyalsPlayed;
+        this.battleRoyalsWon += other.battleRoyalsWon;
+        this.battleRoyalsTop3 += other.battleRoyalsTop3;
+        this.battleRoyalsTop5 += other.battleRoyalsTop5;
+        this.arenasPlayed += other.arenasPlayed;
+        this.arenasWon += other.arenasWon;
+        this.timePlayed.merge(other.timePlayed);
+        this.kdRatio.merge(other.kdRatio);
+        return this;
+    }
+
+    public List<PlayerStats> getPlayers(){
+        return Collections.unmodifiableList(this.players);
+    }
+
+    public long getBattleRoyalsPlayed(){
+        return this.battleRoyalsPlayed;
+    }
+
+    public long getBattleRoyalsWon(){
+        return this.battleRoyalsWon;
+    }
+
+    public long getBattleRoyalsTop3(){
+        return this.battleRoyalsTop3;
+    }
+
+    public long getBattleRoyalsTop5(){
+        return this.battleRoyalsTop5;
+    }
+
+    public long getArenasPlayed(){
+        return this.arenasPlayed;
+    }
+
+    public long getArenasWon(){
+        return this.arenasWon;
+    }
+
+    /**
+     * Returns summary (sum, mean, min, max) of time played by players
+     * @return StatSummary of time played
+     */
+    public StatSummary getTimePlayed(){
+        return this.timePlayed;
+    }
+
+    /**
+     * Returns summary (mean, min, max) of KD ratios of players with at least one Battle Royal game
+     * @return StatSummary of KD ratios
+     */
+    public StatSummary getKDRatio(){
+        return this.kdRatio;
+    }
+
+    /**
+     * Function printing Battle Royal stats of every player (same format as PlayerBase.showPlayersBattleRoyalStats)
+     */
+    public void printBattleRoyalStats(){
+        for (PlayerStats player : this.players){
+            System.out.printf("Player: %s Platform: %s Battle Royal Stats :  Played: %d Won: %d Top3: %d Top5: %d%n", player.nick, player.platform,
+                    player.battleRoyalsPlayed, player.battleRoyalsWon, player.battleRoyalsTop3, player.battleRoyalsTop5);
+        }
+    }
+
+    /**
+     * Function printing Arena stats of every player (same format as PlayerBase.showPlayersArenaStats)
+     */
+    public void printArenaStats(){
+        for (PlayerStats player : this.players){
+            System.out.printf("furche.pg.Player: %s Platform%s Arena Stats  Played: %d Won: %d%n", player.nick, player.platform,
+                    player.arenasPlayed, player.arenasWon);
+        }
+    }
+
+    /**
+     * Function printing sum and average of time played (same format as PlayerBase.showPlayersTimePlayedStats)
+     */
+    public void printTimePlayedStats(){
+        System.out.printf("Sum time played: %f min%nAverage time played: %f min%n", this.timePlayed.getSum(), this.timePlayed.getMean());
+    }
+
+    /**
+     * Function printing average, min and max KD ratio (same format as PlayerBase.showPlayersKDRatioStats)
+     */
+    public void printKDRatioStats(){
+        System.out.printf("Average KD Ratio: %f%nMin KD Ratio: %f%nMax KD Ratio: %f%n", this.kdRatio.getMean(), this.kdRatio.getMin(), this.kdRatio.getMax());
+    }
+
+    /**
+     * Function printing whole report
+     */
+    public void print(){
+        this.printBattleRoyalStats();
+        this.printArenaStats();
+        this.printTimePlayedStats();
+        this.printKDRatioStats();
+    }
+
+    /**
+     * Main function comparing time of creating report with running the four PlayerBase show functions one after
+     * another (printing is discarded in both cases, so only computing is measured).
+     */
+    public static void main(String[] args) throws IOException {
+        PlayerBase playerBase = PlayerBase.loadSnapshot(PlayerBaseSnapshot.DEFAULT_SNAPSHOT_PATH);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        PrintStream out = System.out;
+        PrintStream discard = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b){
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len){
+            }
+        });
+        for (int round = 0; round < 5; round++){
+            System.setOut(discard);
+            long start = System.nanoTime();
+            playerBase.showPlayersBattleRoyalStats();
+            playerBase.showPlayersArenaStats();
+            playerBase.showPlayersTimePlayedStats();
+            playerBase.showPlayersKDRatioStats();
+            long separate = System.nanoTime() - start;
+            start = System.nanoTime();
+            PlayerBaseReport report = create(playerBase, pool);
+            long computed = System.nanoTime() - start;
+            report.print();
+            long printed = System.nanoTime() - start;
+            System.setOut(out);
+            System.out.printf("Round %d: four show functions %f s, report %f s (with printing %f s, %d threads)%n", round,
+                    separate / 1e9, computed / 1e9, printed / 1e9, pool.getParallelism());
+        }
+        PlayerBaseReport report = create(playerBase, pool);
+        report.printTimePlayedStats();
+        report.printKDRatioStats();
+    }
+}
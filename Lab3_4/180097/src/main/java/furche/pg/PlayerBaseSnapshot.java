@@ -0,0 +1,265 @@
+package furche.pg;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class PlayerBaseSnapshot {
+    /**
+     * Class for writing and reading binary columnar snapshot of whole player base.
+     * Snapshot is created from player_info.txt and game_history_files (see convert) and read through memory mapping,
+     * which is much faster than parsing 1200 csv files on every start.
+     *
+     * Layout of snapshot file (big endian):
+     * header : int magic, int version,
+     *          int number of heroes, for each hero: short length + utf-8 bytes of name (hero id = index in this table),
+     *          int number of players
+     * players : for each player: short length + utf-8 bytes of nick, short length + utf-8 bytes of platform,
+     *           byte rank (PlayerRank ordinal), int number of games, long offset of players columns
+     * columns : for each player n games stored column by column:
+     *           int[n] date (epoch day), float[n] timeInGame, byte[n] hero id, short[n] kills, short[n] assists,
+     *           int[n] damage, byte[n] position
+     *
+     * Whole file is mapped at once, so snapshot can't be bigger than 2 GB.
+     */
+
+    public static final String DEFAULT_SNAPSHOT_PATH = "src/main/resources/player_base.snapshot";
+
+    private static final int MAGIC = 0x41504558; // "APEX"
+    private static final int VERSION = 1;
+    private static final int BYTES_PER_GAME = 4 + 4 + 1 + 2 + 2 + 4 + 1;
+
+    private PlayerBaseSnapshot(){
+    }
+
+    /**
+     * Columns of games of single player, used while converting csv files to snapshot.
+     */
+    private static class PlayerColumns implements GameRowConsumer {
+        private final PlayerInfo playerInfo;
+        private int size = 0;
+        private int[] epochDay = new int[16];
+        private float[] timeInGame = new float[16];
+        private byte[] heroId = new byte[16];
+        private short[] kills = new short[16];
+        private short[] assists = new short[16];
+        private int[] damage = new int[16];
+        private byte[] position = new byte[16];
+
+        private PlayerColumns(PlayerInfo playerInfo){
+            this.playerInfo = playerInfo;
+        }
+
+        @Override
+        public void accept(int epochDay, float timeInGame, int heroId, int kills, int assists, int damage, int position){
+            if (this.size == this.epochDay.length) {
+                int capacity = this.size * 2;
+                this.epochDay = Arrays.copyOf(this.epochDay, capacity);
+                this.timeInGame = Arrays.copyOf(this.timeInGame, capacity);
+                this.heroId = Arrays.copyOf(this.heroId, capacity);
+                this.kills = Arrays.copyOf(this.kills, capacity);
+                this.assists = Arrays.copyOf(this.assists, capacity);
+                this.damage = Arrays.copyOf(this.damage, capacity);
+                this.position = Arrays.copyOf(this.position, capacity);
+            }
+            this.epochDay[this.size] = epochDay;
+            this.timeInGame[this.size] = timeInGame;
+            this.heroId[this.size] = (byte) heroId;
+            this.kills[this.size] = toShort(kills, "kills");
+            this.assists[this.size] = toShort(assists, "assists");
+            this.damage[this.size] = damage;
+            if (position < 1 || position > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format("Position %d of player %s doesn't fit in snapshot", position, this.playerInfo.getNick()));
+            }
+            this.position[this.size] = (byte) position;
+            this.size++;
+        }
+
+        private short toShort(int value, String field){
+            if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format("Value %d of %s of player %s doesn't fit in snapshot", value, field, this.playerInfo.getNick()));
+            }
+            return (short) value;
+        }
+    }
+
+    /**
+     * Function converting player_info file and game history csv files from default directory to snapshot file.
+     * Players without game history file are skipped (same as in PlayerBase constructors).
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param snapshotPath - String path of created snapshot
+     * @throws IOException when csv files can not be read or snapshot can not be written
+     */
+    public static void convert(String pathToPlayerInfo, String snapshotPath) throws IOException {
+        convert(pathToPlayerInfo, PlayerInfo.GAME_HISTORY_DIR, snapshotPath);
+    }
+
+    /**
+     * Function converting player_info file and game history csv files from given directory to snapshot file.
+     * Players without game history file are skipped (same as in PlayerBase constructors).
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param gameHistoryDir - String directory with game history files (ending with separator)
+     * @param snapshotPath - String path of created snapshot
+     * @throws IOException when csv files can not be read or snapshot can not be written
+     */
+    public static void convert(String pathToPlayerInfo, String gameHistoryDir, String snapshotPath) throws IOException {
+        List<PlayerColumns> players = new ArrayList<>();
+        for (PlayerInfo playerInfo : PlayerInfo.readPlayerInfo(pathToPlayerInfo, Integer.MAX_VALUE)) {
+            String pathToGameHistory = playerInfo.getGameHistoryPath(gameHistoryDir);
+            if (new File(pathToGameHistory).isFile()) {
+                PlayerColumns columns = new PlayerColumns(playerInfo);
+                GameHistoryFileReader.readGameHistory(pathToGameHistory, columns);
+                players.add(columns);
+            }
+        }
+
+        int heroCount = HeroDictionary.size();
+        long offset = 4 + 4 + 4 + 4;
+        for (int i = 0; i < heroCount; i++) {
+            offset += 2 + utf8(HeroDictionary.getHeroName(i)).length;
+        }
+        for (PlayerColumns player : players) {
+            offset += 2 + utf8(player.playerInfo.getNick()).length + 2 + utf8(player.playerInfo.getPlatform()).length + 1 + 4 + 8;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(snapshotPath), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(heroCount);
+            for (int i = 0; i < heroCount; i++) {
+                writeString(out, HeroDictionary.getHeroName(i));
+            }
+            out.writeInt(players.size());
+            for (PlayerColumns player : players) {
+                writeString(out, player.playerInfo.getNick());
+                writeString(out, player.playerInfo.getPlatform());
+                out.writeByte(player.playerInfo.getRank().ordinal());
+                out.writeInt(player.size);
+                out.writeLong(offset);
+                offset += (long) player.size * BYTES_PER_GAME;
+            }
+            for (PlayerColumns player : players) {
+                for (int i = 0; i < player.size; i++) {
+                    out.writeInt(player.epochDay[i]);
+                }
+                for (int i = 0; i < player.size; i++) {
+                    out.writeFloat(player.timeInGame[i]);
+                }
+                out.write(player.heroId, 0, player.size);
+                for (int i = 0; i < player.size; i++) {
+                    out.writeShort(player.kills[i]);
+                }
+                for (int i = 0; i < player.size; i++) {
+                    out.writeShort(player.assists[i]);
+                }
+                for (int i = 0; i < player.size; i++) {
+                    out.writeInt(player.damage[i]);
+                }
+                out.write(player.position, 0, player.size);
+            }
+        }
+    }
+
+    /**
+     * Function reading players from memory mapped snapshot file
+     * @param snapshotPath - String path to snapshot
+     * @return list of players in the order they were stored in snapshot
+     * @throws IOException when snapshot can not be read or has wrong format
+     */
+    public static List<Player> readPlayers(String snapshotPath) throws IOException {
+        return readPlayers(snapshotPath, null);
+    }
+
+    /**
+     * Function reading players from memory mapped snapshot file, games are stored in given off heap arena
+     * @param snapshotPath - String path to snapshot
+     * @param arena - OffHeapGameArena arena storing games, null for storing games on heap
+     * @return list of players in the order they were stored in snapshot
+     * @throws IOException when snapshot can not be read or has wrong format
+     */
+    public static List<Player> readPlayers(String snapshotPath, OffHeapGameArena arena) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Paths.get(snapshotPath), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a player base snapshot (or unsupported version): " + snapshotPath);
+        }
+        int[] heroIds = new int[buffer.getInt()]; // maps hero id in snapshot to id in HeroDictionary
+        for (int i = 0; i < heroIds.length; i++) {
+            heroIds[i] = HeroDictionary.getHeroId(readString(buffer));
+        }
+        int playerCount = buffer.getInt();
+        List<Player> players = new ArrayList<>(playerCount);
+        for (int p = 0; p < playerCount; p++) {
+            Player player = new Player(readString(buffer), readString(buffer), PlayerRank.values()[buffer.get()],
+                    arena == null ? new GameHistory() : new GameHistory(arena));
+            int games = buffer.getInt();
+            long offset = buffer.getLong();
+            readGames(buffer, (int) offset, games, heroIds, player);
+            players.add(player);
+        }
+        return players;
+    }
+
+    /**
+     * Function adding games stored in columns of single player to players game history (without creating Game objects)
+     */
+    private static void readGames(ByteBuffer buffer, int offset, int games, int[] heroIds, Player player){
+        int timeOffset = offset + games * 4;
+        int heroOffset = timeOffset + games * 4;
+        int killsOffset = heroOffset + games;
+        int assistsOffset = killsOffset + games * 2;
+        int damageOffset = assistsOffset + games * 2;
+        int positionOffset = damageOffset + games * 4;
+        GameHistory gameHistory = player.getGameHistory();
+        gameHistory.getBattleRoyalColumns().ensureCapacity(games);
+        for (int i = 0; i < games; i++) {
+            gameHistory.addBattleRoyal(buffer.getInt(offset + i * 4),
+                    buffer.getFloat(timeOffset + i * 4),
+                    heroIds[buffer.get(heroOffset + i)],
+                    buffer.getShort(killsOffset + i * 2),
+                    buffer.getShort(assistsOffset + i * 2),
+                    buffer.getInt(damageOffset + i * 4),
+                    buffer.get(positionOffset + i),
+                    null);
+        }
+    }
+
+    private static byte[] utf8(String value){
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = utf8(value);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer){
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Main function converting default data set to snapshot and comparing loading times.
+     */
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime();
+        convert(PlayerInfo.PLAYER_INFO_PATH, DEFAULT_SNAPSHOT_PATH);
+        System.out.printf("Snapshot written to %s in %f s%n", DEFAULT_SNAPSHOT_PATH, (System.nanoTime() - start) / 1e9);
+        PlayerBase.loadSnapshot(DEFAULT_SNAPSHOT_PATH);
+    }
+}
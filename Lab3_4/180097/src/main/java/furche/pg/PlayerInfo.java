@@ -0,0 +1,111 @@
+package furche.pg;
+
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class PlayerInfo {
+    /**
+     * Class describing single entry of player_info.txt file (line in format "nick,platform,rank").
+     * Attributes:
+     * nick : String player nick, also name of players game history file
+     * platform : Platform platform player plays on (parsed from its name when entry is created)
+     * rank : PlayerRank rank of player
+     */
+
+    public static final String PLAYER_INFO_PATH = "src/main/resources/player_info.txt";
+    public static final String GAME_HISTORY_DIR = "src/main/resources/game_history_files/";
+
+    private final String nick;
+    private final Platform platform;
+    private final PlayerRank rank;
+
+    /**
+     * Constructor of PlayerInfo
+     * @param nick - String nick of player
+     * @param platform - String name of platform player plays on
+     * @param rank - PlayerRank rank of player
+     * @throws IllegalArgumentException when there is no platform with given name
+     */
+    public PlayerInfo(String nick, String platform, PlayerRank rank){
+        this.nick = nick;
+        this.platform = Platform.fromName(platform);
+        this.rank = rank;
+    }
+
+    /**
+     * Returns name of platform player plays on (as in player_info file)
+     * @return String name of platform
+     */
+    public String getPlatform(){
+        return this.platform.getName();
+    }
+
+    /**
+     * Returns platform player plays on
+     * @return Platform platform
+     */
+    public Platform getPlatformType(){
+        return this.platform;
+    }
+
+    /**
+     * Returns path to csv file storing game history of player
+     * @return String path to game history file
+     */
+    public String getGameHistoryPath(){
+        return this.getGameHistoryPath(GAME_HISTORY_DIR);
+    }
+
+    /**
+     * Returns path to csv file storing game history of player in given directory
+     * @param gameHistoryDir - String directory with game history files (ending with separator)
+     * @return String path to game history file
+     */
+    public String getGameHistoryPath(String gameHistoryDir){
+        return gameHistoryDir + this.nick + ".csv";
+    }
+
+    /**
+     * Function parsing rank from player_info.txt to PlayerRank, unknown ranks are treated as PlayerRank.BRONZE
+     * @param rank - String rank (e.g. "Silver", "Gold")
+     * @return PlayerRank rank of player
+     */
+    public static PlayerRank parseRank(String rank){
+        switch(rank){
+            case "Silver":
+                return PlayerRank.SILVER;
+            case "Gold":
+                return PlayerRank.GOLD;
+            case "Platinum":
+                return PlayerRank.PLATINUM;
+            default:
+                return PlayerRank.BRONZE;
+        }
+    }
+
+    /**
+     * Function reading entries of player_info file in the order they appear in the file.
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param playerCap - int maximal amount of entries read
+     * @return list of PlayerInfo entries
+     */
+    public static List<PlayerInfo> readPlayerInfo(String pathToPlayerInfo, int playerCap){
+        List<PlayerInfo> playerInfoList = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(pathToPlayerInfo))) {
+            String line;
+            while ((line = br.readLine()) != null && playerInfoList.size() < playerCap) {
+                String[] values = line.split(",");
+                playerInfoList.add(new PlayerInfo(values[0], values[1], parseRank(values[2])));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return playerInfoList;
+    }
+}
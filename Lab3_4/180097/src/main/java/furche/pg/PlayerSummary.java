@@ -0,0 +1,120 @@
+package furche.pg;
+
+public class PlayerSummary implements GameRowConsumer {
+    /**
+     * Summary of game history of one player built while game history file is read (games are not stored).
+     * Every row is folded into counters and running statistics, so memory used by summary doesn't depend
+     * on number of games.
+     * Attributes:
+     * nick : String player nick
+     * platform : Platform platform player plays on
+     * rank : PlayerRank rank of player
+     * historyCounters : HistoryCounters numbers of played games, wins, top3 and top5
+     * timeSum : float sum of time of all games
+     * killsSum : long sum of kills of all games
+     * battleRoyalSummary : BattleRoyalSummary of kills, assists and damage
+     * scoreSummary : StatSummary of not normalized game scores (Game.countGameGrade)
+     */
+
+    private final String nick;
+    private final Platform platform;
+    private final PlayerRank rank;
+    private final HistoryCounters historyCounters;
+    private float timeSum;
+    private long killsSum;
+    private final BattleRoyalSummary battleRoyalSummary;
+    private final StatSummary scoreSummary;
+
+    /**
+     * Constructor of empty PlayerSummary
+     * @param playerInfo - PlayerInfo entry of player_info file
+     */
+    public PlayerSummary(PlayerInfo playerInfo){
+        this.nick = playerInfo.getNick();
+        this.platform = playerInfo.getPlatformType();
+        this.rank = playerInfo.getRank();
+        this.historyCounters = HistoryCounters.plain();
+        this.battleRoyalSummary = new BattleRoyalSummary();
+        this.scoreSummary = new StatSummary();
+    }
+
+    /**
+     * Function folding one Battle Royal game into summary
+     */
+    @Override
+    public void accept(int epochDay, float timeInGame, int heroId, int kills, int assists, int damage, int position){
+        this.historyCounters.countBattleRoyal(position);
+        this.timeSum += timeInGame;
+        this.killsSum += kills;
+        this.battleRoyalSummary.add(kills, assists, damage);
+        this.scoreSummary.add(Game.countGameGrade(timeInGame, kills, assists, damage));
+    }
+
+    public String getNick(){
+        return this.nick;
+    }
+
+    public String getPlatform(){
+        return this.platform.getName();
+    }
+
+    /**
+     * Returns platform of player as Platform enum
+     * @return Platform platform
+     */
+    public Platform getPlatformType(){
+        return this.platform;
+    }
+
+    public PlayerRank getRank(){
+        return this.rank;
+    }
+
+    public HistoryCounters getHistoryCounters(){
+        return this.historyCounters;
+    }
+
+    /**
+     * Returns number of summarized games
+     * @return int number of games
+     */
+    public int getNumberOfGames(){
+        return this.historyCounters.get(HistoryCounter.BATTLE_ROYALS_PLAYED);
+    }
+
+    /**
+     * Returns sum of time played (same as Player.getSumTimePlayed)
+     * @return float sum of time
+     */
+    public float getSumTimePlayed(){
+        return this.timeSum;
+    }
+
+    /**
+     * Returns KD ratio of player (same as Player.getKDRatio)
+     * @return float KD ratio, NaN if player has no games
+     */
+    public float getKDRatio(){
+        return (float) this.killsSum / this.getNumberOfGames();
+    }
+
+    public BattleRoyalSummary getBattleRoyalSummary(){
+        return this.battleRoyalSummary;
+    }
+
+    public StatSummary getScoreSummary(){
+        return this.scoreSummary;
+    }
+
+    /**
+     * Function calculating average normalized game score of player. Normalization is linear, so average
+     * of normalized scores equals normalized average of not normalized scores.
+     * @param globalScoreStatistics - GlobalScoreStatistics bounds of global not normalized game scores
+     * @return double average normalized game score, NaN if player has no games
+     */
+    public double calcAvgNormalizedScore(GlobalScoreStatistics globalScoreStatistics){
+        double max = globalScoreStatistics.getMax();
+        double min = globalScoreStatistics.getMin();
+        return 5 * ((this.scoreSummary.getMean() - min) / (max - min));
+    }
+}
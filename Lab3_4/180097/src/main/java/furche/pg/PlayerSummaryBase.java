@@ -0,0 +1,211 @@
+package furche.pg;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class PlayerSummaryBase {
+    /**
+     * Summary only counterpart of PlayerBase. Every row of game history files is folded into PlayerSummary
+     * of its player while the file is read and individual games are never stored, so memory used by the base
+     * depends only on number of players (whole data set fits in a few MB of heap).
+     * Suitable for jobs that need only aggregates (platform averages, KD ratios, time played), jobs that need
+     * individual games still have to use PlayerBase.
+     * Attributes:
+     * summaries : List<PlayerSummary> summaries of players in order of player_info file
+     * summariesByNick : Map<String, PlayerSummary> first summary with given nick
+     * globalScoreStatistics : GlobalScoreStatistics bounds of not normalized game scores of all games
+     * gamesRead : long number of summarized games
+     */
+
+    private final List<PlayerSummary> summaries = new ArrayList<>();
+    private final Map<String, PlayerSummary> summariesByNick = new HashMap<>();
+    private final GlobalScoreStatistics globalScoreStatistics = new GlobalScoreStatistics();
+    private long gamesRead = 0;
+
+    /**
+     * Constructor of PlayerSummaryBase reading game history files one by one
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param playerCap - int amount of players in base
+     * @throws UncheckedIOException when game history file of any player can not be read
+     */
+    public PlayerSummaryBase(String pathToPlayerInfo, int playerCap){
+        this(pathToPlayerInfo, PlayerInfo.GAME_HISTORY_DIR, playerCap);
+    }
+
+    /**
+     * Constructor of PlayerSummaryBase reading game history files from given directory one by one
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param gameHistoryDir - String directory with game history files (ending with separator)
+     * @param playerCap - int amount of players in base
+     * @throws UncheckedIOException when game history file of any player can not be read
+     */
+    public PlayerSummaryBase(String pathToPlayerInfo, String gameHistoryDir, int playerCap){
+        long start = System.nanoTime();
+        for (PlayerInfo playerInfo : PlayerInfo.readPlayerInfo(pathToPlayerInfo, playerCap)){
+            String pathToGameHistory = playerInfo.getGameHistoryPath(gameHistoryDir);
+            if (new File(pathToGameHistory).isFile()){
+                this.addSummary(summarize(playerInfo, pathToGameHistory));
+            }
+        }
+        this.printLoadThroughput(System.nanoTime() - start);
+    }
+
+    /**
+     * Constructor of PlayerSummaryBase reading game history files in parallel, summaries are still added
+     * in the order of player_info file.
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param playerCap - int amount of players in base
+     * @param numOfThreads - int number of threads used for reading
+     * @throws IllegalStateException when reading of any player failed
+     */
+    public PlayerSummaryBase(String pathToPlayerInfo, int playerCap, int numOfThreads){
+        this(pathToPlayerInfo, PlayerInfo.GAME_HISTORY_DIR, playerCap, numOfThreads);
+    }
+
+    /**
+     * Constructor of PlayerSummaryBase reading game history files from given directory in parallel, summaries
+     * are still added in the order of player_info file.
+     * @param pathToPlayerInfo - String path to player_info file
+     * @param gameHistoryDir - String directory with game history files (ending with separator)
+     * @param playerCap - int amount of players in base
+     * @param numOfThreads - int number of threads used for reading
+     * @throws IllegalStateException when reading of any player failed
+     */
+    public PlayerSummaryBase(String pathToPlayerInfo, String gameHistoryDir, int playerCap, int numOfThreads){
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(numOfThreads);
+        try {
+            List<PlayerInfo> submittedPlayers = new ArrayList<>();
+            List<Future<PlayerSummary>> futures = new ArrayList<>();
+            for (PlayerInfo playerInfo : PlayerInfo.readPlayerInfo(pathToPlayerInfo, playerCap)){
+                String pathToGameHistory = playerInfo.getGameHistoryPath(gameHistoryDir);
+                if (new File(pathToGameHistory).isFile()){
+                    submittedPlayers.add(playerInfo);
+                    futures.add(pool.submit(() -> summarize(playerInfo, pathToGameHistory)));
+                }
+            }
+            for (int i = 0; i < futures.size(); i++){
+                try {
+                    this.addSummary(futures.get(i).get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Parallel summarizing of players was interrupted", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(String.format("Summarizing of player %s (%s) failed",
+                            submittedPlayers.get(i).getNick(), submittedPlayers.get(i).getPlatform()), e.getCause());
+                }
+            }
+        } finally {
+            // cancels reading of remaining players when collecting failed, does nothing after all summaries are read
+            pool.shutdownNow();
+        }
+        this.printLoadThroughput(System.nanoTime() - start);
+    }
+
+    /**
+     * Function streaming game history file of a player into new summary
+     * @param playerInfo - PlayerInfo entry of player_info file
+     * @param pathToGameHistory - String path to game history file of player
+     * @return PlayerSummary summary of all games in file
+     * @throws UncheckedIOException when file can not be read, so player never silently drops out of the base
+     */
+    private static PlayerSummary summarize(PlayerInfo playerInfo, String pathToGameHistory){
+        PlayerSummary summary = new PlayerSummary(playerInfo);
+        try {
+            GameHistoryFileReader.readGameHistory(pathToGameHistory, summary);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading game history of " + playerInfo.getNick() + " failed", e);
+        }
+        return summary;
+    }
+
+    private void addSummary(PlayerSummary summary){
+        this.summaries.add(summary);
+        this.summariesByNick.putIfAbsent(summary.getNick(), summary);
+        this.globalScoreStatistics.addScores(summary.getScoreSummary());
+        this.gamesRead += summary.getNumberOfGames();
+    }
+
+    private void printLoadThroughput(long durationNanos){
+        double seconds = durationNanos / 1e9;
+        System.out.printf("Summarized %d players, %d games in %f s -> %.0f games/s%n", this.summaries.size(),
+                this.gamesRead, seconds, this.gamesRead / seconds);
+    }
+
+    /**
+     * Returns summaries of all players
+     * @return read only list of summaries in order of player_info file
+     */
+    public List<PlayerSummary> getSummaries(){
+        return Collections.unmodifiableList(this.summaries);
+    }
+
+    /**
+     * Function finding summary of player with given nick
+     * @param nick - String nick of player
+     * @return PlayerSummary of player or null if there is no such player
+     */
+    public PlayerSummary getSummary(String nick){
+        return this.summariesByNick.get(nick);
+    }
+
+    public GlobalScoreStatistics getGlobalScoreStatistics(){
+        return this.globalScoreStatistics;
+    }
+
+    public long getGamesRead(){
+        return this.gamesRead;
+    }
+
+    /**
+     * Function calculating average normalized game score of players of every platform, gives the same result
+     * as StatisticsCalculator without storing any game. Players without games are skipped.
+     * @return PlatformScoreResult average scores per platform
+     */
+    public PlatformScoreResult calcPlatformScores(){
+        PlatformScoreResult result = new PlatformScoreResult();
+        for (PlayerSummary summary : this.summaries){
+            if (summary.getNumberOfGames() > 0){
+                result.addPlayerScore(summary.getPlatformType(), summary.calcAvgNormalizedScore(this.globalScoreStatistics));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Function printing time played and KD ratio of every player (same format as PlayerBase)
+     */
+    public void printPlayersStats(){
+        for (PlayerSummary summary : this.summaries){
+            System.out.printf("Nick: %s Time played: %f KD Ratio: %f%n", summary.getNick(), summary.getSumTimePlayed(), summary.getKDRatio());
+        }
+    }
+
+    /**
+     * Main function for testing purposes, prints platform averages and heap used by summaries.
+     */
+    public static void main(String[] args){
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+        PlayerSummaryBase summaryBase = new PlayerSummaryBase(PlayerInfo.PLAYER_INFO_PATH, Integer.MAX_VALUE);
+        PlatformScoreResult result = summaryBase.calcPlatformScores();
+        for (Platform platform : Platform.values()) {
+            System.out.printf("Platform: %s -> Average game score: %f\n", platform.getName(), result.getAverageScore(platform));
+        }
+        System.out.printf("Average game score entries: %d  Number of players in base: %d%n", result.getTotalPlayerCount(), summaryBase.getSummaries().size());
+        System.gc();
+        long usedAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("Heap retained by summaries of %d games: %.2f MB%n", summaryBase.getGamesRead(), (usedAfter - usedBefore) / 1e6);
+    }
+}
@@ -0,0 +1,146 @@
+package furche.pg;
+
+public class StatSummary {
+    /**
+     * Single pass summary of a series of values: count, min, max, mean and variance.
+     * Mean and variance are updated with Welford's algorithm, so values are read only once and no list of values
+     * is needed. Two summaries can be combined with merge (Chan's parallel algorithm), which allows computing
+     * summaries of players separately and rolling them up to platforms, ranks or whole player base.
+     * Attributes:
+     * count : long number of values
+     * mean : double mean of values
+     * m2 : double sum of squared differences from the mean
+     * min : double minimal value
+     * max : double maximal value
+     */
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min;
+    private double max;
+
+    /**
+     * Constructor of empty StatSummary
+     */
+    public StatSummary(){
+        this.count = 0;
+        this.mean = 0;
+        this.m2 = 0;
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Copy constructor of StatSummary
+     * @param other - StatSummary copied summary
+     */
+    public StatSummary(StatSummary other){
+        this.count = other.count;
+        this.mean = other.mean;
+        this.m2 = other.m2;
+        this.min = other.min;
+        this.max = other.max;
+    }
+
+    /**
+     * Function adding value to summary
+     * @param value - double value
+     */
+    public void add(double value){
+        this.count++;
+        double delta = value - this.mean;
+        this.mean += delta / this.count;
+        this.m2 += delta * (value - this.mean);
+        if (value < this.min){
+            this.min = value;
+        }
+        if (value > this.max){
+            this.max = value;
+        }
+    }
+
+    /**
+     * Function merging other summary into this one, result is the same as if all values of other summary
+     * were added to this one
+     * @param other - StatSummary merged summary
+     * @return this summary
+     */
+    public StatSummary merge(StatSummary other){
+        if (other.count == 0){
+            return this;
+        }
+        if (this.count == 0){
+            this.count = other.count;
+            this.mean = other.mean;
+            this.m2 = other.m2;
+            this.min = other.min;
+            this.max = other.max;
+            return this;
+        }
+        long count = this.count + other.count;
+        double delta = other.mean - this.mean;
+        this.mean += delta * other.count / count;
+        this.m2 += other.m2 + delta * delta * ((double) this.count * other.count / count);
+        this.count = count;
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+        return this;
+    }
+
+    /**
+     * Returns number of values
+     * @return long count
+     */
+    public long getCount(){
+        return this.count;
+    }
+
+    /**
+     * Returns sum of values
+     * @return double sum
+     */
+    public double getSum(){
+        return this.mean * this.count;
+    }
+
+    /**
+     * Returns mean of values
+     * @return double mean, NaN if summary is empty
+     */
+    public double getMean(){
+        return this.count == 0 ? Double.NaN : this.mean;
+    }
+
+    /**
+     * Returns (population) variance of values
+     * @return double variance, NaN if summary is empty
+     */
+    public double getVariance(){
+        return this.count == 0 ? Double.NaN : this.m2 / this.count;
+    }
+
+    /**
+     * Returns standard deviation of values
+     * @return double standard deviation, NaN if summary is empty
+     */
+    public double getStd(){
+        return Math.sqrt(this.getVariance());
+    }
+
+    /**
+     * Returns minimal value
+     * @return double min, NaN if summary is empty
+     */
+    public double getMin(){
+        return this.count == 0 ? Double.NaN : this.min;
+    }
+
+    /**
+     * Returns maximal value
+     * @return double max, NaN if summary is empty
+     */
+    public double getMax(){
+        return this.count == 0 ? Double.NaN : this.max;
+    }
+}
@@ -1,18 +1,21 @@
 package furche.pg;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
-public class StatisticsCalculator {
+public class StatisticsCalculator implements AutoCloseable {
     /**
      * Class which can be used for calculating statistics, at the moment supports calculating average game scores for
-     * each platform.
+     * each platform. Calculator has to be closed when it is no longer used, so its statistics stop listening to games
+     * added to player base.
      * Attributes :
-     * List<Float> playersInitScores -> list of not normalized game scores of all games of all players
-     * Map<String, List<Double>> platformGameScores -> map storing normalized game scores of all games separately for each platform
+     * GlobalScoreStatistics globalScoreStatistics -> bounds of not normalized game scores, updated when games are added
+     * PlatformAggregates platformGameScores -> lock free accumulators of average normalized game scores of players for each platform
      * PlayerBase playerBase - > PlayerBase object player base with 1200 players at max (that's how much data is available)
      */
-    private final List<Float> playersInitScores;
-    private final Map<String, List<Double>> platformGameScores;
+    private final GlobalScoreStatistics globalScoreStatistics;
+    private final PlatformAggregates platformGameScores;
     private final PlayerBase playerBase;
 
     /**
@@ -22,52 +25,22 @@ public class StatisticsCalculator {
 
     public StatisticsCalculator(PlayerBase playerBase){
         this.playerBase = playerBase;
-        this.playersInitScores = calcInitScores();
-        this.platformGameScores = this.initPlatformGameScoresMap();
+        this.globalScoreStatistics = new GlobalScoreStatistics(playerBase);
+        this.platformGameScores = new PlatformAggregates();
     }
 
     /**
-     * Function calculates not normalized game scores of each game for all players and collects them in a list
-     * @return List containing not normalized game scores of all games of all players.
-     */
-
-    public List<Float> calcInitScores(){
-        List<Float> playersInitScores = new ArrayList<>();
-        for(Player player : this.playerBase.getPlayerBaseList()){
-            playersInitScores.addAll(player.getGameHistory().calculateInitBattleRoyalScores());
-        }
-        return playersInitScores;
-    }
-
-    /**
-     * Function initializing platformGameScores map to have an entry for each platform
-     * @return Map with platform -> initialized List<Double> for storing average normalized game scores
-     */
-
-    public Map<String, List<Double>> initPlatformGameScoresMap(){
-        Map<String, List<Double>> platformGameScores = new LinkedHashMap<>();
-        platformGameScores.put("PC", new ArrayList<>());
-        platformGameScores.put("Playstation", new ArrayList<>());
-        platformGameScores.put("Xbox", new ArrayList<>());
-        platformGameScores.put("Nintendo Switch", new ArrayList<>());
-        return platformGameScores;
-    }
-
-    /**
-     * Function that calculates average of average game score for each platform and prints it to the screen.
-     * Additionaly prints amount of entries in game all lists in the platformGameScores and number of players in base
-     * to show that there is no race condition and critical section is handled.
+     * Function that calculates average of average game score (with standard deviation) for each platform and prints it to the screen.
+     * Additionaly prints amount of entries in all accumulators in the platformGameScores and number of players in base
+     * to show that there is no race condition.
      */
 
     public void calcPlatformAvg() {
-        int sumGameScoreEntries = 0;
-        for (String platform : this.platformGameScores.keySet()) {
-            int platformSize = this.platformGameScores.get(platform).size();
-            double avgGameScore = this.platformGameScores.get(platform).stream().mapToDouble(v -> v).sum() / platformSize;
-            System.out.printf("Platform: %s -> Average game score: %f\n", platform, avgGameScore);
-            sumGameScoreEntries += platformSize;
+        for (Platform platform : Platform.values()) {
+            PlatformAccumulator accumulator = this.platformGameScores.get(platform);
+            System.out.printf("Platform: %s -> Average game score: %f Std: %f\n", platform.getName(), accumulator.getAverage(), accumulator.getStd());
         }
-        System.out.printf("Average game score entries: %d  Number of players in base: %d", sumGameScoreEntries, this.playerBase.getPlayerBaseList().size());
+        System.out.printf("Average game score entries: %d  Number of players in base: %d", this.platformGameScores.getTotalCount(), this.playerBase.getPlayerBaseList().size());
     }
 
     /**
@@ -78,9 +51,9 @@ public class StatisticsCalculator {
     public void operationsSingleThread(){
         long start = System.currentTimeMillis();
         for(Player player : this.playerBase.getPlayerBaseList()){
-            List<Double> normalizedScores = player.getGameHistory().calcNormalizedBattleRoyalScores(this.playersInitScores);
-            double playerAvgNormalizedGameScore = normalizedScores.stream().mapToDouble(v -> v).sum() / normalizedScores.size();
-            this.platformGameScores.get(player.getPlatform()).add(playerAvgNormalizedGameScore);
+            DoubleArrayList normalizedScores = player.getGameHistory().calcNormalizedBattleRoyalScores(this.globalScoreStatistics);
+            double playerAvgNormalizedGameScore = normalizedScores.sum() / normalizedScores.size();
+            this.platformGameScores.add(player.getPlatformType(), playerAvgNormalizedGameScore);
         }
         long end = System.currentTimeMillis();
         long duration = end-start;
@@ -120,7 +93,7 @@ public class StatisticsCalculator {
                 end = (i + 1) * intervalLength + (this.playerBase.getPlayerBaseList().size() % numOfThreads);
             }
 
-            threads.add(new Thread(new StatsCalcRunnable(this.playerBase, this.playersInitScores, this.platformGameScores, start, end)));
+            threads.add(new Thread(new StatsCalcRunnable(this.playerBase, this.globalScoreStatistics, this.platformGameScores, start, end)));
         }
 
 
@@ -138,6 +111,25 @@ public class StatisticsCalculator {
 
     }
 
+    /**
+     * Operation of calculating average normalized game score for each player and averaging them for each platform.
+     * Work is split between threads of given pool by PlatformScoreTask (fork/join, split by number of games),
+     * partial results are merged instead of writing to shared map.
+     * @param pool - ForkJoinPool pool used for computing
+     * @return PlatformScoreResult with average game scores of each platform
+     */
+    public PlatformScoreResult operationsForkJoin(ForkJoinPool pool){
+        return pool.invoke(new PlatformScoreTask(this.playerBase.getPlayerBaseList(), this.globalScoreStatistics, pool.getParallelism()));
+    }
+
+    /**
+     * Function removing global score statistics from listeners of game histories of players
+     */
+    @Override
+    public void close(){
+        this.globalScoreStatistics.close();
+    }
+
     /**
      * Main function used to experiment with multithreading.
      * Allows choosing amount of players and choose if single or multithreaded.
@@ -147,16 +139,39 @@ public class StatisticsCalculator {
 
         PlayerBase playerBase;
         Scanner scanner = new Scanner(System.in);
-        System.out.println("Menu:\n1.Choose player cap\n2.Max player cap\n");
+        System.out.println("Menu:\n1.Choose player cap\n2.Max player cap\n3.Max player cap with parallel loading\n4.Load from snapshot\n5.Load from snapshot to off heap storage\n");
         System.out.println("Type choice:");
-        if (scanner.nextInt() == 1) {
-            System.out.println("Type player cap:");
-            playerBase = new PlayerBase(scanner.nextInt());
-        }else{
-            playerBase = new PlayerBase();
+        switch (scanner.nextInt()) {
+            case 1:
+                System.out.println("Type player cap:");
+                playerBase = new PlayerBase(scanner.nextInt());
+                break;
+            case 3:
+                System.out.println("Type num of loading threads:");
+                playerBase = new PlayerBase(Integer.MAX_VALUE, scanner.nextInt());
+                break;
+            case 4:
+                try {
+                    playerBase = PlayerBase.loadSnapshot(PlayerBaseSnapshot.DEFAULT_SNAPSHOT_PATH);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    return;
+                }
+                break;
+            case 5:
+                try {
+                    playerBase = PlayerBase.loadSnapshot(PlayerBaseSnapshot.DEFAULT_SNAPSHOT_PATH, OffHeapGameArena.direct());
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    return;
+                }
+                break;
+            default:
+                playerBase = new PlayerBase();
+                break;
         }
         StatisticsCalculator calc = new StatisticsCalculator(playerBase);
-        System.out.println("Menu:\n1.Single Threaded\n2.Multi Threaded");
+        System.out.println("Menu:\n1.Single Threaded\n2.Multi Threaded\n3.Fork/Join");
         System.out.println("Type choice:");
         switch (scanner.nextInt()) {
             case 1:
@@ -165,9 +180,22 @@ public class StatisticsCalculator {
             case 2:
                 calc.operationsMultipleThreads();
                 break;
+            case 3:
+                System.out.println("Type num of threads: ");
+                ForkJoinPool pool = new ForkJoinPool(scanner.nextInt());
+                long start = System.currentTimeMillis();
+                PlatformScoreResult result = calc.operationsForkJoin(pool);
+                System.out.printf("Duration %f\n", (System.currentTimeMillis() - start) / 1000f);
+                pool.shutdown();
+                for (Platform platform : Platform.values()) {
+                    System.out.printf("Platform: %s -> Average game score: %f\n", platform.getName(), result.getAverageScore(platform));
+                }
+                System.out.printf("Average game score entries: %d  Number of players in base: %d", result.getTotalPlayerCount(), playerBase.getPlayerBaseList().size());
+                break;
             default:
                 System.out.println("No such option");
                 break;
         }
+        calc.close();
     }
 }
@@ -0,0 +1,109 @@
+package furche.pg;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConsolidatedHistoryStoreTest {
+
+    private Path directory;
+    private Path playerInfoPath;
+    private String dataPath;
+    private String indexPath;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        this.directory = Files.createTempDirectory("consolidated_store_test");
+        this.playerInfoPath = TestData.writePlayerInfo(this.directory, TestData.PLAYER_INFO_LINES);
+        this.dataPath = this.directory.resolve("game_history.data").toString();
+        this.indexPath = this.directory.resolve("game_history.index").toString();
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        TestData.deleteDirectory(this.directory);
+    }
+
+    @Test
+    void storeReadsSamePlayersAsCsvFiles() throws IOException {
+        List<Player> expected = new ArrayList<>();
+        for (PlayerInfo playerInfo : PlayerInfo.readPlayerInfo(this.playerInfoPath.toString(), Integer.MAX_VALUE)){
+            expected.add(TestData.readFromCsv(playerInfo));
+        }
+        ConsolidatedHistoryStore.create(this.playerInfoPath.toString(), this.dataPath, this.indexPath).close();
+        try (ConsolidatedHistoryStore store = new ConsolidatedHistoryStore(this.dataPath, this.indexPath)) {
+            TestData.assertSamePlayers(expected, store.readAllPlayers());
+            TestData.assertSamePlayer(expected.get(1), store.readPlayer("FireBite", "Xbox"));
+            TestData.assertSamePlayer(expected.get(2), store.readPlayer("FireBite", "Nintendo Switch"));
+            TestData.assertSamePlayer(expected.get(1), store.readPlayer("FireBite"));
+            assertNull(store.readPlayer("FireBite", "PC"));
+            assertNull(store.readPlayer("Nobody"));
+        }
+        TestData.assertSamePlayers(expected, PlayerBase.loadConsolidated(this.dataPath, this.indexPath).getPlayerBaseList());
+    }
+
+    @Test
+    void appendedSegmentsAreKeptInIndex() throws IOException {
+        ConsolidatedHistoryStore.create(this.playerInfoPath.toString(), this.dataPath, this.indexPath).close();
+        PlayerInfo playerInfo = new PlayerInfo("Kira", "Xbox", PlayerRank.GOLD);
+        try (ConsolidatedHistoryStore store = ConsolidatedHistoryStore.openForAppend(this.dataPath, this.indexPath)) {
+            assertEquals(2, store.append(playerInfo, "1-6-2023,30.5,Wraith,25,3,5000,1\n2-6-2023,12.25,Lifeline,3,4,700,5".getBytes(StandardCharsets.US_ASCII)));
+            assertEquals(1, store.append(playerInfo, "3-6-2023,10.0,Octane,1,0,150,20\n".getBytes(StandardCharsets.US_ASCII)));
+        }
+        Player expected = TestData.readFromCsv(playerInfo);
+        expected.addGameToHistory("1-6-2023", 30.5f, "Wraith", 25, 3, 5000, 1);
+        expected.addGameToHistory("2-6-2023", 12.25f, "Lifeline", 3, 4, 700, 5);
+        expected.addGameToHistory("3-6-2023", 10.0f, "Octane", 1, 0, 150, 20);
+        try (ConsolidatedHistoryStore store = new ConsolidatedHistoryStore(this.dataPath, this.indexPath)) {
+            assertEquals(3, store.getSegments("Kira").size());
+            TestData.assertSamePlayer(expected, store.readPlayer("Kira", "Xbox"));
+            TestData.assertSamePlayer(expected, store.readAllPlayers().get(0));
+        }
+    }
+
+    @Test
+    void storeIsCreatedFromGivenDirectory() throws IOException {
+        Path playerInfoPath = TestData.writePlayerInfo(this.directory, "Kira,Xbox,Gold", "Hulk,PC,Silver");
+        Files.write(this.directory.resolve("Kira.csv"),
+                "1-6-2023,30.5,Wraith,25,3,5000,1\n2-6-2023,12.25,Lifeline,3,4,700,5\n".getBytes(StandardCharsets.US_ASCII));
+        Player expected = new Player("Kira", "Xbox", PlayerRank.GOLD);
+        expected.addGameToHistory("1-6-2023", 30.5f, "Wraith", 25, 3, 5000, 1);
+        expected.addGameToHistory("2-6-2023", 12.25f, "Lifeline", 3, 4, 700, 5);
+        ConsolidatedHistoryStore.create(playerInfoPath.toString(), this.directory + "/", this.dataPath, this.indexPath).close();
+        try (ConsolidatedHistoryStore store = new ConsolidatedHistoryStore(this.dataPath, this.indexPath)) {
+            List<Player> players = store.readAllPlayers();
+            assertEquals(1, players.size());
+            TestData.assertSamePlayer(expected, players.get(0));
+        }
+    }
+
+    @Test
+    void readOnlyStoreRejectsAppendAndMalformedRowsAreNotAppended() throws IOException {
+        ConsolidatedHistoryStore.create(this.playerInfoPath.toString(), this.dataPath, this.indexPath).close();
+        PlayerInfo playerInfo = new PlayerInfo("Kira", "Xbox", PlayerRank.GOLD);
+        byte[] row = "1-6-2023,30.5,Wraith,25,3,5000,1\n".getBytes(StandardCharsets.US_ASCII);
+        try (ConsolidatedHistoryStore store = new ConsolidatedHistoryStore(this.dataPath, this.indexPath)) {
+            assertThrows(IllegalStateException.class, () -> store.append(playerInfo, row));
+        }
+        long length = Files.size(this.directory.resolve("game_history.data"));
+        try (ConsolidatedHistoryStore store = ConsolidatedHistoryStore.openForAppend(this.dataPath, this.indexPath)) {
+            assertThrows(NumberFormatException.class,
+                    () -> store.append(playerInfo, "1-6-2023,abc,Wraith,25,3,5000,1\n".getBytes(StandardCharsets.US_ASCII)));
+        }
+        assertEquals(length, Files.size(this.directory.resolve("game_history.data")));
+        try (ConsolidatedHistoryStore store = new ConsolidatedHistoryStore(this.dataPath, this.indexPath)) {
+            assertEquals(1, store.getSegments("Kira").size());
+        }
+    }
+}
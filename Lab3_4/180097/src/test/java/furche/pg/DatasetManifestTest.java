@@ -0,0 +1,96 @@
+package furche.pg;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatasetManifestTest {
+
+    private static final String KIRA_ROWS = "1-6-2023,30.5,Wraith,25,3,5000,1\n2-6-2023,12.25,Lifeline,3,4,700,5\n";
+
+    private Path directory;
+    private String gameHistoryDir;
+    private String manifestPath;
+
+    @BeforeEach
+    void generateManifest() throws IOException {
+        this.directory = Files.createTempDirectory("dataset_manifest_test");
+        this.gameHistoryDir = this.directory + "/";
+        this.manifestPath = this.directory.resolve("dataset.manifest").toString();
+        Path playerInfoPath = TestData.writePlayerInfo(this.directory, "Kira,Xbox,Gold", "Hulk,PC,Silver", "Missing,PC,Bronze");
+        this.writeGameHistory("Kira", KIRA_ROWS);
+        this.writeGameHistory("Hulk", "3-6-2023,10,Bangalore,0,1,100,20\n");
+        DatasetManifest manifest = DatasetManifest.generate(playerInfoPath.toString(), this.gameHistoryDir, this.manifestPath);
+        assertEquals(2, manifest.getEntries().size());
+        assertEquals(3, manifest.getTotalRows());
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        TestData.deleteDirectory(this.directory);
+    }
+
+    @Test
+    void manifestLoadsPlayersFromGivenDirectory() throws IOException {
+        DatasetManifest manifest = DatasetManifest.read(this.manifestPath, this.gameHistoryDir);
+        assertEquals(this.gameHistoryDir + "Kira.csv", manifest.getEntries().get(0).getGameHistoryPath());
+        assertEquals(2, manifest.getEntries().get(0).getRows());
+
+        Player kira = new Player("Kira", "Xbox", PlayerRank.GOLD);
+        kira.addGameToHistory("1-6-2023", 30.5f, "Wraith", 25, 3, 5000, 1);
+        kira.addGameToHistory("2-6-2023", 12.25f, "Lifeline", 3, 4, 700, 5);
+        List<Player> players = PlayerBase.loadManifest(this.manifestPath, this.gameHistoryDir, true).getPlayerBaseList();
+        assertEquals(2, players.size());
+        TestData.assertSamePlayer(kira, players.get(0));
+        assertEquals(PlayerRank.SILVER, players.get(1).getRank());
+    }
+
+    @Test
+    void changedLengthFailsLoading() throws IOException {
+        this.writeGameHistory("Kira", KIRA_ROWS + "4-6-2023,8,Wraith,1,0,200,12\n");
+        IOException e = assertThrows(IOException.class, () -> PlayerBase.loadManifest(this.manifestPath, this.gameHistoryDir, false));
+        assertTrue(e.getMessage().startsWith("Length of"), e.getMessage());
+    }
+
+    @Test
+    void changedContentWithSameLengthFailsChecksum() throws IOException {
+        this.writeGameHistory("Kira", KIRA_ROWS.replace(",25,", ",26,"));
+        IOException e = assertThrows(IOException.class, () -> PlayerBase.loadManifest(this.manifestPath, this.gameHistoryDir, true));
+        assertTrue(e.getMessage().startsWith("Checksum of"), e.getMessage());
+        // without verifying checksums only length and number of rows are checked
+        assertEquals(26, PlayerBase.loadManifest(this.manifestPath, this.gameHistoryDir, false)
+                .getPlayerBaseList().get(0).getGameHistory().getBattleRoyalColumns().getKills(0));
+    }
+
+    @Test
+    void wrongNumberOfRowsFailsLoading() throws IOException {
+        Path path = this.directory.resolve("dataset.manifest");
+        List<String> lines = Files.readAllLines(path, StandardCharsets.US_ASCII);
+        String[] values = lines.get(1).split(",");
+        values[4] = "3";
+        lines.set(1, String.join(",", values));
+        Files.write(path, lines, StandardCharsets.US_ASCII);
+        IOException e = assertThrows(IOException.class, () -> PlayerBase.loadManifest(this.manifestPath, this.gameHistoryDir, true));
+        assertTrue(e.getMessage().endsWith("has 2 rows, manifest expects 3"), e.getMessage());
+    }
+
+    @Test
+    void missingFileFailsLoading() throws IOException {
+        Files.delete(this.directory.resolve("Hulk.csv"));
+        assertThrows(IOException.class, () -> PlayerBase.loadManifest(this.manifestPath, this.gameHistoryDir, false));
+    }
+
+    private void writeGameHistory(String nick, String rows) throws IOException {
+        Files.write(this.directory.resolve(nick + ".csv"), rows.getBytes(StandardCharsets.US_ASCII));
+    }
+}
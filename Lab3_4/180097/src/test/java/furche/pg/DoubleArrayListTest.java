@@ -0,0 +1,25 @@
+package furche.pg;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DoubleArrayListTest {
+
+    @Test
+    void addGrowsListCreatedWithZeroCapacity(){
+        DoubleArrayList list = new DoubleArrayList(0);
+        double expectedSum = 0;
+        for (int i = 0; i < 100; i++){
+            list.add(i * 0.5);
+            expectedSum += i * 0.5;
+        }
+        assertEquals(100, list.size());
+        assertEquals(expectedSum, list.sum(), 1e-9);
+    }
+
+    @Test
+    void sumOfEmptyListIsZero(){
+        assertEquals(0, new DoubleArrayList(0).sum());
+    }
+}
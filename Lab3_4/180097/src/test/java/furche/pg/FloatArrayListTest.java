@@ -0,0 +1,53 @@
+package furche.pg;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FloatArrayListTest {
+
+    @Test
+    void addGrowsListCreatedWithZeroCapacity(){
+        FloatArrayList list = new FloatArrayList(0);
+        assertTrue(list.isEmpty());
+        for (int i = 0; i < 100; i++){
+            list.add(i);
+        }
+        assertEquals(100, list.size());
+        for (int i = 0; i < 100; i++){
+            assertEquals(i, list.get(i));
+        }
+    }
+
+    @Test
+    void addKeepsElementsWhenArrayGrows(){
+        FloatArrayList list = new FloatArrayList(1);
+        list.add(2.5f);
+        list.add(-1f);
+        list.add(7f);
+        assertFalse(list.isEmpty());
+        assertEquals(3, list.size());
+        assertEquals(-1f, list.min());
+        assertEquals(7f, list.max());
+    }
+
+    @Test
+    void getOutsideOfSizeThrows(){
+        FloatArrayList list = new FloatArrayList(4);
+        list.add(1f);
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+    }
+
+    @Test
+    void minAndMaxOfEmptyListThrow(){
+        FloatArrayList list = new FloatArrayList(0);
+        assertThrows(NoSuchElementException.class, list::min);
+        assertThrows(NoSuchElementException.class, list::max);
+    }
+}
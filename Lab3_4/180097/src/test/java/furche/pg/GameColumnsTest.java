@@ -0,0 +1,137 @@
+package furche.pg;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameColumnsTest {
+
+    // more than two off heap blocks, so reads cross block boundaries and storage grows several times
+    private static final int GAMES = 2 * OffHeapGameArena.BLOCK_RECORDS + 37;
+
+    private static final String[] HEROES = {"Wraith", "Lifeline", "Octane", "Bangalore"};
+
+    private static void addGames(GameColumns columns, int from, int to){
+        for (int i = from; i < to; i++){
+            PlayerRank rank = i % 3 == 0 ? null : PlayerRank.values()[i % PlayerRank.values().length];
+            columns.add(19000 + i, i * 0.25f, HeroDictionary.getHeroId(HEROES[i % HEROES.length]), i % 30, i % 7,
+                    100 * i, 1 + i % 20, rank);
+        }
+    }
+
+    private static void assertGames(GameColumns columns, int size){
+        assertEquals(size, columns.size());
+        for (int i = 0; i < size; i++){
+            assertEquals(19000 + i, columns.getEpochDay(i));
+            assertEquals(i * 0.25f, columns.getTimeInGame(i));
+            assertEquals(HEROES[i % HEROES.length], HeroDictionary.getHeroName(columns.getHeroId(i)));
+            assertEquals(i % 30, columns.getKills(i));
+            assertEquals(i % 7, columns.getAssists(i));
+            assertEquals(100 * i, columns.getDamage(i));
+            assertEquals(1 + i % 20, columns.getResult(i));
+            assertEquals(i % 3 == 0 ? null : PlayerRank.values()[i % PlayerRank.values().length], columns.getRank(i));
+        }
+        GameCursor cursor = columns.cursor();
+        assertEquals(size, cursor.size());
+        int i = 0;
+        while (cursor.next()){
+            assertEquals(i, cursor.getIndex());
+            assertEquals(columns.getEpochDay(i), cursor.getEpochDay());
+            assertEquals(columns.getTimeInGame(i), cursor.getTimeInGame());
+            assertEquals(columns.getHeroId(i), cursor.getHeroId());
+            assertEquals(columns.getKills(i), cursor.getKills());
+            assertEquals(columns.getAssists(i), cursor.getAssists());
+            assertEquals(columns.getDamage(i), cursor.getDamage());
+            assertEquals(columns.getResult(i), cursor.getPosition());
+            assertEquals(columns.getRank(i), cursor.getRank());
+            assertEquals(columns.getGame(i).getGameStats(), cursor.toGame().getGameStats());
+            i++;
+        }
+        assertEquals(size, i);
+        assertEquals(size, cursor.getIndex());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    void heapColumnsRoundTrip(){
+        GameColumns columns = new GameColumns(GameMode.BATTLE_ROYAL);
+        addGames(columns, 0, GAMES);
+        assertFalse(columns.isOffHeap());
+        assertGames(columns, GAMES);
+    }
+
+    @Test
+    void offHeapColumnsRoundTrip(){
+        OffHeapGameArena arena = OffHeapGameArena.direct();
+        GameColumns columns = new GameColumns(GameMode.BATTLE_ROYAL, arena);
+        addGames(columns, 0, GAMES);
+        assertTrue(columns.isOffHeap());
+        assertGames(columns, GAMES);
+        assertEquals(3L * OffHeapGameArena.BLOCK_BYTES, arena.getAllocatedBytes());
+
+        GameColumns heap = new GameColumns(GameMode.BATTLE_ROYAL);
+        addGames(heap, 0, GAMES);
+        assertEquals(heap.sumTime(), columns.sumTime());
+        assertEquals(heap.sumKills(), columns.sumKills());
+        assertEquals(heap.summarize().getKills().getMean(), columns.summarize().getKills().getMean());
+    }
+
+    @Test
+    void mappedColumnsRoundTrip() throws IOException {
+        Path directory = Files.createTempDirectory("game_columns_test");
+        OffHeapGameArena arena = OffHeapGameArena.mapped(directory.resolve("games.arena").toString());
+        try {
+            GameColumns columns = new GameColumns(GameMode.BATTLE_ROYAL, arena);
+            addGames(columns, 0, GAMES);
+            assertGames(columns, GAMES);
+        } finally {
+            arena.close();
+            TestData.deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    void offHeapSnapshotDoesNotSeeLaterGames(){
+        GameColumns columns = new GameColumns(GameMode.BATTLE_ROYAL, OffHeapGameArena.direct());
+        addGames(columns, 0, OffHeapGameArena.BLOCK_RECORDS - 1);
+        GameColumns snapshot = columns.snapshot();
+        GameCursor cursor = columns.cursor();
+        addGames(columns, OffHeapGameArena.BLOCK_RECORDS - 1, GAMES);
+        assertTrue(snapshot.isReadOnly());
+        assertGames(snapshot, OffHeapGameArena.BLOCK_RECORDS - 1);
+        assertEquals(OffHeapGameArena.BLOCK_RECORDS - 1, cursor.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.getKills(OffHeapGameArena.BLOCK_RECORDS - 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.moveTo(OffHeapGameArena.BLOCK_RECORDS - 1));
+        assertThrows(UnsupportedOperationException.class, () -> addGames(snapshot, 0, 1));
+        assertGames(columns, GAMES);
+    }
+
+    @Test
+    void offHeapCloneIsIndependentCopyInSameArena(){
+        OffHeapGameArena arena = OffHeapGameArena.direct();
+        GameColumns columns = new GameColumns(GameMode.BATTLE_ROYAL, arena);
+        addGames(columns, 0, GAMES);
+        long allocated = arena.getAllocatedBytes();
+        GameColumns copy = (GameColumns) columns.clone();
+        assertTrue(copy.isOffHeap());
+        assertFalse(copy.isReadOnly());
+        // clone takes its own blocks, which are released only together with the arena
+        assertEquals(2 * allocated, arena.getAllocatedBytes());
+        assertGames(copy, GAMES);
+        assertEquals(columns.sumTime(), copy.sumTime());
+
+        copy.add(1, 1f, HeroDictionary.getHeroId("Wraith"), 1, 1, 1, 1, null);
+        assertEquals(GAMES, columns.size());
+        assertEquals(GAMES + 1, copy.size());
+        assertNull(copy.getRank(GAMES));
+        assertGames(columns, GAMES);
+    }
+}
@@ -0,0 +1,130 @@
+package furche.pg;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GameHistoryFileReaderTest {
+
+    /**
+     * Row passed to consumer, stored as it was received
+     */
+    private static class Row {
+        private final int epochDay;
+        private final float timeInGame;
+        private final int heroId;
+        private final int kills;
+        private final int assists;
+        private final int damage;
+        private final int position;
+
+        private Row(int epochDay, float timeInGame, int heroId, int kills, int assists, int damage, int position){
+            this.epochDay = epochDay;
+            this.timeInGame = timeInGame;
+            this.heroId = heroId;
+            this.kills = kills;
+            this.assists = assists;
+            this.damage = damage;
+            this.position = position;
+        }
+    }
+
+    private static List<Row> parse(String content){
+        List<Row> rows = new ArrayList<>();
+        GameHistoryFileReader reader = new GameHistoryFileReader(ByteBuffer.wrap(content.getBytes(StandardCharsets.US_ASCII)));
+        int count = reader.parseRows((epochDay, timeInGame, heroId, kills, assists, damage, position)
+                -> rows.add(new Row(epochDay, timeInGame, heroId, kills, assists, damage, position)));
+        assertEquals(rows.size(), count);
+        assertEquals(content.length(), reader.getPosition());
+        return rows;
+    }
+
+    private static void assertRow(Row row, String date, float timeInGame, String hero, int kills, int assists, int damage, int position){
+        assertEquals(GameDate.parseEpochDay(date), row.epochDay);
+        assertEquals(timeInGame, row.timeInGame);
+        assertEquals(HeroDictionary.findHeroId(hero), row.heroId);
+        assertEquals(hero, HeroDictionary.getHeroName(row.heroId));
+        assertEquals(kills, row.kills);
+        assertEquals(assists, row.assists);
+        assertEquals(damage, row.damage);
+        assertEquals(position, row.position);
+    }
+
+    @Test
+    void rowsWithUnixLineEndingsAreParsed(){
+        List<Row> rows = parse("1-6-2023,30.5,Wraith,25,3,5000,1\n12-11-2022,12.25,Lifeline,3,4,700,15\n");
+        assertEquals(2, rows.size());
+        assertRow(rows.get(0), "1-6-2023", 30.5f, "Wraith", 25, 3, 5000, 1);
+        assertRow(rows.get(1), "12-11-2022", 12.25f, "Lifeline", 3, 4, 700, 15);
+    }
+
+    @Test
+    void rowsWithWindowsLineEndingsAreParsed(){
+        List<Row> rows = parse("1-6-2023,30.5,Wraith,25,3,5000,1\r\n2-6-2023,12.25,Lifeline,3,4,700,5\r\n");
+        assertEquals(2, rows.size());
+        assertRow(rows.get(0), "1-6-2023", 30.5f, "Wraith", 25, 3, 5000, 1);
+        assertRow(rows.get(1), "2-6-2023", 12.25f, "Lifeline", 3, 4, 700, 5);
+    }
+
+    @Test
+    void lastRowWithoutNewLineIsParsed(){
+        List<Row> rows = parse("1-6-2023,30.5,Wraith,25,3,5000,1\n2-6-2023,12.25,Lifeline,3,4,700,5");
+        assertEquals(2, rows.size());
+        assertRow(rows.get(1), "2-6-2023", 12.25f, "Lifeline", 3, 4, 700, 5);
+        rows = parse("2-6-2023,12.25,Lifeline,3,4,700,5\r");
+        assertRow(rows.get(0), "2-6-2023", 12.25f, "Lifeline", 3, 4, 700, 5);
+    }
+
+    @Test
+    void emptyLinesAreSkipped(){
+        assertEquals(0, parse("").size());
+        assertEquals(0, parse("\n\r\n").size());
+        List<Row> rows = parse("\n1-6-2023,30.5,Wraith,25,3,5000,1\n\r\n\n2-6-2023,12.25,Lifeline,3,4,700,5\n\n");
+        assertEquals(2, rows.size());
+    }
+
+    @Test
+    void decimalNumbersAreParsedLikeFloatParseFloat(){
+        String[] times = {"0", "7", "30.5", "12.25", "0.1", "007.50", "19.99", "123456.789", "1.", "-2.75"};
+        StringBuilder content = new StringBuilder();
+        for (String time : times){
+            content.append("1-6-2023,").append(time).append(",Wraith,1,2,3,4\n");
+        }
+        List<Row> rows = parse(content.toString());
+        for (int i = 0; i < times.length; i++){
+            assertEquals(Float.parseFloat(times[i]), rows.get(i).timeInGame, times[i]);
+        }
+    }
+
+    @Test
+    void sameHeroGetsSameId(){
+        List<Row> rows = parse("1-6-2023,30.5,Wraith,25,3,5000,1\n2-6-2023,12.25,Wraith,3,4,700,5\n");
+        assertEquals(rows.get(0).heroId, rows.get(1).heroId);
+        assertEquals(HeroDictionary.getHeroId("Wraith"), rows.get(0).heroId);
+    }
+
+    @Test
+    void malformedFieldsAreRejected(){
+        String[] malformed = {
+                "1-6-2023,30.5,Wraith,25,3,5000,one\n", // position is not a number
+                "1-6-2023,abc,Wraith,25,3,5000,1\n", // time is not a number
+                "1-6-2023,30.5.5,Wraith,25,3,5000,1\n", // second decimal point
+                "1/6/2023,30.5,Wraith,25,3,5000,1\n", // wrong date separator
+                "1-6-2023,30.5,,25,3,5000,1\n", // empty hero
+                "1-6-2023,30.5,Wraith\n", // missing fields
+                "1-6-2023,30.5,Wraith,25,3,5000\n", // missing position
+                "1-6-2023,30.5,Wraith,25,3,5000,1,7\n", // additional field
+                "1-6-2023,30.5,Wraith,25,3,5000,1 \n", // trailing space
+                "1-6-2023,12345678901234567890,Wraith,25,3,5000,1\n" // too many digits
+        };
+        for (String row : malformed){
+            assertThrows(NumberFormatException.class, () -> parse(row), row);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package furche.pg;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class GameHistoryTailerTest {
+
+    private Path directory;
+    private Player player;
+    private PlayerBase playerBase;
+
+    @BeforeEach
+    void createGameHistoryFile() throws IOException {
+        this.directory = Files.createTempDirectory("game_history_tailer_test");
+        this.append("1-6-2023,30.5,Wraith,25,3,5000,1\n");
+        this.player = new Player("NoiseFire", "PC");
+        GameHistoryFileReader.readGameHistory(this.file().toString(), this.player::addGameToHistory);
+        this.playerBase = new PlayerBase(Arrays.asList(this.player));
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        for (File file : this.directory.toFile().listFiles()){
+            Files.delete(file.toPath());
+        }
+        Files.delete(this.directory);
+    }
+
+    @Test
+    void incompleteLineIsAddedAfterItIsFinished() throws IOException {
+        GameHistoryTailer tailer = new GameHistoryTailer(this.playerBase, this.directory.toString());
+        assertEquals(0, tailer.poll("NoiseFire"));
+        this.append("2-6-2023,12.25,Lifeline,3,4");
+        assertEquals(0, tailer.poll("NoiseFire"));
+        assertEquals(1, this.player.getGameHistory().getNumberOfGames());
+        this.append(",700,5\n3-6-2023,10.0,Bloodhound,1,0,150,");
+        assertEquals(1, tailer.poll("NoiseFire"));
+        this.append("20\n");
+        assertEquals(1, tailer.poll("NoiseFire"));
+        GameColumns columns = this.player.getGameHistory().getBattleRoyalColumns();
+        assertEquals(3, columns.size());
+        assertEquals(700, columns.getDamage(1));
+        assertEquals(150, columns.getDamage(2));
+        assertEquals(2, tailer.getGamesAdded());
+    }
+
+    @Test
+    void malformedLineIsSkippedWithoutLosingFollowingLines() throws IOException {
+        GameHistoryTailer tailer = new GameHistoryTailer(this.playerBase, this.directory.toString());
+        this.append("2-6-2023,12.25,Lifeline,3,4,700,5\n"
+                + "3-6-2023,abc,Lifeline,3,4,700,5\n"
+                + "4-6-2023,8.5,Octane,7,1,1200,2\n");
+        assertEquals(2, tailer.poll("NoiseFire"));
+        GameColumns columns = this.player.getGameHistory().getBattleRoyalColumns();
+        assertEquals(3, columns.size());
+        assertEquals(700, columns.getDamage(1));
+        assertEquals(1200, columns.getDamage(2));
+        assertEquals(0, tailer.poll("NoiseFire"));
+    }
+
+    @Test
+    void filesOfUnknownNicksAreIgnored() throws IOException {
+        Files.write(this.directory.resolve("Hulk.csv"), "1-6-2023,30.5,Wraith,25,3,5000,1\n".getBytes(StandardCharsets.US_ASCII));
+        GameHistoryTailer tailer = new GameHistoryTailer(this.playerBase, this.directory.toString());
+        assertEquals(0, tailer.poll("Hulk"));
+    }
+
+    @Test
+    void rowsAppendedBeforeTailerIsCreatedAreAddedFromLoaderOffset() throws IOException {
+        this.append("2-6-2023,12.25,Lifeline,3,4,700,5\n3-6-2023,10.0,Bloodhound,1,0,");
+        Player player = new Player("NoiseFire", "PC");
+        long offset = GameHistoryFileReader.readCompleteRows(this.file().toString(), player::addGameToHistory);
+        assertEquals(2, player.getGameHistory().getNumberOfGames());
+        // rows appended after loading and before tailer is created
+        this.append("150,20\n4-6-2023,8.5,Octane,7,1,1200,2\n");
+        Map<String, Long> offsets = new HashMap<>();
+        offsets.put("NoiseFire", offset);
+        GameHistoryTailer tailer = new GameHistoryTailer(new PlayerBase(Arrays.asList(player)), this.directory.toString(), offsets);
+        assertEquals(offset, tailer.getOffset("NoiseFire"));
+        assertEquals(2, tailer.poll("NoiseFire"));
+        GameColumns columns = player.getGameHistory().getBattleRoyalColumns();
+        assertEquals(4, columns.size());
+        assertEquals(150, columns.getDamage(2));
+        assertEquals(1200, columns.getDamage(3));
+        assertEquals(Files.size(this.file()), tailer.getOffset("NoiseFire"));
+    }
+
+    @Test
+    void fileCreatedAfterTailerIsReadFromBeginning() throws IOException {
+        Player hulk = new Player("Hulk", "PC");
+        PlayerBase playerBase = new PlayerBase(new ArrayList<>(Arrays.asList(this.player)));
+        GameHistoryTailer tailer = new GameHistoryTailer(playerBase, this.directory.toString());
+        playerBase.addPlayer(hulk);
+        Files.write(this.directory.resolve("Hulk.csv"), "1-6-2023,30.5,Wraith,25,3,5000,1\n".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(0, tailer.getOffset("Hulk"));
+        assertEquals(1, tailer.poll("Hulk"));
+        assertEquals(1, hulk.getGameHistory().getNumberOfGames());
+
+        // player added with already loaded history continues from offset set by caller
+        Player bloodhound = new Player("Bloodhound", "PC");
+        Path path = this.directory.resolve("Bloodhound.csv");
+        Files.write(path, "1-6-2023,30.5,Wraith,25,3,5000,1\n".getBytes(StandardCharsets.US_ASCII));
+        tailer.setOffset("Bloodhound", GameHistoryFileReader.readCompleteRows(path.toString(), bloodhound::addGameToHistory));
+        playerBase.addPlayer(bloodhound);
+        Files.write(path, "2-6-2023,12.25,Lifeline,3,4,700,5\n".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+        assertEquals(1, tailer.poll("Bloodhound"));
+        assertEquals(2, bloodhound.getGameHistory().getNumberOfGames());
+    }
+
+    @Test
+    void closeStopsBackgroundThread() throws IOException, InterruptedException {
+        GameHistoryTailer tailer = new GameHistoryTailer(this.playerBase, this.directory.toString());
+        tailer.start();
+        this.append("2-6-2023,12.25,Lifeline,3,4,700,5\n");
+        long start = System.nanoTime();
+        while (this.player.getGameHistory().getNumberOfGames() < 2 && System.nanoTime() - start < 10_000_000_000L){
+            Thread.sleep(5);
+        }
+        assertEquals(2, this.player.getGameHistory().getNumberOfGames());
+        tailer.close();
+        for (Thread thread : Thread.getAllStackTraces().keySet()){
+            assertFalse(thread.getName().equals("game-history-tailer"), "Tailer thread is still running");
+        }
+    }
+
+    private Path file(){
+        return this.directory.resolve("NoiseFire.csv");
+    }
+
+    private void append(String rows) throws IOException {
+        Files.write(this.file(), rows.getBytes(StandardCharsets.US_ASCII), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
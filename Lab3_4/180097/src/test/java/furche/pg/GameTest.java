@@ -0,0 +1,41 @@
+package furche.pg;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GameTest {
+
+    @Test
+    void gameStatsAreCachedUntilSetterIsCalled(){
+        BattleRoyal game = new BattleRoyal("1-6-2023", 30.5f, "Wraith", 25, 3, 5000, 1);
+        Map<String, String> gameStats = game.getGameStats();
+        assertSame(gameStats, game.getGameStats());
+        assertEquals("25", gameStats.get("kills"));
+        assertEquals("1", gameStats.get("position"));
+
+        game.setKills(7);
+        game.setPosition(4);
+        assertEquals("7", game.getGameStats().get("kills"));
+        assertEquals("4", game.getGameStats().get("position"));
+        assertEquals("25", gameStats.get("kills"));
+    }
+
+    @Test
+    void gameStatsAreReadOnly(){
+        Arena game = new Arena("1-6-2023", 12.25f, "Lifeline", 3, 4, 700, true);
+        assertThrows(UnsupportedOperationException.class, () -> game.getGameStats().put("kills", "10"));
+        game.setHasWon(false);
+        assertEquals("false", game.getGameStats().get("hasWon"));
+    }
+
+    @Test
+    void gameCanBeCreatedFromItsStats(){
+        BattleRoyal game = new BattleRoyal("1-6-2023", 30.5f, "Wraith", 25, 3, 5000, 2);
+        assertEquals(game.getGameStats(), new BattleRoyal(game.getGameStats()).getGameStats());
+    }
+}
@@ -0,0 +1,165 @@
+package furche.pg;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameTimeIndexTest {
+
+    /**
+     * Adds game played on given day, damage of game is its index in columns, so games can be identified
+     */
+    private static void addGame(GameColumns columns, int epochDay){
+        columns.add(epochDay, 10f, HeroDictionary.getHeroId("Wraith"), 1, 1, columns.size(), 5, null);
+    }
+
+    /**
+     * Returns indexes of games in columns sorted by date, games of the same day in insertion order
+     */
+    private static List<Integer> expectedOrder(GameColumns columns){
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++){
+            order.add(i);
+        }
+        order.sort(Comparator.comparingInt(columns::getEpochDay));
+        return order;
+    }
+
+    private static void assertOrder(GameColumns columns, GameTimeIndex index){
+        List<Integer> expected = expectedOrder(columns);
+        assertEquals(expected.size(), index.size());
+        for (int i = 0; i < expected.size(); i++){
+            assertEquals((int) expected.get(i), index.getGameIndex(i));
+            assertEquals((int) expected.get(i), index.games().get(i).getDamage());
+        }
+    }
+
+    private static List<Integer> damages(List<Game> games){
+        List<Integer> damages = new ArrayList<>();
+        for (Game game : games){
+            damages.add(game.getDamage());
+        }
+        return damages;
+    }
+
+    private static List<Integer> list(Integer... values){
+        List<Integer> list = new ArrayList<>();
+        for (Integer value : values){
+            list.add(value);
+        }
+        return list;
+    }
+
+    @Test
+    void outOfOrderInsertsAreSortedStably(){
+        GameColumns columns = new GameColumns(GameMode.BATTLE_ROYAL);
+        for (int day : new int[]{19505, 19500, 19503, 19500, 19510, 19503, 19499}){
+            addGame(columns, day);
+        }
+        GameTimeIndex index = GameTimeIndex.build(columns, null);
+        assertOrder(columns, index);
+        assertEquals(list(6, 1, 3, 2, 5, 0, 4), damages(index.games()));
+    }
+
+    @Test
+    void incrementalMergeMatchesFullBuild(){
+        Random random = new Random(3);
+        GameColumns columns = new GameColumns(GameMode.BATTLE_ROYAL);
+        GameTimeIndex index = GameTimeIndex.build(columns, null);
+        assertEquals(0, index.size());
+        for (int round = 0; round < 20; round++){
+            int added = random.nextInt(15);
+            for (int i = 0; i < added; i++){
+                addGame(columns, 19500 + random.nextInt(30));
+            }
+            GameTimeIndex merged = GameTimeIndex.build(columns, index);
+            assertOrder(columns, merged);
+            assertEquals(damages(GameTimeIndex.build(columns, null).games()), damages(merged.games()));
+            if (added == 0){
+                assertSame(index, merged);
+            }
+            index = merged;
+        }
+    }
+
+    @Test
+    void indexIsNotAffectedByLaterGames(){
+        GameColumns columns = new GameColumns(GameMode.BATTLE_ROYAL);
+        addGame(columns, 19502);
+        addGame(columns, 19500);
+        GameTimeIndex index = columns.getTimeIndex();
+        assertSame(index, columns.getTimeIndex());
+        addGame(columns, 19499);
+        assertEquals(2, index.size());
+        assertEquals(list(1, 0), damages(index.games()));
+        GameTimeIndex extended = columns.getTimeIndex();
+        assertEquals(list(2, 1, 0), damages(extended.games()));
+        assertThrows(IllegalArgumentException.class, () -> GameTimeIndex.build(new GameColumns(GameMode.BATTLE_ROYAL), extended));
+    }
+
+    @Test
+    void gamesBetweenIncludesBothBounds(){
+        GameColumns columns = new GameColumns(GameMode.BATTLE_ROYAL);
+        for (int day : new int[]{19503, 19500, 19505, 19503, 19501, 19508}){
+            addGame(columns, day);
+        }
+        GameTimeIndex index = columns.getTimeIndex();
+        assertEquals(list(4, 0, 3, 2), damages(index.gamesBetween(19501, 19505)));
+        assertEquals(list(0, 3), damages(index.gamesBetween(19503, 19503)));
+        assertEquals(list(1, 4, 0, 3), damages(index.gamesBetween(19490, 19503)));
+        assertEquals(list(2, 5), damages(index.gamesBetween(19504, Integer.MAX_VALUE)));
+        assertEquals(6, index.gamesBetween(Integer.MIN_VALUE, Integer.MAX_VALUE).size());
+        assertEquals(0, index.lowerBound(19400));
+        assertEquals(6, index.lowerBound(19509));
+    }
+
+    @Test
+    void emptyRangesReturnNoGames(){
+        GameColumns columns = new GameColumns(GameMode.BATTLE_ROYAL);
+        assertTrue(columns.getTimeIndex().gamesBetween(19500, 19510).isEmpty());
+        assertTrue(columns.getTimeIndex().lastN(3).isEmpty());
+        addGame(columns, 19500);
+        addGame(columns, 19505);
+        GameTimeIndex index = columns.getTimeIndex();
+        assertTrue(index.gamesBetween(19501, 19504).isEmpty());
+        assertTrue(index.gamesBetween(19506, 19600).isEmpty());
+        assertTrue(index.gamesBetween(19400, 19499).isEmpty());
+        assertTrue(index.gamesBetween(19505, 19500).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> index.gamesBetween(19501, 19504).get(0));
+    }
+
+    @Test
+    void lastNReturnsLatestGames(){
+        GameColumns columns = new GameColumns(GameMode.BATTLE_ROYAL);
+        for (int day : new int[]{19503, 19500, 19505, 19503}){
+            addGame(columns, day);
+        }
+        GameTimeIndex index = columns.getTimeIndex();
+        assertEquals(list(3, 2), damages(index.lastN(2)));
+        assertEquals(list(2), damages(index.lastN(1)));
+        assertTrue(index.lastN(0).isEmpty());
+        assertEquals(list(1, 0, 3, 2), damages(index.lastN(4)));
+        assertEquals(list(1, 0, 3, 2), damages(index.lastN(100)));
+        assertThrows(IllegalArgumentException.class, () -> index.lastN(-1));
+    }
+
+    @Test
+    void gameHistoryUsesIndexOfGivenMode(){
+        GameHistory gameHistory = new GameHistory();
+        gameHistory.addGameToHistory(new BattleRoyal("3-6-2023", 10f, "Wraith", 1, 1, 300, 5));
+        gameHistory.addGameToHistory(new BattleRoyal("1-6-2023", 10f, "Wraith", 1, 1, 100, 5));
+        gameHistory.addGameToHistory(new Arena("2-6-2023", 10f, "Octane", 1, 1, 200, true));
+        assertEquals(list(100, 300), damages(gameHistory.gamesBetween(GameMode.BATTLE_ROYAL, "1-6-2023", "3-6-2023")));
+        assertEquals(list(200), damages(gameHistory.gamesBetween(GameMode.ARENA, "1-6-2023", "3-6-2023")));
+        assertEquals(list(300), damages(gameHistory.lastN(GameMode.BATTLE_ROYAL, 1)));
+        assertEquals(list(200), damages(gameHistory.lastN(GameMode.ARENA, 5)));
+    }
+}
@@ -0,0 +1,103 @@
+package furche.pg;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GlobalScoreStatisticsTest {
+
+    private static Player createPlayer(String nick, float timeInGame, int kills){
+        Player player = new Player(nick, "PC", PlayerRank.GOLD);
+        player.addGameToHistory(19500, timeInGame, "Wraith", kills, 1, 100 * kills, 3);
+        return player;
+    }
+
+    private static void assertBounds(GlobalScoreStatistics statistics, PlayerBase playerBase){
+        FloatArrayList scores = new FloatArrayList(8);
+        for (Player player : playerBase.getPlayerBaseList()){
+            FloatArrayList playerScores = player.getGameHistory().calculateInitBattleRoyalScores();
+            for (int i = 0; i < playerScores.size(); i++){
+                scores.add(playerScores.get(i));
+            }
+        }
+        assertEquals(scores.size(), statistics.getCount());
+        assertEquals(scores.min(), statistics.getMin());
+        assertEquals(scores.max(), statistics.getMax());
+    }
+
+    @Test
+    void boundsAreUpdatedWithAddedGames(){
+        PlayerBase playerBase = new PlayerBase(new ArrayList<>(Arrays.asList(createPlayer("Kira", 20f, 5), createPlayer("Hulk", 10f, 2))));
+        Player kira = playerBase.getPlayerBaseList().get(0);
+        try (GlobalScoreStatistics statistics = new GlobalScoreStatistics(playerBase)) {
+            assertBounds(statistics, playerBase);
+            kira.addGameToHistory(19501, 30f, "Wraith", 20, 5, 4000, 1);
+            assertBounds(statistics, playerBase);
+            kira.addGameToHistory(19502, 1f, "Wraith", 0, 0, 0, 20);
+            assertBounds(statistics, playerBase);
+            float max = statistics.getMax();
+            kira.addGameToHistory(19503, 15f, "Wraith", 3, 1, 300, 8);
+            kira.addGameToHistory("4-6-2023", 12f, "Octane", 50, 0, 9000, true);
+            assertEquals(5, statistics.getCount());
+            assertEquals(max, statistics.getMax());
+        }
+    }
+
+    @Test
+    void playersAddedToBaseAreTracked(){
+        PlayerBase playerBase = new PlayerBase(new ArrayList<>(Arrays.asList(createPlayer("Kira", 20f, 5))));
+        try (GlobalScoreStatistics statistics = new GlobalScoreStatistics(playerBase)) {
+            Player hulk = createPlayer("Hulk", 40f, 30);
+            playerBase.addPlayer(hulk);
+            assertBounds(statistics, playerBase);
+            hulk.addGameToHistory(19501, 0.5f, "Wraith", 0, 0, 0, 20);
+            assertBounds(statistics, playerBase);
+        }
+    }
+
+    @Test
+    void closedStatisticsAreNotUpdated(){
+        PlayerBase playerBase = new PlayerBase(new ArrayList<>(Arrays.asList(createPlayer("Kira", 20f, 5))));
+        GlobalScoreStatistics statistics = new GlobalScoreStatistics(playerBase);
+        statistics.close();
+        playerBase.getPlayerBaseList().get(0).addGameToHistory(19501, 30f, "Wraith", 20, 5, 4000, 1);
+        playerBase.addPlayer(createPlayer("Hulk", 40f, 30));
+        assertEquals(1, statistics.getCount());
+    }
+
+    @Test
+    void scoresAddedByManyThreadsAreAllCounted() throws InterruptedException {
+        GlobalScoreStatistics statistics = new GlobalScoreStatistics();
+        assertThrows(NoSuchElementException.class, statistics::getMin);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++){
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++){
+                    statistics.addScore(i * threads.length + offset);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads){
+            thread.join();
+        }
+        assertEquals(40000, statistics.getCount());
+        assertEquals(0f, statistics.getMin());
+        assertEquals(39999f, statistics.getMax());
+
+        StatSummary summary = new StatSummary();
+        summary.add(-5);
+        summary.add(50000);
+        statistics.addScores(summary);
+        statistics.addScores(new StatSummary());
+        assertEquals(40002, statistics.getCount());
+        assertEquals(-5f, statistics.getMin());
+        assertEquals(50000f, statistics.getMax());
+    }
+}
@@ -0,0 +1,146 @@
+package furche.pg;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class HeroCubeTest {
+
+    private static PlayerBase createPlayerBase(){
+        Player pcGold = new Player("FireBite", "PC", PlayerRank.GOLD);
+        pcGold.addGameToHistory(19500, 20f, "Wraith", 4, 1, 900, 1);
+        pcGold.addGameToHistory(19501, 15f, "Wraith", 2, 0, 400, 7);
+        pcGold.addGameToHistory(19502, 10f, "Lifeline", 1, 3, 300, 4);
+        Player xboxGold = new Player("FireBite", "Xbox", PlayerRank.GOLD);
+        xboxGold.addGameToHistory(19500, 12f, "Wraith", 6, 2, 1500, 2);
+        Player pcBronze = new Player("Hulk", "PC", PlayerRank.BRONZE);
+        pcBronze.addGameToHistory(19503, 8f, "Octane", 0, 0, 100, 20);
+        pcBronze.addGameToHistory(19504, 9f, "Lifeline", 3, 1, 650, 1);
+        return new PlayerBase(Arrays.asList(pcGold, xboxGold, pcBronze));
+    }
+
+    @Test
+    void cellsAndRollUpsMatchGames(){
+        try (HeroCube cube = HeroCube.create(createPlayerBase())) {
+            HeroCube.HeroStats wraithPcGold = cube.getStats("Wraith", Platform.PC, PlayerRank.GOLD);
+            assertEquals(2, wraithPcGold.getGames());
+            assertEquals(3.0, wraithPcGold.getAvgKills());
+            assertEquals(650.0, wraithPcGold.getAvgDamage());
+            assertEquals(0.5, wraithPcGold.getWinRate());
+            assertEquals(2.0 / 3, wraithPcGold.getPickRate(), 1e-12);
+
+            assertEquals(3, cube.getStats("Wraith", null, null).getGames());
+            assertEquals(3, cube.getStats("Wraith", null, PlayerRank.GOLD).getGames());
+            assertEquals(2, cube.getStats("Lifeline", Platform.PC, null).getGames());
+            assertEquals(1.0, cube.getStats("Lifeline", Platform.PC, null).getTop5Rate());
+            assertEquals(0.5, cube.getStats("Lifeline", Platform.PC, null).getWinRate());
+            assertEquals(5, cube.getStats(null, Platform.PC, null).getGames());
+            assertEquals(4, cube.getStats(null, null, PlayerRank.GOLD).getGames());
+            assertEquals(6, cube.getStats(null, null, null).getGames());
+            assertEquals(16.0 / 6, cube.getStats(null, null, null).getAvgKills(), 1e-12);
+        }
+    }
+
+    @Test
+    void sliceSumsToRollUp(){
+        try (HeroCube cube = HeroCube.create(createPlayerBase())) {
+            for (Platform platform : new Platform[]{null, Platform.PC, Platform.XBOX}){
+                Map<String, HeroCube.HeroStats> slice = cube.slice(platform, null);
+                long games = 0;
+                double pickRates = 0;
+                for (HeroCube.HeroStats stats : slice.values()){
+                    games += stats.getGames();
+                    pickRates += stats.getPickRate();
+                }
+                assertEquals(cube.getStats(null, platform, null).getGames(), games);
+                assertEquals(1.0, pickRates, 1e-12);
+            }
+            assertEquals(1, cube.slice(Platform.XBOX, null).size());
+        }
+    }
+
+    @Test
+    void parallelCubeMatchesSingleThreadCube(){
+        PlayerBase playerBase = createPlayerBase();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try (HeroCube single = HeroCube.create(playerBase); HeroCube parallel = HeroCube.create(playerBase, pool)) {
+            for (String hero : new String[]{null, "Wraith", "Lifeline", "Octane"}){
+                for (Platform platform : new Platform[]{null, Platform.PC, Platform.XBOX, Platform.PLAYSTATION}){
+                    for (PlayerRank rank : new PlayerRank[]{null, PlayerRank.GOLD, PlayerRank.BRONZE}){
+                        HeroCube.HeroStats expected = single.getStats(hero, platform, rank);
+                        HeroCube.HeroStats actual = parallel.getStats(hero, platform, rank);
+                        assertEquals(expected.getGames(), actual.getGames());
+                        assertEquals(expected.getAvgDamage(), actual.getAvgDamage());
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void addedGamesUpdateCubeUntilItIsClosed(){
+        PlayerBase playerBase = createPlayerBase();
+        Player player = playerBase.getPlayerBaseList().get(1);
+        HeroCube cube = HeroCube.create(playerBase);
+        player.addGameToHistory(19505, 11f, "Octane", 5, 0, 1000, 3);
+        assertEquals(1, cube.getStats("Octane", Platform.XBOX, PlayerRank.GOLD).getGames());
+        assertEquals(7, cube.getStats(null, null, null).getGames());
+        cube.close();
+        player.addGameToHistory(19506, 11f, "Octane", 5, 0, 1000, 3);
+        assertEquals(1, cube.getStats("Octane", Platform.XBOX, PlayerRank.GOLD).getGames());
+        assertEquals(7, cube.getStats(null, null, null).getGames());
+    }
+
+    @Test
+    void gamesAddedWhileCubeIsBuiltAreCountedOnce() throws InterruptedException {
+        Player[] players = new Player[2000];
+        for (int i = 0; i < players.length; i++){
+            players[i] = new Player("Player" + i, "PC", PlayerRank.GOLD);
+            for (int game = 0; game < 50; game++){
+                players[i].addGameToHistory(19500 + game, 10f, "Wraith", 1, 1, 100, 10);
+            }
+        }
+        PlayerBase playerBase = new PlayerBase(Arrays.asList(players));
+        Player first = players[0];
+        AtomicBoolean building = new AtomicBoolean(true);
+        AtomicLong addedGames = new AtomicLong();
+        Thread adder = new Thread(() -> {
+            while (building.get()){
+                first.addGameToHistory(19600, 10f, "Wraith", 1, 1, 100, 10);
+                addedGames.incrementAndGet();
+            }
+        });
+        adder.start();
+        while (addedGames.get() == 0){
+            Thread.yield();
+        }
+        try (HeroCube cube = HeroCube.create(playerBase)) {
+            building.set(false);
+            adder.join();
+            assertEquals(players.length * 50L + addedGames.get(), cube.getStats(null, null, null).getGames());
+            assertEquals(players.length * 50L + addedGames.get(), cube.getStats("Wraith", Platform.PC, PlayerRank.GOLD).getGames());
+        }
+    }
+
+    @Test
+    void unknownHeroHasNoGamesAndIsNotAddedToDictionary(){
+        try (HeroCube cube = HeroCube.create(createPlayerBase())) {
+            int heroes = HeroDictionary.size();
+            HeroCube.HeroStats stats = cube.getStats("Wriath", Platform.PC, null);
+            assertEquals(0, stats.getGames());
+            assertEquals(0.0, stats.getPickRate());
+            assertEquals(heroes, HeroDictionary.size());
+            assertEquals(-1, HeroDictionary.findHeroId("Wriath"));
+            assertFalse(cube.slice(null, null).containsKey("Wriath"));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package furche.pg;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class IngestionPipelineTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        this.directory = Files.createTempDirectory("ingestion_pipeline_test");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        TestData.deleteDirectory(this.directory);
+    }
+
+    @Test
+    void pipelineLoadsSamePlayersAsPlayerBase() throws IOException, InterruptedException {
+        List<Player> expected = new PlayerBase(20).getPlayerBaseList();
+        TestData.assertSamePlayers(expected, new IngestionPipeline(2, 2, 4, 64 * 1024).load(PlayerInfo.PLAYER_INFO_PATH, 20).getPlayerBaseList());
+        // batches smaller than a few lines, so lines are split between batches
+        TestData.assertSamePlayers(expected, new IngestionPipeline(3, 2, 2, 100).load(PlayerInfo.PLAYER_INFO_PATH, 20).getPlayerBaseList());
+    }
+
+    @Test
+    void pipelineLoadsPlayersWithDuplicateNick() throws IOException, InterruptedException {
+        Path playerInfoPath = TestData.writePlayerInfo(this.directory, TestData.PLAYER_INFO_LINES);
+        List<Player> expected = new ArrayList<>();
+        for (PlayerInfo playerInfo : PlayerInfo.readPlayerInfo(playerInfoPath.toString(), Integer.MAX_VALUE)){
+            expected.add(TestData.readFromCsv(playerInfo));
+        }
+        TestData.assertSamePlayers(expected, new IngestionPipeline(2, 2, 4, 4096).load(playerInfoPath.toString(), Integer.MAX_VALUE).getPlayerBaseList());
+    }
+
+    @Test
+    void lastLineWithoutNewLineIsLoaded() throws IOException, InterruptedException {
+        Path playerInfoPath = TestData.writePlayerInfo(this.directory, "Kira,Xbox,Gold");
+        this.writeGameHistory("Kira", "1-6-2023,30.5,Wraith,25,3,5000,1\r\n2-6-2023,12.25,Lifeline,3,4,700,5");
+        Player expected = new Player("Kira", "Xbox", PlayerRank.GOLD);
+        expected.addGameToHistory("1-6-2023", 30.5f, "Wraith", 25, 3, 5000, 1);
+        expected.addGameToHistory("2-6-2023", 12.25f, "Lifeline", 3, 4, 700, 5);
+        PlayerBase playerBase = new IngestionPipeline(1, 1, 1, 16).load(playerInfoPath.toString(), this.directory + "/", Integer.MAX_VALUE);
+        TestData.assertSamePlayer(expected, playerBase.getPlayerBaseList().get(0));
+    }
+
+    @Test
+    void malformedRowFailsLoadAndStopsAllStages(){
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < 1000; i++){
+            rows.append("1-6-2023,30.5,Wraith,25,3,5000,1\n");
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            Path playerInfoPath = TestData.writePlayerInfo(this.directory, "Kira,Xbox,Gold", "Hulk,Xbox,Gold", "NoiseFire,PC,Gold");
+            this.writeGameHistory("Kira", rows.toString());
+            this.writeGameHistory("Hulk", rows + "2-6-2023,12.25,Lifeline,three,4,700,5\n" + rows);
+            this.writeGameHistory("NoiseFire", rows.toString());
+            IOException e = assertThrows(IOException.class, () -> new IngestionPipeline(2, 2, 1, 256)
+                    .load(playerInfoPath.toString(), this.directory + "/", Integer.MAX_VALUE));
+            assertInstanceOf(NumberFormatException.class, e.getCause());
+        });
+    }
+
+    private void writeGameHistory(String nick, String rows) throws IOException {
+        Files.write(this.directory.resolve(nick + ".csv"), rows.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,95 @@
+package furche.pg;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyPlayerBaseTest {
+
+    @Test
+    void playersWithDuplicateNickAreCachedSeparately(){
+        LazyPlayerBase lazyBase = PlayerBase.loadLazy(PlayerInfo.PLAYER_INFO_PATH, Long.MAX_VALUE);
+        Player xbox = lazyBase.getPlayer("FireBite", "Xbox");
+        Player nintendoSwitch = lazyBase.getPlayer("FireBite", "Nintendo Switch");
+        assertNotSame(xbox, nintendoSwitch);
+        assertEquals(Platform.XBOX, xbox.getPlatformType());
+        assertEquals(PlayerRank.BRONZE, xbox.getRank());
+        assertEquals(Platform.NINTENDO_SWITCH, nintendoSwitch.getPlatformType());
+        assertEquals(PlayerRank.SILVER, nintendoSwitch.getRank());
+        assertTrue(lazyBase.isLoaded("FireBite", "Xbox"));
+        assertSame(xbox, lazyBase.getPlayer("FireBite", "Xbox"));
+        assertNull(lazyBase.getPlayer("FireBite", "PC"));
+        assertEquals(2, lazyBase.getMisses());
+        assertEquals(1, lazyBase.getHits());
+    }
+
+    @Test
+    void concurrentRequestsOfPlayerReadItsFileOnce() throws Exception {
+        LazyPlayerBase lazyBase = PlayerBase.loadLazy(PlayerInfo.PLAYER_INFO_PATH, Long.MAX_VALUE);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Player>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++){
+                futures.add(pool.submit(() -> lazyBase.getPlayer("Hulk", "Xbox")));
+            }
+            Player player = futures.get(0).get();
+            for (Future<Player> future : futures){
+                assertSame(player, future.get());
+            }
+            assertEquals(1, lazyBase.getMisses());
+            assertEquals(1, lazyBase.getNumberOfLoadedPlayers());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedPlayersAreEvicted(){
+        LazyPlayerBase lazyBase = PlayerBase.loadLazy(PlayerInfo.PLAYER_INFO_PATH, 1);
+        lazyBase.getPlayer("Kira", "Xbox");
+        lazyBase.getPlayer("NoiseFire", "Nintendo Switch");
+        assertEquals(1, lazyBase.getNumberOfLoadedPlayers());
+        assertTrue(lazyBase.isLoaded("NoiseFire", "Nintendo Switch"));
+        assertEquals(1, lazyBase.getEvictions());
+    }
+
+    @Test
+    void failedReadIsRethrownAndRetried() throws IOException {
+        Path directory = Files.createTempDirectory("lazy_player_base_test");
+        try {
+            Path playerInfoPath = TestData.writePlayerInfo(directory, "Kira,Xbox,Gold", "Hulk,PC,Silver");
+            Path kiraPath = directory.resolve("Kira.csv");
+            Files.write(kiraPath, "1-6-2023,30.5,Wraith,25,3,5000,1\n2-6-2023,12.25,Lifeline,many,4,700,5\n".getBytes(StandardCharsets.US_ASCII));
+            LazyPlayerBase lazyBase = PlayerBase.loadLazy(playerInfoPath.toString(), directory + "/", Long.MAX_VALUE);
+
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> lazyBase.getPlayer("Kira", "Xbox"));
+            assertInstanceOf(NumberFormatException.class, e.getCause());
+            assertEquals(0, lazyBase.getNumberOfLoadedPlayers());
+            // player without game history file is not in the base
+            assertNull(lazyBase.getPlayer("Hulk", "PC"));
+
+            Files.write(kiraPath, "1-6-2023,30.5,Wraith,25,3,5000,1\n".getBytes(StandardCharsets.US_ASCII));
+            assertEquals(1, lazyBase.getPlayer("Kira", "Xbox").getGameHistory().getNumberOfGames());
+            assertEquals(3, lazyBase.getMisses());
+            assertTrue(lazyBase.isLoaded("Kira", "Xbox"));
+        } finally {
+            TestData.deleteDirectory(directory);
+        }
+    }
+}
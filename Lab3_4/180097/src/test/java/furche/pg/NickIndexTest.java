@@ -0,0 +1,70 @@
+package furche.pg;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NickIndexTest {
+
+    @Test
+    void exactLookupDistinguishesPlatformsOfDuplicateNick(){
+        NickIndex index = new NickIndex();
+        Player pc = new Player("FireBite", "PC");
+        Player xbox = new Player("FireBite", "Xbox");
+        index.add(pc);
+        index.add(xbox);
+        assertEquals(2, index.size());
+        assertSame(pc, index.get("FireBite", "PC"));
+        assertSame(xbox, index.get("FireBite", "Xbox"));
+        assertNull(index.get("FireBite", "Playstation"));
+        assertNull(index.get("firebite", "PC"));
+        assertEquals(Arrays.asList(pc, xbox), index.getAll("FireBite"));
+        assertTrue(index.getAll("Hulk").isEmpty());
+    }
+
+    @Test
+    void prefixLookupReturnsAllPlayersWithDuplicateNick(){
+        NickIndex index = new NickIndex();
+        Player hulkPc = new Player("Hulk", "PC");
+        Player carbon = new Player("carbon", "Xbox");
+        Player hulkSwitch = new Player("Hulk", "Nintendo Switch");
+        Player human = new Player("Human", "Playstation");
+        index.add(hulkPc);
+        index.add(carbon);
+        index.add(hulkSwitch);
+        index.add(human);
+        assertEquals(Arrays.asList(hulkPc, hulkSwitch, human), index.findByPrefix("HU", 10));
+        assertEquals(Arrays.asList(hulkPc, hulkSwitch), index.findByPrefix("hulk", 10));
+        assertEquals(Arrays.asList(hulkPc), index.findByPrefix("hu", 1));
+        assertEquals(Arrays.asList(carbon), index.findByPrefix("C", 10));
+        assertTrue(index.findByPrefix("x", 10).isEmpty());
+        assertTrue(index.findByPrefix("h", 0).isEmpty());
+    }
+
+    @Test
+    void prefixLookupSeesPlayersAddedBetweenLookups(){
+        NickIndex index = new NickIndex();
+        for (int i = 0; i < 1000; i++){
+            index.add(new Player(String.format("Player%04d", i), "PC"));
+            List<Player> found = index.findByPrefix("player", Integer.MAX_VALUE);
+            assertEquals(i + 1, found.size());
+            assertEquals(String.format("Player%04d", i), found.get(i).getNick());
+        }
+    }
+
+    @Test
+    void clearRemovesAllPlayers(){
+        NickIndex index = new NickIndex();
+        index.add(new Player("NoiseFire", "PC"));
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.getAll("NoiseFire").isEmpty());
+        assertTrue(index.findByPrefix("", 10).isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+package furche.pg;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerBaseReportTest {
+
+    private static Player createPlayer(String nick, int games){
+        Player player = new Player(nick, "PC", PlayerRank.GOLD);
+        for (int i = 0; i < games; i++){
+            player.addGameToHistory(19500 + i, 5f + i, "Wraith", i % 6, 1, 300, 1 + i % 8);
+            if (i % 3 == 0){
+                player.getGameHistory().addArena(19500 + i, 2.5f, HeroDictionary.getHeroId("Octane"), 1, 0, 100, i % 2 == 0);
+            }
+        }
+        return player;
+    }
+
+    @Test
+    void playerStatsMatchGames(){
+        Player player = createPlayer("Kira", 20);
+        PlayerBaseReport.PlayerStats stats = new PlayerBaseReport.PlayerStats(player);
+        int won = 0;
+        int top3 = 0;
+        int top5 = 0;
+        long kills = 0;
+        float time = 0;
+        List<BattleRoyal> battleRoyals = player.getGameHistory().getPlayedBattleRoyalsList();
+        for (BattleRoyal game : battleRoyals){
+            int position = game.getPosition();
+            won += position == 1 ? 1 : 0;
+            top3 += position > 1 && position <= 3 ? 1 : 0;
+            top5 += position > 3 && position <= 5 ? 1 : 0;
+            kills += game.getKills();
+            time += game.getTimeInGame();
+        }
+        int arenasWon = 0;
+        float arenaTime = 0;
+        for (Arena game : player.getGameHistory().getPlayedArenasList()){
+            arenasWon += game.isHasWon() ? 1 : 0;
+            arenaTime += game.getTimeInGame();
+        }
+        assertEquals(battleRoyals.size(), stats.getBattleRoyalsPlayed());
+        assertEquals(won, stats.getBattleRoyalsWon());
+        assertEquals(top3, stats.getBattleRoyalsTop3());
+        assertEquals(top5, stats.getBattleRoyalsTop5());
+        assertEquals(7, stats.getArenasPlayed());
+        assertEquals(arenasWon, stats.getArenasWon());
+        assertEquals(time + arenaTime, stats.getTimePlayed());
+        assertEquals((float) kills / battleRoyals.size(), stats.getKDRatio());
+    }
+
+    @Test
+    void playerWithoutGamesHasNoKDRatio(){
+        PlayerBaseReport.PlayerStats stats = new PlayerBaseReport.PlayerStats(new Player("Hulk", "PC", PlayerRank.BRONZE));
+        assertEquals(0, stats.getBattleRoyalsPlayed());
+        assertEquals(0f, stats.getTimePlayed());
+        assertTrue(Float.isNaN(stats.getKDRatio()));
+    }
+
+    @Test
+    void parallelReportMatchesSingleThreadReport(){
+        PlayerBase playerBase = new PlayerBase(Arrays.asList(createPlayer("Kira", 20), createPlayer("Hulk", 3),
+                createPlayer("Bloodhound", 11)));
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            PlayerBaseReport single = PlayerBaseReport.create(playerBase);
+            PlayerBaseReport parallel = PlayerBaseReport.create(playerBase, pool);
+            assertEquals(34, single.getBattleRoyalsPlayed());
+            assertEquals(single.getBattleRoyalsPlayed(), parallel.getBattleRoyalsPlayed());
+            assertEquals(single.getBattleRoyalsWon(), parallel.getBattleRoyalsWon());
+            assertEquals(single.getArenasWon(), parallel.getArenasWon());
+            assertEquals(single.getTimePlayed().getMean(), parallel.getTimePlayed().getMean(), 1e-9);
+            assertEquals(single.getKDRatio().getCount(), parallel.getKDRatio().getCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
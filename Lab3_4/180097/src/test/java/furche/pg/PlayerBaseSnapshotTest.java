@@ -0,0 +1,75 @@
+package furche.pg;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PlayerBaseSnapshotTest {
+
+    private Path directory;
+    private Path playerInfoPath;
+    private String snapshotPath;
+    private List<Player> expected;
+
+    @BeforeEach
+    void createSnapshot() throws IOException {
+        this.directory = Files.createTempDirectory("player_base_snapshot_test");
+        this.playerInfoPath = TestData.writePlayerInfo(this.directory, TestData.PLAYER_INFO_LINES);
+        this.snapshotPath = this.directory.resolve("player_base.snapshot").toString();
+        this.expected = new ArrayList<>();
+        for (PlayerInfo playerInfo : PlayerInfo.readPlayerInfo(this.playerInfoPath.toString(), Integer.MAX_VALUE)){
+            this.expected.add(TestData.readFromCsv(playerInfo));
+        }
+        PlayerBaseSnapshot.convert(this.playerInfoPath.toString(), this.snapshotPath);
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        TestData.deleteDirectory(this.directory);
+    }
+
+    @Test
+    void snapshotReadsSamePlayersAsCsvFiles() throws IOException {
+        TestData.assertSamePlayers(this.expected, PlayerBaseSnapshot.readPlayers(this.snapshotPath));
+        TestData.assertSamePlayers(this.expected, PlayerBase.loadSnapshot(this.snapshotPath).getPlayerBaseList());
+    }
+
+    @Test
+    void snapshotReadsSamePlayersIntoOffHeapArena() throws IOException {
+        TestData.assertSamePlayers(this.expected, PlayerBaseSnapshot.readPlayers(this.snapshotPath, OffHeapGameArena.direct()));
+    }
+
+    @Test
+    void snapshotIsConvertedFromGivenDirectory() throws IOException {
+        Path gameHistoryDir = Files.createDirectory(this.directory.resolve("game_history_files"));
+        Files.write(gameHistoryDir.resolve("Kira.csv"),
+                "1-6-2023,30.5,Wraith,25,3,5000,1\n2-6-2023,12.25,Lifeline,3,4,700,5\n".getBytes(StandardCharsets.US_ASCII));
+        Player kira = new Player("Kira", "Xbox", PlayerRank.GOLD);
+        kira.addGameToHistory("1-6-2023", 30.5f, "Wraith", 25, 3, 5000, 1);
+        kira.addGameToHistory("2-6-2023", 12.25f, "Lifeline", 3, 4, 700, 5);
+        String snapshotPath = this.directory.resolve("kira.snapshot").toString();
+        try {
+            PlayerBaseSnapshot.convert(this.playerInfoPath.toString(), gameHistoryDir + "/", snapshotPath);
+            TestData.assertSamePlayers(Collections.singletonList(kira), PlayerBaseSnapshot.readPlayers(snapshotPath));
+        } finally {
+            TestData.deleteDirectory(gameHistoryDir);
+        }
+    }
+
+    @Test
+    void fileWhichIsNotSnapshotIsRejected() throws IOException {
+        Path path = this.directory.resolve("not.snapshot");
+        Files.write(path, "1-6-2023,30.5,Wraith,25,3,5000,1\n".getBytes(StandardCharsets.US_ASCII));
+        assertThrows(IOException.class, () -> PlayerBaseSnapshot.readPlayers(path.toString()));
+    }
+}
@@ -0,0 +1,63 @@
+package furche.pg;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PlayerSummaryBaseTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        this.directory = Files.createTempDirectory("player_summary_base_test");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        TestData.deleteDirectory(this.directory);
+    }
+
+    @Test
+    void summariesMatchGamesInGivenDirectory() throws IOException {
+        Path playerInfoPath = TestData.writePlayerInfo(this.directory, "Kira,Xbox,Gold", "Hulk,PC,Silver");
+        this.writeGameHistory("Kira", "1-6-2023,30.5,Wraith,25,3,5000,1\n2-6-2023,12.25,Lifeline,3,4,700,5\n");
+        this.writeGameHistory("Hulk", "3-6-2023,10,Bangalore,0,1,100,20\n");
+        for (PlayerSummaryBase summaryBase : new PlayerSummaryBase[]{
+                new PlayerSummaryBase(playerInfoPath.toString(), this.directory + "/", Integer.MAX_VALUE),
+                new PlayerSummaryBase(playerInfoPath.toString(), this.directory + "/", Integer.MAX_VALUE, 2)}){
+            List<PlayerSummary> summaries = summaryBase.getSummaries();
+            assertEquals(2, summaries.size());
+            assertEquals("Kira", summaries.get(0).getNick());
+            assertEquals(2, summaries.get(0).getNumberOfGames());
+            assertEquals(42.75f, summaries.get(0).getSumTimePlayed());
+            assertEquals("Hulk", summaries.get(1).getNick());
+            assertEquals(1, summaries.get(1).getNumberOfGames());
+            assertEquals(3, summaryBase.getGamesRead());
+        }
+    }
+
+    @Test
+    void failedPlayerFailsParallelSummarizing() throws IOException {
+        Path playerInfoPath = TestData.writePlayerInfo(this.directory, "Kira,Xbox,Gold", "Hulk,PC,Silver");
+        this.writeGameHistory("Kira", "1-6-2023,30.5,Wraith,25,3,5000,1\n");
+        this.writeGameHistory("Hulk", "3-6-2023,10,Bangalore,zero,1,100,20\n");
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new PlayerSummaryBase(playerInfoPath.toString(), this.directory + "/", Integer.MAX_VALUE, 2));
+        assertInstanceOf(NumberFormatException.class, e.getCause());
+    }
+
+    private void writeGameHistory(String nick, String rows) throws IOException {
+        Files.write(this.directory.resolve(nick + ".csv"), rows.getBytes(StandardCharsets.US_ASCII));
+    }
+}
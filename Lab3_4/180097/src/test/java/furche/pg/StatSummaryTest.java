@@ -0,0 +1,116 @@
+package furche.pg;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatSummaryTest {
+
+    private static final double DELTA = 1e-9;
+
+    private static StatSummary summarize(double[] values, int from, int to){
+        StatSummary summary = new StatSummary();
+        for (int i = from; i < to; i++){
+            summary.add(values[i]);
+        }
+        return summary;
+    }
+
+    private static void assertSameSummary(StatSummary expected, StatSummary actual){
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getMean(), actual.getMean(), DELTA * Math.max(1, Math.abs(expected.getMean())));
+        assertEquals(expected.getVariance(), actual.getVariance(), DELTA * Math.max(1, expected.getVariance()));
+        assertEquals(expected.getSum(), actual.getSum(), DELTA * Math.max(1, Math.abs(expected.getSum())));
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+    }
+
+    @Test
+    void singlePassMatchesTwoPassFormulas(){
+        double[] values = {4, 7, 13, 16, -2.5, 0, 9.75};
+        StatSummary summary = summarize(values, 0, values.length);
+        double sum = 0;
+        for (double value : values){
+            sum += value;
+        }
+        double mean = sum / values.length;
+        double squares = 0;
+        for (double value : values){
+            squares += (value - mean) * (value - mean);
+        }
+        assertEquals(values.length, summary.getCount());
+        assertEquals(mean, summary.getMean(), DELTA);
+        assertEquals(squares / values.length, summary.getVariance(), DELTA);
+        assertEquals(Math.sqrt(squares / values.length), summary.getStd(), DELTA);
+        assertEquals(-2.5, summary.getMin());
+        assertEquals(16, summary.getMax());
+    }
+
+    @Test
+    void mergeOfEverySplitMatchesSinglePass(){
+        Random random = new Random(7);
+        double[] values = new double[50];
+        for (int i = 0; i < values.length; i++){
+            // large offset checks that merge keeps precision of Welford's algorithm
+            values[i] = 1e6 + random.nextGaussian() * 25;
+        }
+        StatSummary expected = summarize(values, 0, values.length);
+        for (int split = 0; split <= values.length; split++){
+            StatSummary merged = summarize(values, 0, split).merge(summarize(values, split, values.length));
+            assertSameSummary(expected, merged);
+        }
+    }
+
+    @Test
+    void mergeWithEmptySideKeepsOtherSide(){
+        double[] values = {3, 8, 1};
+        StatSummary expected = summarize(values, 0, values.length);
+
+        StatSummary left = summarize(values, 0, values.length);
+        assertSame(left, left.merge(new StatSummary()));
+        assertSameSummary(expected, left);
+
+        StatSummary empty = new StatSummary();
+        assertSame(empty, empty.merge(summarize(values, 0, values.length)));
+        assertSameSummary(expected, empty);
+
+        StatSummary bothEmpty = new StatSummary().merge(new StatSummary());
+        assertEquals(0, bothEmpty.getCount());
+        assertEquals(0.0, bothEmpty.getSum());
+        assertTrue(Double.isNaN(bothEmpty.getMean()));
+        assertTrue(Double.isNaN(bothEmpty.getVariance()));
+        assertTrue(Double.isNaN(bothEmpty.getMin()));
+        assertTrue(Double.isNaN(bothEmpty.getMax()));
+    }
+
+    @Test
+    void mergeWithOneElementSides(){
+        double[] values = {5, -3, 12.5, 7};
+        StatSummary one = summarize(values, 0, 1);
+        assertEquals(0.0, one.getVariance());
+        assertEquals(5.0, one.getMin());
+        assertEquals(5.0, one.getMax());
+
+        assertSameSummary(summarize(values, 0, 2), summarize(values, 0, 1).merge(summarize(values, 1, 2)));
+        assertSameSummary(summarize(values, 0, values.length), summarize(values, 0, 1).merge(summarize(values, 1, values.length)));
+        assertSameSummary(summarize(values, 0, values.length), summarize(values, 0, 3).merge(summarize(values, 3, values.length)));
+    }
+
+    @Test
+    void mergedSummaryCanBeExtendedAndCopied(){
+        double[] values = {2, 4, 4, 4, 5, 5, 7, 9};
+        StatSummary merged = summarize(values, 0, 3).merge(summarize(values, 3, 6));
+        StatSummary copy = new StatSummary(merged);
+        for (int i = 6; i < values.length; i++){
+            merged.add(values[i]);
+        }
+        assertSameSummary(summarize(values, 0, values.length), merged);
+        assertEquals(5.0, merged.getMean(), DELTA);
+        assertEquals(2.0, merged.getStd(), DELTA);
+        assertSameSummary(summarize(values, 0, 6), copy);
+    }
+}
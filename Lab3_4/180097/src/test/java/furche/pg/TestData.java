@@ -0,0 +1,74 @@
+package furche.pg;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Helpers shared by tests of loaders: small player_info files with players of default data set and comparison
+ * of loaded players with players read directly from their csv files.
+ */
+final class TestData {
+
+    /**
+     * Lines of default player_info file, FireBite is used by two players on different platforms
+     */
+    static final String[] PLAYER_INFO_LINES = {"Kira,Xbox,Gold", "FireBite,Xbox,Bronze", "FireBite,Nintendo Switch,Silver",
+            "Hulk,Xbox,Gold"};
+
+    private TestData(){
+    }
+
+    static Path writePlayerInfo(Path directory, String... lines) throws IOException {
+        Path path = directory.resolve("player_info.txt");
+        Files.write(path, Arrays.asList(lines), StandardCharsets.US_ASCII);
+        return path;
+    }
+
+    static Player readFromCsv(PlayerInfo playerInfo) throws IOException {
+        Player player = new Player(playerInfo.getNick(), playerInfo.getPlatform(), playerInfo.getRank());
+        GameHistoryFileReader.readGameHistory(playerInfo.getGameHistoryPath(), player::addGameToHistory);
+        return player;
+    }
+
+    static void assertSamePlayers(List<Player> expected, List<Player> actual){
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++){
+            assertSamePlayer(expected.get(i), actual.get(i));
+        }
+    }
+
+    static void assertSamePlayer(Player expected, Player actual){
+        assertEquals(expected.getNick(), actual.getNick());
+        assertEquals(expected.getPlatformType(), actual.getPlatformType());
+        assertEquals(expected.getRank(), actual.getRank());
+        GameColumns expectedColumns = expected.getGameHistory().getBattleRoyalColumns();
+        GameColumns actualColumns = actual.getGameHistory().getBattleRoyalColumns();
+        assertEquals(expectedColumns.size(), actualColumns.size(), "Number of games of " + expected.getNick());
+        for (int i = 0; i < expectedColumns.size(); i++){
+            assertEquals(expectedColumns.getEpochDay(i), actualColumns.getEpochDay(i));
+            assertEquals(expectedColumns.getTimeInGame(i), actualColumns.getTimeInGame(i));
+            assertEquals(expectedColumns.getHeroId(i), actualColumns.getHeroId(i));
+            assertEquals(expectedColumns.getKills(i), actualColumns.getKills(i));
+            assertEquals(expectedColumns.getAssists(i), actualColumns.getAssists(i));
+            assertEquals(expectedColumns.getDamage(i), actualColumns.getDamage(i));
+            assertEquals(expectedColumns.getResult(i), actualColumns.getResult(i));
+        }
+    }
+
+    static void deleteDirectory(Path directory) throws IOException {
+        File[] files = directory.toFile().listFiles();
+        if (files != null){
+            for (File file : files){
+                Files.delete(file.toPath());
+            }
+        }
+        Files.delete(directory);
+    }
+}